@@ -0,0 +1,61 @@
+package com.bank.accountms.api;
+
+import com.bank.accountms.api.mapper.AccountMapper;
+import com.bank.accountms.domain.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo de la capa REST: {@code ContractMapper.toDto} (modelo del contrato OpenAPI),
+ * {@code AccountMapper.toDto} (record interno) y {@code AccountController.parseSort}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountMappingBenchmark {
+
+    @Param({"id,desc", "balanceCents,asc", ""})
+    public String sort;
+
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = new Account();
+        account.setId(42L);
+        account.setAccountNumber("ACC-000000010009");
+        account.setBalanceCents(123_456L);
+        account.setAccountType(Account.AccountType.CHECKING);
+        account.setCustomerId(7L);
+    }
+
+    @Benchmark
+    public Object controllerToDto() {
+        return ContractMapper.toDto(account);
+    }
+
+    @Benchmark
+    public Object mapperToDto() {
+        return AccountMapper.toDto(account);
+    }
+
+    @Benchmark
+    public Sort parseSort() {
+        return AccountController.parseSort(sort);
+    }
+}
@@ -0,0 +1,90 @@
+package com.bank.accountms.service;
+
+import com.bank.accountms.api.dto.AccountDtos.AmountDto;
+import com.bank.accountms.domain.Account;
+import com.bank.accountms.domain.AccountNumbers;
+import com.bank.accountms.repository.AccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lógica de {@link AccountService} en depósitos y retiros (validación, número de cuenta,
+ * caché de saldos), sin la base de datos: el repositorio es un stub en memoria que responde
+ * a los UPDATE condicionados y a las lecturas de la cuenta.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountServiceBenchmark {
+
+    private static final AmountDto AMOUNT = new AmountDto(1_000L);
+
+    private AccountService service;
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = new Account();
+        account.setId(1L);
+        account.setAccountNumber(AccountNumbers.format(1_000));
+        account.setBalanceCents(1_000_000_000L);
+        account.setAccountType(Account.AccountType.CHECKING);
+        account.setCustomerId(7L);
+        service = new AccountService(inMemoryRepository(account), new CustomerBalanceCache(1_000),
+                () -> "unused");
+    }
+
+    @Benchmark
+    public Account deposit() {
+        return service.deposit(1L, AMOUNT);
+    }
+
+    @Benchmark
+    public Account withdraw() {
+        return service.withdraw(1L, AMOUNT);
+    }
+
+    @Benchmark
+    public Account depositByNumber() {
+        return service.depositByNumber(account.getAccountNumber(), AMOUNT);
+    }
+
+    @Benchmark
+    public Account withdrawByNumber() {
+        return service.withdrawByNumber(account.getAccountNumber(), AMOUNT);
+    }
+
+    // Sólo los métodos que usan depósitos y retiros; el resto no se invoca.
+    private static AccountRepository inMemoryRepository(Account account) {
+        return (AccountRepository) Proxy.newProxyInstance(
+                AccountRepository.class.getClassLoader(),
+                new Class<?>[] {AccountRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "incrementBalance", "incrementBalanceByNumber" -> {
+                        account.setBalanceCents(account.getBalanceCents() + (long) args[1]);
+                        yield 1;
+                    }
+                    case "decrementBalance", "decrementBalanceByNumber" -> {
+                        account.setBalanceCents(account.getBalanceCents() - (long) args[1]);
+                        yield 1;
+                    }
+                    case "findById", "findByAccountNumber" -> Optional.of(account);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -3,23 +3,31 @@ package com.bank.accountms.api;
 import com.bank.accountms.contract.api.CuentasApi;
 import com.bank.accountms.contract.model.AccountCreateDto;
 import com.bank.accountms.contract.model.AccountDto;
+import com.bank.accountms.contract.model.AccountExistsDto;
 import com.bank.accountms.contract.model.AccountPage;
 import com.bank.accountms.contract.model.AmountDto;
+import com.bank.accountms.contract.model.PostingDto;
+import com.bank.accountms.contract.model.PostingResultDto;
 import com.bank.accountms.domain.Account;
+import com.bank.accountms.domain.Money;
 import com.bank.accountms.service.AccountService;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * Controlador REST que expone operaciones sobre cuentas bancarias.
+ * Controlador REST que expone operaciones sobre cuentas bancarias (modo por defecto: Tomcat
+ * y JPA). Con el perfil {@code reactive} lo sustituye {@link ReactiveAccountController}.
  */
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class AccountController implements CuentasApi {
 
@@ -27,44 +35,38 @@ public class AccountController implements CuentasApi {
 
     @Override
     public ResponseEntity<AccountPage> listAccounts(
-            Long customerId, Integer page, Integer size, String sort) {
+            Long customerId, Integer page, Integer size, String sort,
+            String cursor, Boolean withCount) {
         int p = (page == null || page < 0) ? 0 : page;
         int s = (size == null || size < 1) ? 10 : Math.min(size, 50);
         Sort sortSpec = parseSort(sort);
+        if (cursor != null) {
+            return ResponseEntity.ok(listByCursor(
+                    customerId, s, sortSpec, cursor, Boolean.TRUE.equals(withCount)));
+        }
         Pageable pageable = PageRequest.of(p, s, sortSpec);
 
         Page<Account> pageDomain = service.list(customerId, pageable);
 
-        AccountPage resp = new AccountPage();
-        resp.setNumber(pageDomain.getNumber());
-        resp.setSize(pageDomain.getSize());
-        resp.setTotalElements(pageDomain.getTotalElements());
-        resp.setTotalPages(pageDomain.getTotalPages());
-        resp.setFirst(pageDomain.isFirst());
-        resp.setLast(pageDomain.isLast());
-        resp.setSort(sortSpec.isSorted() ? sortSpec.toString() : "");
-        resp.setContent(
-                pageDomain.getContent().stream().map(this::toDto).toList()
-        );
-
-        return ResponseEntity.ok(resp);
+        return ResponseEntity.ok(ContractMapper.toPage(pageDomain, sortSpec));
     }
 
     @Override
     public ResponseEntity<AccountDto> createAccount(AccountCreateDto body) {
-        var created = service.create(
-                new com.bank.accountms.api.dto.AccountDtos.AccountCreateDto(
-                        body.getCustomerId(),
-                        body.getAccountType().getValue(), // "SAVINGS" | "CHECKING"
-                        body.getInitialDeposit()
-                )
-        );
-        return ResponseEntity.status(201).body(toDto(created));
+        var created = service.create(ContractMapper.toCreate(body));
+        return ResponseEntity.status(201).body(ContractMapper.toDto(created));
+    }
+
+    @Override
+    public ResponseEntity<List<AccountDto>> createAccounts(List<AccountCreateDto> body) {
+        var created = service.createAll(body.stream().map(ContractMapper::toCreate).toList());
+        return ResponseEntity.status(201)
+                .body(created.stream().map(ContractMapper::toDto).toList());
     }
 
     @Override
     public ResponseEntity<AccountDto> getAccount(Long id) {
-        return ResponseEntity.ok(toDto(service.get(id)));
+        return ResponseEntity.ok(ContractMapper.toDto(service.get(id)));
     }
 
     @Override
@@ -75,65 +77,69 @@ public class AccountController implements CuentasApi {
 
     @Override
     public ResponseEntity<AccountDto> deposit(Long id, AmountDto body) {
-        var updated = service.deposit(
-                id,
-                new com.bank.accountms.api.dto.AccountDtos.AmountDto(body.getAmount())
-        );
-        return ResponseEntity.ok(toDto(updated));
+        var updated = service.deposit(id, ContractMapper.toAmount(body));
+        return ResponseEntity.ok(ContractMapper.toDto(updated));
     }
 
     @Override
     public ResponseEntity<AccountDto> withdraw(Long id, AmountDto body) {
-        var updated = service.withdraw(
-                id,
-                new com.bank.accountms.api.dto.AccountDtos.AmountDto(body.getAmount())
-        );
-        return ResponseEntity.ok(toDto(updated));
+        var updated = service.withdraw(id, ContractMapper.toAmount(body));
+        return ResponseEntity.ok(ContractMapper.toDto(updated));
     }
 
     @Override
     public ResponseEntity<Double> totalBalance(Long customerId) {
-        return ResponseEntity.ok(service.totalBalanceAsync(customerId).join());
+        return ResponseEntity.ok(Money.toDecimal(service.totalBalance(customerId)));
+    }
+
+    @Override
+    public ResponseEntity<AccountExistsDto> accountsExist(Long customerId) {
+        AccountExistsDto dto = new AccountExistsDto();
+        dto.setExists(service.hasAccounts(customerId));
+        return ResponseEntity.ok(dto);
     }
 
     @Override
     public ResponseEntity<AccountDto> getAccountByNumber(String accountNumber) {
-        return ResponseEntity.ok(toDto(service.getByAccountNumber(accountNumber)));
+        return ResponseEntity.ok(
+                ContractMapper.toDto(service.getByAccountNumber(accountNumber)));
     }
 
     @Override
     public ResponseEntity<AccountDto> depositByAccountNumber(
             String accountNumber, AmountDto body) {
-        var updated = service.depositByNumber(
-                accountNumber,
-                new com.bank.accountms.api.dto.AccountDtos.AmountDto(body.getAmount())
-        );
-        return ResponseEntity.ok(toDto(updated));
+        var updated = service.depositByNumber(accountNumber, ContractMapper.toAmount(body));
+        return ResponseEntity.ok(ContractMapper.toDto(updated));
     }
 
     @Override
     public ResponseEntity<AccountDto> withdrawByAccountNumber(
             String accountNumber, AmountDto body) {
-        var updated = service.withdrawByNumber(
-                accountNumber,
-                new com.bank.accountms.api.dto.AccountDtos.AmountDto(body.getAmount())
-        );
-        return ResponseEntity.ok(toDto(updated));
+        var updated = service.withdrawByNumber(accountNumber, ContractMapper.toAmount(body));
+        return ResponseEntity.ok(ContractMapper.toDto(updated));
+    }
+
+    @Override
+    public ResponseEntity<List<PostingResultDto>> batchPostings(List<PostingDto> body) {
+        var results = service.applyPostings(
+                body.stream().map(ContractMapper::toPosting).toList());
+        return ResponseEntity.ok(results.stream().map(ContractMapper::toDto).toList());
     }
 
     // ---- helpers ----
 
-    private AccountDto toDto(Account a) {
-        AccountDto dto = new AccountDto();
-        dto.setId(a.getId());
-        dto.setAccountNumber(a.getAccountNumber());
-        dto.setBalance(a.getBalance());
-        dto.setCustomerId(a.getCustomerId());
-        dto.setAccountType(AccountDto.AccountTypeEnum.fromValue(a.getAccountType().name()));
-        return dto;
+    private AccountPage listByCursor(
+            Long customerId, int size, Sort sortSpec, String cursor, boolean withCount) {
+        IdCursor position = IdCursor.of(cursor, sortSpec);
+
+        Slice<Account> slice = service.listAfter(
+                customerId, position.lastId(), position.ascending(), size);
+
+        return ContractMapper.toPage(slice, size, position, cursor.isBlank(),
+                withCount ? service.count(customerId) : null);
     }
 
-    private Sort parseSort(String sort) {
+    static Sort parseSort(String sort) {
         if (sort == null || sort.isBlank()) {
             return Sort.by(Sort.Direction.DESC, "id");
         }
@@ -0,0 +1,102 @@
+package com.bank.accountms.api;
+
+import com.bank.accountms.api.dto.AccountDtos;
+import com.bank.accountms.contract.model.AccountCreateDto;
+import com.bank.accountms.contract.model.AccountDto;
+import com.bank.accountms.contract.model.AccountPage;
+import com.bank.accountms.contract.model.AmountDto;
+import com.bank.accountms.contract.model.PostingDto;
+import com.bank.accountms.contract.model.PostingResultDto;
+import com.bank.accountms.domain.Account;
+import com.bank.accountms.domain.Money;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Conversión entre los modelos del contrato OpenAPI y los del servicio, común a
+ * {@link AccountController} y {@link ReactiveAccountController}.
+ */
+final class ContractMapper {
+
+    private ContractMapper() { }
+
+    static AccountDtos.AccountCreateDto toCreate(AccountCreateDto body) {
+        return new AccountDtos.AccountCreateDto(
+                body.getCustomerId(),
+                body.getAccountType().getValue(), // "SAVINGS" | "CHECKING"
+                Money.toCents(body.getInitialDeposit()));
+    }
+
+    static AccountDtos.AmountDto toAmount(AmountDto body) {
+        return new AccountDtos.AmountDto(Money.toCents(body.getAmount()));
+    }
+
+    static AccountDtos.PostingDto toPosting(PostingDto p) {
+        return new AccountDtos.PostingDto(
+                p.getAccountNumber(),
+                p.getType().getValue(), // "DEPOSIT" | "WITHDRAW"
+                Money.toCents(p.getAmount()));
+    }
+
+    // fase "mapping" de Server-Timing: entidad -> modelo del contrato (sin la serialización JSON)
+    static AccountDto toDto(Account a) {
+        long start = System.nanoTime();
+        AccountDto dto = new AccountDto();
+        dto.setId(a.getId());
+        dto.setAccountNumber(a.getAccountNumber());
+        dto.setBalance(Money.toDecimal(a.getBalanceCents()));
+        dto.setCustomerId(a.getCustomerId());
+        dto.setAccountType(AccountDto.AccountTypeEnum.fromValue(a.getAccountType().name()));
+        ServerTiming.record("mapping", System.nanoTime() - start);
+        return dto;
+    }
+
+    static PostingResultDto toDto(AccountDtos.PostingResultDto r) {
+        long start = System.nanoTime();
+        PostingResultDto dto = new PostingResultDto();
+        dto.setIndex(r.index());
+        dto.setAccountNumber(r.accountNumber());
+        dto.setStatus(r.applied()
+                ? PostingResultDto.StatusEnum.APPLIED
+                : PostingResultDto.StatusEnum.REJECTED);
+        dto.setBalance(Money.toDecimal(r.balanceCents()));
+        dto.setError(r.error());
+        ServerTiming.record("mapping", System.nanoTime() - start);
+        return dto;
+    }
+
+    static AccountPage toPage(Page<Account> page, Sort sortSpec) {
+        AccountPage resp = new AccountPage();
+        resp.setNumber(page.getNumber());
+        resp.setSize(page.getSize());
+        resp.setTotalElements(page.getTotalElements());
+        resp.setTotalPages(page.getTotalPages());
+        resp.setFirst(page.isFirst());
+        resp.setLast(page.isLast());
+        resp.setSort(sortSpec.isSorted() ? sortSpec.toString() : "");
+        resp.setContent(page.getContent().stream().map(ContractMapper::toDto).toList());
+        return resp;
+    }
+
+    /**
+     * Página keyset; {@code totalElements} sólo si se pidió ({@code count} no nulo).
+     */
+    static AccountPage toPage(Slice<Account> slice, int size, IdCursor position, boolean first,
+                              Long count) {
+        AccountPage resp = new AccountPage();
+        resp.setSize(size);
+        resp.setFirst(first);
+        resp.setLast(!slice.hasNext());
+        resp.setSort(slice.getSort().toString());
+        resp.setContent(slice.getContent().stream().map(ContractMapper::toDto).toList());
+        if (slice.hasNext()) {
+            var last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            resp.setNextCursor(new IdCursor(last.getId(), position.ascending()).encode());
+        }
+        if (count != null) {
+            resp.setTotalElements(count);
+        }
+        return resp;
+    }
+}
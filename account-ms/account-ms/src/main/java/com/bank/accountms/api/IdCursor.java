@@ -0,0 +1,52 @@
+package com.bank.accountms.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Cursor opaco para la paginación keyset sobre {@code id}.
+ *
+ * @param lastId    último id entregado (límite exclusivo de la página siguiente)
+ * @param ascending dirección del recorrido
+ */
+record IdCursor(long lastId, boolean ascending) {
+
+    static IdCursor first(boolean ascending) {
+        return new IdCursor(ascending ? 0L : Long.MAX_VALUE, ascending);
+    }
+
+    /**
+     * Posición pedida: la primera página si {@code cursor} está vacío (sólo con sort por id),
+     * o el cursor recibido.
+     */
+    static IdCursor of(String cursor, Sort sortSpec) {
+        if (!cursor.isBlank()) {
+            return decode(cursor);
+        }
+        var order = sortSpec.getOrderFor("id");
+        if (order == null) {
+            throw new IllegalArgumentException("Cursor pagination only supports sort by id");
+        }
+        return first(order.isAscending());
+    }
+
+    static IdCursor decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            var parts = raw.split(":", 2);
+            if (parts.length != 2 || !("a".equals(parts[0]) || "d".equals(parts[0]))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new IdCursor(Long.parseLong(parts[1]), "a".equals(parts[0]));
+        } catch (IllegalArgumentException e) { // incluye NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        var raw = (ascending ? "a:" : "d:") + lastId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,157 @@
+package com.bank.accountms.api;
+
+import com.bank.accountms.contract.model.AccountCreateDto;
+import com.bank.accountms.contract.model.AccountDto;
+import com.bank.accountms.contract.model.AccountExistsDto;
+import com.bank.accountms.contract.model.AccountPage;
+import com.bank.accountms.contract.model.AmountDto;
+import com.bank.accountms.contract.model.PostingDto;
+import com.bank.accountms.contract.model.PostingResultDto;
+import com.bank.accountms.contract.reactive.api.CuentasApi;
+import com.bank.accountms.domain.Money;
+import com.bank.accountms.service.ReactiveAccountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador WebFlux del perfil {@code reactive}: el mismo contrato {@code CuentasApi} que
+ * {@link AccountController}, generado con {@code reactive=true}, sobre
+ * {@link ReactiveAccountService}.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAccountController implements CuentasApi {
+
+    private final ReactiveAccountService service;
+
+    @Override
+    public Mono<ResponseEntity<AccountPage>> listAccounts(
+            Long customerId, Integer page, Integer size, String sort,
+            String cursor, Boolean withCount, ServerWebExchange exchange) {
+        int p = (page == null || page < 0) ? 0 : page;
+        int s = (size == null || size < 1) ? 10 : Math.min(size, 50);
+        Sort sortSpec = AccountController.parseSort(sort);
+        if (cursor != null) {
+            return listByCursor(customerId, s, sortSpec, cursor, Boolean.TRUE.equals(withCount))
+                    .map(ResponseEntity::ok);
+        }
+        return service.list(customerId, PageRequest.of(p, s, sortSpec))
+                .map(pageDomain -> ResponseEntity.ok(ContractMapper.toPage(pageDomain, sortSpec)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountDto>> createAccount(
+            Mono<AccountCreateDto> body, ServerWebExchange exchange) {
+        return body.map(ContractMapper::toCreate)
+                .flatMap(service::create)
+                .map(created -> ResponseEntity.status(201).body(ContractMapper.toDto(created)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<AccountDto>>> createAccounts(
+            Flux<AccountCreateDto> body, ServerWebExchange exchange) {
+        return body.map(ContractMapper::toCreate)
+                .collectList()
+                .flatMap(service::createAll)
+                .map(created -> ResponseEntity.status(201)
+                        .body(Flux.fromIterable(created).map(ContractMapper::toDto)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountDto>> getAccount(Long id, ServerWebExchange exchange) {
+        return service.get(id).map(a -> ResponseEntity.ok(ContractMapper.toDto(a)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteAccount(Long id, ServerWebExchange exchange) {
+        return service.delete(id).thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountDto>> deposit(
+            Long id, Mono<AmountDto> body, ServerWebExchange exchange) {
+        return body.map(ContractMapper::toAmount)
+                .flatMap(amount -> service.deposit(id, amount))
+                .map(updated -> ResponseEntity.ok(ContractMapper.toDto(updated)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountDto>> withdraw(
+            Long id, Mono<AmountDto> body, ServerWebExchange exchange) {
+        return body.map(ContractMapper::toAmount)
+                .flatMap(amount -> service.withdraw(id, amount))
+                .map(updated -> ResponseEntity.ok(ContractMapper.toDto(updated)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Double>> totalBalance(
+            Long customerId, ServerWebExchange exchange) {
+        return service.totalBalance(customerId)
+                .map(total -> ResponseEntity.ok(Money.toDecimal(total)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountExistsDto>> accountsExist(
+            Long customerId, ServerWebExchange exchange) {
+        return service.hasAccounts(customerId).map(exists -> {
+            AccountExistsDto dto = new AccountExistsDto();
+            dto.setExists(exists);
+            return ResponseEntity.ok(dto);
+        });
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountDto>> getAccountByNumber(
+            String accountNumber, ServerWebExchange exchange) {
+        return service.getByAccountNumber(accountNumber)
+                .map(a -> ResponseEntity.ok(ContractMapper.toDto(a)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountDto>> depositByAccountNumber(
+            String accountNumber, Mono<AmountDto> body, ServerWebExchange exchange) {
+        return body.map(ContractMapper::toAmount)
+                .flatMap(amount -> service.depositByNumber(accountNumber, amount))
+                .map(updated -> ResponseEntity.ok(ContractMapper.toDto(updated)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountDto>> withdrawByAccountNumber(
+            String accountNumber, Mono<AmountDto> body, ServerWebExchange exchange) {
+        return body.map(ContractMapper::toAmount)
+                .flatMap(amount -> service.withdrawByNumber(accountNumber, amount))
+                .map(updated -> ResponseEntity.ok(ContractMapper.toDto(updated)));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<PostingResultDto>>> batchPostings(
+            Flux<PostingDto> body, ServerWebExchange exchange) {
+        return body.map(ContractMapper::toPosting)
+                .collectList()
+                .flatMap(service::applyPostings)
+                .map(results -> ResponseEntity.ok(
+                        Flux.fromIterable(results).map(ContractMapper::toDto)));
+    }
+
+    // ---- helpers ----
+
+    private Mono<AccountPage> listByCursor(
+            Long customerId, int size, Sort sortSpec, String cursor, boolean withCount) {
+        IdCursor position = IdCursor.of(cursor, sortSpec);
+        var slice = service.listAfter(customerId, position.lastId(), position.ascending(), size);
+        if (!withCount) {
+            return slice.map(s -> ContractMapper.toPage(s, size, position, cursor.isBlank(), null));
+        }
+        return Mono.zip(slice, service.count(customerId))
+                .map(t -> ContractMapper.toPage(
+                        t.getT1(), size, position, cursor.isBlank(), t.getT2()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank.accountms.api;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code Server-Timing} en el perfil {@code reactive}: sólo la fase {@code total}, escrita
+ * justo antes de confirmar la respuesta. Las fases por hilo de {@link ServerTiming}
+ * ({@code db}, {@code mapping}) no se registran en WebFlux.
+ */
+@Component
+@Profile("reactive")
+@ConditionalOnProperty(name = "server-timing.enabled", matchIfMissing = true)
+public class ReactiveServerTimingFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var timing = ServerTiming.detached();
+        var response = exchange.getResponse();
+        response.beforeCommit(() -> Mono.fromRunnable(
+                () -> response.getHeaders().add(ServerTiming.HEADER, timing.header())));
+        return chain.filter(exchange);
+    }
+}
@@ -6,9 +6,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 /**
- * Manejador global de excepciones para la API REST.
+ * Manejador global de excepciones para la API REST (Spring MVC y, en el perfil
+ * {@code reactive}, WebFlux).
  */
 @ControllerAdvice
 public class RestExceptionHandler {
@@ -35,4 +37,13 @@ public class RestExceptionHandler {
                 .toList();
         return ResponseEntity.badRequest().body(msg);
     }
+
+    // equivalente WebFlux de MethodArgumentNotValidException (cuerpo @Valid)
+    @ExceptionHandler(WebExchangeBindException.class)
+    ResponseEntity<?> validation(WebExchangeBindException ex) {
+        var msg = ex.getBindingResult().getFieldErrors().stream()
+                .map(err -> err.getField() + " " + err.getDefaultMessage())
+                .toList();
+        return ResponseEntity.badRequest().body(msg);
+    }
 }
@@ -0,0 +1,69 @@
+package com.bank.accountms.api;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fases de la petición en curso para la cabecera {@code Server-Timing}.
+ *
+ * <p>{@link ServerTimingFilter} abre una instancia por petición en el hilo que la atiende; las
+ * fases ({@code db}, {@code mapping}) suman su duración con {@link #record}. Sin petición
+ * abierta (tareas en segundo plano, benchmarks) no se registra nada. La cabecera se escribe al
+ * confirmar la respuesta y termina con {@code total}: el tiempo hasta ese momento, sin la
+ * serialización del cuerpo.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    private ServerTiming() {
+    }
+
+    static ServerTiming open() {
+        var timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Instancia sin asociar al hilo, para WebFlux ({@link ReactiveServerTimingFilter}): la
+     * petición cambia de hilo, así que sólo se informa {@code total}.
+     */
+    static ServerTiming detached() {
+        return new ServerTiming();
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Suma {@code nanos} a la fase {@code name} de la petición en curso, si la hay.
+     */
+    public static void record(String name, long nanos) {
+        var timing = CURRENT.get();
+        if (timing != null) {
+            timing.phases.merge(name, nanos, Long::sum);
+        }
+    }
+
+    String header() {
+        var sb = new StringBuilder();
+        phases.forEach((name, nanos) -> append(sb, name, nanos));
+        append(sb, "total", System.nanoTime() - start);
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String name, long nanos) {
+        if (!sb.isEmpty()) {
+            sb.append(", ");
+        }
+        sb.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1e6));
+    }
+}
@@ -14,32 +14,68 @@ public final class AccountDtos {
      *
      * @param id           identificador de la cuenta
      * @param accountNumber número de cuenta
-     * @param balance       saldo actual
+     * @param balanceCents  saldo actual en céntimos
      * @param accountType   tipo de cuenta
      * @param customerId    identificador del cliente
      */
     public record AccountDto(
             Long id,
             String accountNumber,
-            Double balance,
+            long balanceCents,
             String accountType,
             Long customerId
     ) { }
 
     /**
      * DTO para la creación de cuentas.
+     *
+     * @param customerId          identificador del cliente
+     * @param accountType         tipo de cuenta
+     * @param initialDepositCents depósito inicial en céntimos
      */
     public record AccountCreateDto(
             @NotNull Long customerId,
             @NotBlank String accountType,
-            @NotNull @Min(1) Double initialDeposit
+            @Min(1) long initialDepositCents
     ) { }
 
     /**
      * DTO para operaciones de monto (depósito/retiro).
+     *
+     * @param amountCents monto en céntimos
      */
     public record AmountDto(
-            @NotNull @Min(1) Double amount
+            @Min(1) long amountCents
+    ) { }
+
+    /**
+     * Movimiento individual dentro de un lote.
+     *
+     * @param accountNumber número de cuenta
+     * @param type          tipo de movimiento ("DEPOSIT" | "WITHDRAW")
+     * @param amountCents   monto en céntimos
+     */
+    public record PostingDto(
+            @NotBlank String accountNumber,
+            @NotBlank String type,
+            @Min(1) long amountCents
+    ) { }
+
+    /**
+     * Resultado de un movimiento del lote.
+     *
+     * @param index         posición del movimiento en la petición
+     * @param accountNumber número de cuenta
+     * @param applied       true si el movimiento se aplicó
+     * @param balanceCents  saldo tras el movimiento (o saldo vigente si se rechazó)
+     * @param error         motivo del rechazo, o null
+     */
+    public record PostingResultDto(
+            int index,
+            String accountNumber,
+            boolean applied,
+            long balanceCents,
+            String error
     ) { }
 
     private AccountDtos() { }
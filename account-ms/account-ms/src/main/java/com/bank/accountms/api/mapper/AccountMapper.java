@@ -14,7 +14,7 @@ public final class AccountMapper {
         return new AccountDto(
                 a.getId(),
                 a.getAccountNumber(),
-                a.getBalance(),
+                a.getBalanceCents(),
                 a.getAccountType().name(),
                 a.getCustomerId()
         );
@@ -8,6 +8,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,12 +18,16 @@ import lombok.Setter;
 
 /**
  * Entidad que representa una cuenta bancaria.
+ *
+ * <p>La misma clase se mapea con JPA (modo por defecto) y con Spring Data R2DBC (perfil
+ * {@code reactive}); los nombres de columna coinciden en ambos.
  */
 @Entity
 @Table(name = "accounts", indexes = {
         @Index(name = "idx_account_number", columnList = "accountNumber", unique = true),
         @Index(name = "idx_customer_id", columnList = "customerId")
 })
+@org.springframework.data.relational.core.mapping.Table("accounts")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,15 +35,26 @@ import lombok.Setter;
 @Builder
 public class Account {
 
+    /** Ids reservados por consulta a {@code account_seq}. */
+    public static final int ID_ALLOCATION_SIZE = 100;
+
+    /**
+     * Id de una secuencia "pooled" (en MySQL, tabla {@code account_seq}): Hibernate reserva
+     * 100 ids por consulta y puede agrupar los INSERT en lotes JDBC, cosa que IDENTITY impide.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 32)
     private String accountNumber;
 
-    @Column(nullable = false)
-    private Double balance;
+    /** Saldo en céntimos (ver {@link Money}). */
+    @Column(name = "balance_cents", nullable = false)
+    private long balanceCents;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 16)
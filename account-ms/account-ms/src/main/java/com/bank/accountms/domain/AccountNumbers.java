@@ -0,0 +1,69 @@
+package com.bank.accountms.domain;
+
+import java.util.regex.Pattern;
+
+/**
+ * Formato de los números de cuenta: {@code ACC-} + 11 dígitos + 1 dígito de control (Luhn),
+ * p.ej. {@code ACC-000000010009}.
+ *
+ * <p>Los números antiguos ({@code ACC} + {@code System.nanoTime()}) no llevan guion y se
+ * siguen aceptando tal cual; sólo los del formato nuevo se validan sin ir a la base de datos.
+ */
+public final class AccountNumbers {
+
+    public static final String PREFIX = "ACC-";
+    public static final int BODY_DIGITS = 11;
+    public static final long MAX_BODY = 99_999_999_999L;
+
+    private static final Pattern FORMAT = Pattern.compile("ACC-\\d{12}");
+
+    private AccountNumbers() {
+    }
+
+    /**
+     * Número de cuenta para el valor {@code body} (0..{@value #MAX_BODY}).
+     */
+    public static String format(long body) {
+        if (body < 0 || body > MAX_BODY) {
+            throw new IllegalArgumentException("Account number out of range: " + body);
+        }
+        String digits = String.format("%011d", body);
+        return PREFIX + digits + checkDigit(digits);
+    }
+
+    /**
+     * {@code false} si el número no puede existir: vacío, o con el prefijo del formato nuevo
+     * pero con longitud o dígito de control incorrectos.
+     */
+    public static boolean isPlausible(String accountNumber) {
+        if (accountNumber == null || accountNumber.isBlank()) {
+            return false;
+        }
+        if (!accountNumber.startsWith(PREFIX)) {
+            return true; // formato antiguo
+        }
+        if (!FORMAT.matcher(accountNumber).matches()) {
+            return false;
+        }
+        String digits = accountNumber.substring(PREFIX.length(), PREFIX.length() + BODY_DIGITS);
+        return accountNumber.charAt(accountNumber.length() - 1) == checkDigit(digits);
+    }
+
+    // Luhn (mod 10) sobre los dígitos del cuerpo
+    static char checkDigit(String digits) {
+        int sum = 0;
+        boolean dbl = true; // el dígito más a la derecha del cuerpo se duplica
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (dbl) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            dbl = !dbl;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bank.accountms.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversión entre montos decimales del contrato REST y unidades mínimas (céntimos).
+ * Internamente todos los saldos y montos se manejan como {@code long} en céntimos.
+ */
+public final class Money {
+
+    private Money() { }
+
+    /**
+     * Convierte un monto decimal (p.ej. 150.25) a céntimos (15025).
+     *
+     * @param amount monto decimal recibido en el contrato
+     * @return monto en céntimos
+     * @throws IllegalArgumentException si el monto es nulo o tiene más de 2 decimales
+     */
+    public static long toCents(Double amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        try {
+            return BigDecimal.valueOf(amount)
+                    .setScale(2, RoundingMode.UNNECESSARY)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most 2 decimals");
+        }
+    }
+
+    /**
+     * Convierte céntimos al monto decimal que expone el contrato REST.
+     *
+     * @param cents monto en céntimos
+     * @return monto decimal
+     */
+    public static double toDecimal(long cents) {
+        return cents / 100.0;
+    }
+}
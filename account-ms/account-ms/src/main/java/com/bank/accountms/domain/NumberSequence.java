@@ -0,0 +1,30 @@
+package com.bank.accountms.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Contador "hi" de una secuencia hi/lo: cada incremento reserva un bloque de valores.
+ */
+@Entity
+@Table(name = "number_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NumberSequence {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /** Siguiente bloque libre. */
+    @Column(nullable = false)
+    private long nextBlock;
+}
@@ -1,11 +1,17 @@
 package com.bank.accountms.repository;
 
 import com.bank.accountms.domain.Account;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repositorio para acceder a las cuentas en la base de datos.
@@ -17,4 +23,70 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByCustomerId(Long customerId);
 
     Page<Account> findByCustomerId(Long customerId, Pageable pageable);
+
+    // Paginación keyset: el Pageable sólo aporta límite y orden por id (sin COUNT).
+
+    List<Account> findByIdLessThan(Long id, Pageable pageable);
+
+    List<Account> findByIdGreaterThan(Long id, Pageable pageable);
+
+    List<Account> findByCustomerIdAndIdLessThan(Long customerId, Long id, Pageable pageable);
+
+    List<Account> findByCustomerIdAndIdGreaterThan(Long customerId, Long id, Pageable pageable);
+
+    long countByCustomerId(Long customerId);
+
+    boolean existsByCustomerId(Long customerId);
+
+    /**
+     * Suma de saldos (céntimos) del cliente calculada en la base de datos.
+     */
+    @Query("select coalesce(sum(a.balanceCents), 0) from Account a"
+            + " where a.customerId = :customerId")
+    long sumBalanceByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Carga y bloquea (SELECT ... FOR UPDATE) las cuentas de un lote en una sola consulta.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    /**
+     * Incrementa el saldo en una sola sentencia (sin lectura previa).
+     *
+     * @return filas afectadas (0 si la cuenta no existe)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balanceCents = a.balanceCents + :amount where a.id = :id")
+    int incrementBalance(@Param("id") Long id, @Param("amount") long amount);
+
+    /**
+     * Decrementa el saldo sólo si el resultado respeta la regla del tipo de cuenta:
+     * SAVINGS no puede quedar negativa y CHECKING no puede bajar de {@code overdraftLimit}.
+     *
+     * @return filas afectadas (0 si la cuenta no existe o la regla no se cumple)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balanceCents = a.balanceCents - :amount"
+            + " where a.id = :id"
+            + " and a.balanceCents - :amount >= case when a.accountType = SAVINGS"
+            + " then 0 else :overdraftLimit end")
+    int decrementBalance(@Param("id") Long id,
+                         @Param("amount") long amount,
+                         @Param("overdraftLimit") long overdraftLimit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balanceCents = a.balanceCents + :amount"
+            + " where a.accountNumber = :accountNumber")
+    int incrementBalanceByNumber(@Param("accountNumber") String accountNumber,
+                                 @Param("amount") long amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balanceCents = a.balanceCents - :amount"
+            + " where a.accountNumber = :accountNumber"
+            + " and a.balanceCents - :amount >= case when a.accountType = SAVINGS"
+            + " then 0 else :overdraftLimit end")
+    int decrementBalanceByNumber(@Param("accountNumber") String accountNumber,
+                                 @Param("amount") long amount,
+                                 @Param("overdraftLimit") long overdraftLimit);
 }
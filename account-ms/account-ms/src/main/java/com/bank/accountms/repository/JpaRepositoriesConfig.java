@@ -0,0 +1,20 @@
+package com.bank.accountms.repository;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Repositorios JPA del modo por defecto. {@link ReactiveAccountRepository} comparte entidad
+ * ({@code @Entity Account}) y paquete con ellos, así que sin el filtro Spring Data JPA también
+ * lo reclama y el contexto no arranca.
+ */
+@Configuration
+@Profile("!reactive")
+@EnableJpaRepositories(basePackageClasses = AccountRepository.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = ReactiveAccountRepository.class))
+public class JpaRepositoriesConfig {
+}
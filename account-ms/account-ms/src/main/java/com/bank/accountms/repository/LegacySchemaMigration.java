@@ -0,0 +1,81 @@
+package com.bank.accountms.repository;
+
+import com.bank.accountms.domain.Account;
+import jakarta.annotation.PostConstruct;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Locale;
+import javax.sql.DataSource;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ajustes de esquema que {@code ddl-auto=update} no hace por sí solo. Se ejecuta al arrancar,
+ * después de que Hibernate actualice las tablas y antes de atender peticiones; en una base de
+ * datos ya migrada no cambia nada.
+ *
+ * <ul>
+ *   <li>{@code accounts.balance} (DOUBLE, anterior a los céntimos): se copia a
+ *       {@code balance_cents} y se elimina. Mientras exista, los INSERT fallan porque la
+ *       columna es NOT NULL y la entidad ya no la escribe.</li>
+ *   <li>{@code account_seq} (tabla en MySQL): Hibernate la crea con {@code next_val = 1} aunque
+ *       ya haya cuentas con ids de IDENTITY. El optimizador "pooled" usa los ids
+ *       {@code (valor leído - 100, valor leído]}, así que {@code next_val} debe ser al menos
+ *       {@code max(id) + 100} para no repetir ids; sólo se sube, nunca se baja.</li>
+ * </ul>
+ */
+@Component
+@Profile("!reactive")
+@DependsOn("entityManagerFactory")
+public class LegacySchemaMigration {
+
+    private final JdbcTemplate jdbc;
+
+    public LegacySchemaMigration(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (hasColumn("accounts", "balance")) {
+            jdbc.update("update accounts set balance_cents = round(balance * 100)"
+                    + " where balance is not null");
+            jdbc.execute("alter table accounts drop column balance");
+        }
+        // en H2 Hibernate usa una secuencia nativa, no una tabla, y la base de datos es nueva
+        if (hasTable("account_seq")) {
+            String floor = "(select coalesce(max(id), 0) + " + Account.ID_ALLOCATION_SIZE
+                    + " from accounts)";
+            jdbc.update("update account_seq set next_val = " + floor
+                    + " where next_val < " + floor);
+        }
+    }
+
+    private boolean hasTable(String table) {
+        Boolean found = jdbc.execute((ConnectionCallback<Boolean>) conn -> {
+            DatabaseMetaData meta = conn.getMetaData();
+            String name = meta.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            try (ResultSet rs = meta.getTables(conn.getCatalog(), conn.getSchema(), name,
+                    new String[] {"TABLE"})) {
+                return rs.next();
+            }
+        });
+        return Boolean.TRUE.equals(found);
+    }
+
+    private boolean hasColumn(String table, String column) {
+        Boolean found = jdbc.execute((ConnectionCallback<Boolean>) conn -> {
+            DatabaseMetaData meta = conn.getMetaData();
+            boolean upper = meta.storesUpperCaseIdentifiers();
+            try (ResultSet rs = meta.getColumns(conn.getCatalog(), conn.getSchema(),
+                    upper ? table.toUpperCase(Locale.ROOT) : table,
+                    upper ? column.toUpperCase(Locale.ROOT) : column)) {
+                return rs.next();
+            }
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
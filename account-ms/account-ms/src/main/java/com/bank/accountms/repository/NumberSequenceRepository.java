@@ -0,0 +1,22 @@
+package com.bank.accountms.repository;
+
+import com.bank.accountms.domain.NumberSequence;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repositorio de las secuencias hi/lo.
+ */
+public interface NumberSequenceRepository extends JpaRepository<NumberSequence, String> {
+
+    /**
+     * Lee y bloquea (SELECT ... FOR UPDATE) la secuencia para reservar el siguiente bloque.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from NumberSequence s where s.name = :name")
+    Optional<NumberSequence> lockByName(@Param("name") String name);
+}
@@ -0,0 +1,82 @@
+package com.bank.accountms.repository;
+
+import com.bank.accountms.domain.Account;
+import java.util.Collection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositorio R2DBC de cuentas (perfil {@code reactive}): las mismas consultas que
+ * {@link AccountRepository}, en SQL sobre la tabla {@code accounts}.
+ */
+public interface ReactiveAccountRepository extends R2dbcRepository<Account, Long> {
+
+    Mono<Account> findByAccountNumber(String accountNumber);
+
+    Flux<Account> findAllBy(Pageable pageable);
+
+    Flux<Account> findByCustomerId(Long customerId, Pageable pageable);
+
+    // Paginación keyset: el Pageable sólo aporta límite y orden por id (sin COUNT).
+
+    Flux<Account> findByIdLessThan(Long id, Pageable pageable);
+
+    Flux<Account> findByIdGreaterThan(Long id, Pageable pageable);
+
+    Flux<Account> findByCustomerIdAndIdLessThan(Long customerId, Long id, Pageable pageable);
+
+    Flux<Account> findByCustomerIdAndIdGreaterThan(Long customerId, Long id, Pageable pageable);
+
+    Mono<Long> countByCustomerId(Long customerId);
+
+    Mono<Boolean> existsByCustomerId(Long customerId);
+
+    @Query("select coalesce(sum(balance_cents), 0) from accounts where customer_id = :customerId")
+    Mono<Long> sumBalanceByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Carga y bloquea (SELECT ... FOR UPDATE) las cuentas de un lote en una sola consulta.
+     */
+    @Query("select * from accounts where account_number in (:accountNumbers) for update")
+    Flux<Account> lockByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Modifying
+    @Query("update accounts set balance_cents = balance_cents + :amount where id = :id")
+    Mono<Integer> incrementBalance(@Param("id") Long id, @Param("amount") long amount);
+
+    @Modifying
+    @Query("update accounts set balance_cents = balance_cents - :amount"
+            + " where id = :id"
+            + " and balance_cents - :amount >= case when account_type = 'SAVINGS'"
+            + " then 0 else :overdraftLimit end")
+    Mono<Integer> decrementBalance(@Param("id") Long id,
+                                   @Param("amount") long amount,
+                                   @Param("overdraftLimit") long overdraftLimit);
+
+    @Modifying
+    @Query("update accounts set balance_cents = balance_cents + :amount"
+            + " where account_number = :accountNumber")
+    Mono<Integer> incrementBalanceByNumber(@Param("accountNumber") String accountNumber,
+                                           @Param("amount") long amount);
+
+    @Modifying
+    @Query("update accounts set balance_cents = balance_cents - :amount"
+            + " where account_number = :accountNumber"
+            + " and balance_cents - :amount >= case when account_type = 'SAVINGS'"
+            + " then 0 else :overdraftLimit end")
+    Mono<Integer> decrementBalanceByNumber(@Param("accountNumber") String accountNumber,
+                                           @Param("amount") long amount,
+                                           @Param("overdraftLimit") long overdraftLimit);
+
+    /**
+     * Fija el saldo final de una cuenta ya bloqueada (lotes de movimientos).
+     */
+    @Modifying
+    @Query("update accounts set balance_cents = :balance where id = :id")
+    Mono<Integer> updateBalance(@Param("id") Long id, @Param("balance") long balance);
+}
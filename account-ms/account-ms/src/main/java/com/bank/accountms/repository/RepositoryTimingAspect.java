@@ -0,0 +1,28 @@
+package com.bank.accountms.repository;
+
+import com.bank.accountms.api.ServerTiming;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Suma el tiempo de cada llamada a un repositorio Spring Data a la fase {@code db} de
+ * {@code Server-Timing}. Los flush diferidos al commit de la transacción no se incluyen.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "server-timing.enabled", matchIfMissing = true)
+public class RepositoryTimingAspect {
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object time(ProceedingJoinPoint call) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return call.proceed();
+        } finally {
+            ServerTiming.record("db", System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bank.accountms.service;
+
+/**
+ * Genera números de cuenta únicos (ver {@link com.bank.accountms.domain.AccountNumbers}).
+ */
+@FunctionalInterface
+public interface AccountNumberGenerator {
+
+    String next();
+}
@@ -2,26 +2,53 @@ package com.bank.accountms.service;
 
 import com.bank.accountms.api.dto.AccountDtos.AccountCreateDto;
 import com.bank.accountms.api.dto.AccountDtos.AmountDto;
+import com.bank.accountms.api.dto.AccountDtos.PostingDto;
+import com.bank.accountms.api.dto.AccountDtos.PostingResultDto;
 import com.bank.accountms.domain.Account;
+import com.bank.accountms.domain.AccountNumbers;
 import com.bank.accountms.repository.AccountRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Servicio que maneja la lógica de negocio relacionada con cuentas.
+ *
+ * <p>Los métodos de movimiento se miden con {@code @Timed} (timer {@code account.service}) y
+ * los rechazos de negocio se publican como {@code account.rejections{reason}}.
  */
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
-public class AccountService {
+public class AccountService implements MeterBinder {
 
-    public static final double OVERDRAFT_LIMIT = -500.00; // límite de sobregiro para checking
+    // límite de sobregiro para checking (-500.00) en céntimos
+    public static final long OVERDRAFT_LIMIT_CENTS = -50_000L;
 
     private final AccountRepository repo;
+    private final CustomerBalanceCache balances;
+    private final AccountNumberGenerator numbers;
+
+    private final LongAdder insufficientFunds = new LongAdder();
+    private final LongAdder overdraftRejections = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
 
     /**
      * Crea una nueva cuenta bancaria.
@@ -29,19 +56,52 @@ public class AccountService {
      * @param dto datos de creación
      * @return cuenta creada
      */
+    @Timed("account.service")
+    @Transactional
     public Account create(AccountCreateDto dto) {
+        var saved = repo.save(newAccount(dto, numbers.next()));
+        balances.recordDelta(dto.customerId(), dto.initialDepositCents());
+        return saved;
+    }
+
+    /**
+     * Crea varias cuentas en una sola transacción. Con ids de secuencia y
+     * {@code hibernate.order_inserts} los INSERT se envían en lotes JDBC.
+     * Si alguna es inválida no se crea ninguna.
+     *
+     * @param dtos datos de creación
+     * @return cuentas creadas, en el mismo orden
+     */
+    @Timed("account.service")
+    @Transactional
+    public List<Account> createAll(List<AccountCreateDto> dtos) {
+        var accounts = new ArrayList<Account>(dtos.size());
+        Map<Long, Long> deltas = new HashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            var dto = dtos.get(i);
+            try {
+                accounts.add(newAccount(dto, numbers.next()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Item " + i + ": " + e.getMessage());
+            }
+            deltas.merge(dto.customerId(), dto.initialDepositCents(), Long::sum);
+        }
+        var saved = repo.saveAll(accounts);
+        deltas.forEach(balances::recordDelta);
+        return saved;
+    }
+
+    static Account newAccount(AccountCreateDto dto, String accountNumber) {
         var type = Account.AccountType.valueOf(dto.accountType().toUpperCase());
-        if (dto.initialDeposit() <= 0) {
+        if (dto.initialDepositCents() <= 0) {
             throw new IllegalArgumentException("Initial deposit must be > 0");
         }
-
-        var acc = Account.builder()
-                .accountNumber(generateNumber())
-                .balance(dto.initialDeposit())
+        return Account.builder()
+                .accountNumber(accountNumber)
+                .balanceCents(dto.initialDepositCents())
                 .accountType(type)
                 .customerId(dto.customerId())
                 .build();
-        return repo.save(acc);
     }
 
     public List<Account> list(Long customerId) {
@@ -50,54 +110,57 @@ public class AccountService {
 
     public Account get(Long id) {
         return repo.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Account not found"));
+                .orElseThrow(() -> notFound("Account not found"));
     }
 
+    @Transactional
     public void delete(Long id) {
+        repo.findById(id).ifPresent(a -> balances.evict(a.getCustomerId()));
         repo.deleteById(id);
     }
 
+    /**
+     * Deposita en la cuenta con un único UPDATE atómico (sin lectura previa).
+     */
+    @Timed("account.service")
+    @Transactional
     public Account deposit(Long id, AmountDto dto) {
-        if (dto.amount() <= 0) {
+        if (dto.amountCents() <= 0) {
             throw new IllegalArgumentException("Amount must be > 0");
         }
+        if (repo.incrementBalance(id, dto.amountCents()) == 0) {
+            throw notFound("Account not found");
+        }
         var a = get(id);
-        a.setBalance(a.getBalance() + dto.amount());
-        return repo.save(a);
+        balances.recordDelta(a.getCustomerId(), dto.amountCents());
+        return a;
     }
 
+    /**
+     * Retira de la cuenta con un UPDATE condicionado por la regla del tipo de cuenta,
+     * evitando actualizaciones perdidas bajo concurrencia.
+     */
+    @Timed("account.service")
+    @Transactional
     public Account withdraw(Long id, AmountDto dto) {
-        if (dto.amount() <= 0) {
+        if (dto.amountCents() <= 0) {
             throw new IllegalArgumentException("Amount must be > 0");
         }
-        var a = get(id);
-        double candidate = a.getBalance() - dto.amount();
-
-        if (a.getAccountType() == Account.AccountType.SAVINGS) {
-            if (candidate < 0) {
-                throw new IllegalStateException("Savings cannot be negative");
-            }
-        } else { // CHECKING
-            if (candidate < OVERDRAFT_LIMIT) {
-                throw new IllegalStateException("Checking overdraft limit exceeded (-500.00)");
-            }
+        if (repo.decrementBalance(id, dto.amountCents(), OVERDRAFT_LIMIT_CENTS) == 0) {
+            throw withdrawRejected(get(id));
         }
-        a.setBalance(candidate);
-        return repo.save(a);
-    }
-
-    public CompletableFuture<Double> totalBalanceAsync(Long customerId) {
-        var accounts = repo.findByCustomerId(customerId);
-        var futures = accounts.stream()
-                .map(a -> CompletableFuture.supplyAsync(a::getBalance))
-                .toList();
-        return CompletableFuture.supplyAsync(() ->
-                futures.stream().mapToDouble(CompletableFuture::join).sum()
-        );
+        var a = get(id);
+        balances.recordDelta(a.getCustomerId(), -dto.amountCents());
+        return a;
     }
 
-    private String generateNumber() {
-        return "ACC" + System.nanoTime();
+    /**
+     * Suma de saldos del cliente, en céntimos. La primera consulta usa {@code SUM} en la
+     * base de datos; las siguientes se sirven desde {@link CustomerBalanceCache}.
+     */
+    @Timed("account.service")
+    public long totalBalance(Long customerId) {
+        return balances.get(customerId, () -> repo.sumBalanceByCustomerId(customerId));
     }
 
     public Page<Account> list(Long customerId, Pageable pageable) {
@@ -107,37 +170,158 @@ public class AccountService {
         return repo.findByCustomerId(customerId, pageable);
     }
 
+    /**
+     * Página keyset: cuentas con id posterior a {@code afterId} en la dirección indicada.
+     * No ejecuta COUNT; se pide un elemento extra sólo para saber si hay página siguiente.
+     *
+     * @param customerId filtro opcional por cliente
+     * @param afterId    último id de la página anterior (exclusivo)
+     * @param ascending  true para id ascendente, false para descendente
+     * @param size       tamaño de página
+     * @return slice con las cuentas y si existe página siguiente
+     */
+    public Slice<Account> listAfter(Long customerId, long afterId, boolean ascending, int size) {
+        var dir = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        var pageable = PageRequest.of(0, size + 1, Sort.by(dir, "id"));
+        List<Account> rows;
+        if (customerId == null) {
+            rows = ascending
+                    ? repo.findByIdGreaterThan(afterId, pageable)
+                    : repo.findByIdLessThan(afterId, pageable);
+        } else {
+            rows = ascending
+                    ? repo.findByCustomerIdAndIdGreaterThan(customerId, afterId, pageable)
+                    : repo.findByCustomerIdAndIdLessThan(customerId, afterId, pageable);
+        }
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows,
+                PageRequest.of(0, size, Sort.by(dir, "id")), hasNext);
+    }
+
+    public long count(Long customerId) {
+        return customerId == null ? repo.count() : repo.countByCustomerId(customerId);
+    }
+
+    /**
+     * Indica si el cliente tiene alguna cuenta ({@code select ... limit 1}, sin contar filas).
+     */
+    public boolean hasAccounts(Long customerId) {
+        return repo.existsByCustomerId(customerId);
+    }
+
     public Account getByAccountNumber(String accountNumber) {
+        requirePlausible(accountNumber);
         return repo.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new NoSuchElementException("Account not found: "
-                        + accountNumber));
+                .orElseThrow(() -> notFound("Account not found: " + accountNumber));
     }
 
+    /**
+     * Deposita por número de cuenta con un único UPDATE atómico.
+     */
+    @Timed("account.service")
+    @Transactional
     public Account depositByNumber(String accountNumber, AmountDto dto) {
-        if (dto.amount() <= 0) {
+        if (dto.amountCents() <= 0) {
             throw new IllegalArgumentException("Amount must be > 0");
         }
+        requirePlausible(accountNumber);
+        if (repo.incrementBalanceByNumber(accountNumber, dto.amountCents()) == 0) {
+            throw notFound("Account not found: " + accountNumber);
+        }
         var acc = getByAccountNumber(accountNumber);
-        acc.setBalance(acc.getBalance() + dto.amount());
-        return repo.save(acc);
+        balances.recordDelta(acc.getCustomerId(), dto.amountCents());
+        return acc;
     }
 
+    /**
+     * Retira por número de cuenta con un UPDATE condicionado por la regla del tipo de cuenta.
+     */
+    @Timed("account.service")
+    @Transactional
     public Account withdrawByNumber(String accountNumber, AmountDto dto) {
-        if (dto.amount() <= 0) {
+        if (dto.amountCents() <= 0) {
             throw new IllegalArgumentException("Amount must be > 0");
         }
+        requirePlausible(accountNumber);
+        if (repo.decrementBalanceByNumber(
+                accountNumber, dto.amountCents(), OVERDRAFT_LIMIT_CENTS) == 0) {
+            throw withdrawRejected(getByAccountNumber(accountNumber));
+        }
         var acc = getByAccountNumber(accountNumber);
-        double candidate = acc.getBalance() - dto.amount();
-        if (acc.getAccountType() == Account.AccountType.SAVINGS) {
-            if (candidate < 0) {
-                throw new IllegalStateException("Savings cannot be negative");
-            }
-        } else { // CHECKING
-            if (candidate < OVERDRAFT_LIMIT) {
-                throw new IllegalStateException("Checking overdraft limit exceeded (-500.00)");
+        balances.recordDelta(acc.getCustomerId(), -dto.amountCents());
+        return acc;
+    }
+
+    /**
+     * Aplica un lote de depósitos/retiros en una sola transacción.
+     *
+     * <p>Los movimientos se agrupan por cuenta: cada cuenta se lee y bloquea una sola vez
+     * y recibe un único UPDATE con el saldo final, que Hibernate envía en lotes JDBC
+     * ({@code hibernate.jdbc.batch_size}). Los movimientos de una misma cuenta se aplican en
+     * el orden recibido; uno inválido se rechaza sin afectar al resto del lote.
+     *
+     * @param postings movimientos a aplicar
+     * @return un resultado por movimiento, en el mismo orden de la petición
+     */
+    @Timed("account.service")
+    @Transactional
+    public List<PostingResultDto> applyPostings(List<PostingDto> postings) {
+        Map<String, Account> accounts = new HashMap<>();
+        var lookup = PostingBatch.lookup(postings);
+        if (!lookup.isEmpty()) {
+            for (var a : repo.findByAccountNumberIn(lookup)) {
+                accounts.put(a.getAccountNumber(), a);
             }
         }
-        acc.setBalance(candidate);
-        return repo.save(acc);
+        return PostingBatch.apply(postings, accounts, a -> withdrawRejected(a).getMessage(),
+                (acc, balance) -> {
+                    balances.recordDelta(acc.getCustomerId(), balance - acc.getBalanceCents());
+                    acc.setBalanceCents(balance); // dirty checking -> un UPDATE por cuenta al flush
+                });
+    }
+
+    // Un número con dígito de control incorrecto no puede existir: se responde sin consultar
+    private void requirePlausible(String accountNumber) {
+        if (!AccountNumbers.isPlausible(accountNumber)) {
+            throw notFound("Account not found: " + accountNumber);
+        }
+    }
+
+    static long minBalanceCents(Account.AccountType type) {
+        return type == Account.AccountType.SAVINGS ? 0L : OVERDRAFT_LIMIT_CENTS;
+    }
+
+    // Se invoca sólo cuando el UPDATE condicionado no afectó filas y la cuenta sí existe.
+    private IllegalStateException withdrawRejected(Account a) {
+        var counter = a.getAccountType() == Account.AccountType.SAVINGS
+                ? insufficientFunds
+                : overdraftRejections;
+        counter.increment();
+        return new IllegalStateException(rejectionMessage(a.getAccountType()));
+    }
+
+    static String rejectionMessage(Account.AccountType type) {
+        return type == Account.AccountType.SAVINGS
+                ? "Savings cannot be negative"
+                : "Checking overdraft limit exceeded (-500.00)";
+    }
+
+    private NoSuchElementException notFound(String message) {
+        notFound.increment();
+        return new NoSuchElementException(message);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejections(registry, "insufficient_funds", insufficientFunds);
+        rejections(registry, "overdraft", overdraftRejections);
+        rejections(registry, "not_found", notFound);
+    }
+
+    private static void rejections(MeterRegistry registry, String reason, LongAdder count) {
+        FunctionCounter.builder("account.rejections", count, LongAdder::doubleValue)
+                .description("Operaciones rechazadas por regla de negocio")
+                .tag("reason", reason)
+                .register(registry);
     }
 }
@@ -0,0 +1,99 @@
+package com.bank.accountms.service;
+
+import com.bank.accountms.domain.AccountNumbers;
+import com.bank.accountms.domain.NumberSequence;
+import com.bank.accountms.repository.NumberSequenceRepository;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Generador hi/lo: cada instancia reserva en base de datos bloques de {@code blockSize}
+ * números (una fila bloqueada y un UPDATE por bloque) y los reparte en memoria sin locks.
+ *
+ * <p>Los bloques son disjuntos entre instancias, así que dos nodos nunca generan el mismo
+ * número y las altas no necesitan reintentos por el índice único. La reserva se confirma en
+ * su propia transacción: si el alta que la pidió hace rollback, el bloque no se reutiliza.
+ */
+@Component
+@Profile("!reactive")
+public class BlockAccountNumberGenerator implements AccountNumberGenerator {
+
+    static final String SEQUENCE = "account_number";
+
+    private final NumberSequenceRepository sequences;
+    private final TransactionTemplate newTx;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+
+    public BlockAccountNumberGenerator(
+            NumberSequenceRepository sequences,
+            PlatformTransactionManager txManager,
+            @Value("${account.number.block-size:1000}") int blockSize) {
+        this.sequences = sequences;
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String next() {
+        while (true) {
+            Block b = current.get();
+            long value = b.cursor.getAndIncrement();
+            if (value < b.end) {
+                return AccountNumbers.format(value);
+            }
+            // sólo el hilo que agota el bloque (y los que lleguen a la vez) pasan por aquí
+            synchronized (this) {
+                if (current.get() == b) {
+                    current.set(reserve());
+                }
+            }
+        }
+    }
+
+    private Block reserve() {
+        long block;
+        try {
+            block = reserveBlock();
+        } catch (DataIntegrityViolationException e) {
+            block = reserveBlock(); // otro nodo creó la fila de la secuencia a la vez
+        }
+        long start = block * blockSize;
+        if (start + blockSize - 1 > AccountNumbers.MAX_BODY) {
+            throw new IllegalStateException("Account number space exhausted");
+        }
+        return new Block(start, start + blockSize);
+    }
+
+    private long reserveBlock() {
+        Long block = newTx.execute(status -> {
+            var seq = sequences.lockByName(SEQUENCE)
+                    .orElseGet(() -> sequences.saveAndFlush(new NumberSequence(SEQUENCE, 1L)));
+            long reserved = seq.getNextBlock();
+            seq.setNextBlock(reserved + 1);
+            return reserved;
+        });
+        return block;
+    }
+
+    private static final class Block {
+
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong cursor;
+        final long end;
+
+        Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.bank.accountms.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caché en memoria del saldo total (en céntimos) por cliente.
+ *
+ * <p>El total se carga una vez con {@code SUM(balance_cents)} y luego se mantiene sumando el
+ * delta de cada movimiento cuando su transacción hace commit. Mientras un cliente tiene
+ * movimientos en curso no se publica una carga nueva, para no contar dos veces un delta que
+ * la consulta SUM ya haya visto.
+ */
+@Component
+public class CustomerBalanceCache {
+
+    private final ConcurrentHashMap<Long, State> states = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public CustomerBalanceCache(
+            @Value("${account.balance-cache.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Devuelve el total cacheado del cliente o lo calcula con {@code sumQuery}.
+     *
+     * @param customerId identificador del cliente
+     * @param sumQuery   consulta agregada que devuelve el total en céntimos
+     * @return saldo total en céntimos
+     */
+    public long get(Long customerId, LongSupplier sumQuery) {
+        Lookup lookup = lookup(customerId);
+        if (lookup.hit()) {
+            return lookup.total();
+        }
+        long total = sumQuery.getAsLong();
+        publish(lookup, total);
+        return total;
+    }
+
+    /**
+     * Como {@link #get(Long, LongSupplier)}, con una consulta reactiva (perfil {@code reactive}).
+     *
+     * @param customerId identificador del cliente
+     * @param sumQuery   consulta agregada que emite el total en céntimos
+     * @return saldo total en céntimos
+     */
+    public Mono<Long> getAsync(Long customerId, Supplier<Mono<Long>> sumQuery) {
+        return Mono.defer(() -> {
+            Lookup lookup = lookup(customerId);
+            if (lookup.hit()) {
+                return Mono.just(lookup.total());
+            }
+            return sumQuery.get().doOnNext(total -> publish(lookup, total));
+        });
+    }
+
+    /**
+     * Registra un cambio de saldo del cliente; se aplica al total tras el commit.
+     *
+     * @param customerId  identificador del cliente
+     * @param deltaCents  variación del saldo en céntimos
+     */
+    public void recordDelta(Long customerId, long deltaCents) {
+        track(customerId, deltaCents, false);
+    }
+
+    /**
+     * Descarta el total del cliente tras el commit (p.ej. al eliminar una cuenta).
+     *
+     * @param customerId identificador del cliente
+     */
+    public void evict(Long customerId) {
+        track(customerId, 0L, true);
+    }
+
+    /**
+     * Registra un cambio de saldo sin sincronización de transacción por hilo (R2DBC): el cambio
+     * queda en curso hasta que se complete el {@link Pending} devuelto.
+     *
+     * @param customerId identificador del cliente
+     * @param deltaCents variación del saldo en céntimos
+     * @return movimiento pendiente; se completa una sola vez
+     */
+    public Pending begin(Long customerId, long deltaCents) {
+        return new Pending(customerId, register(customerId), deltaCents);
+    }
+
+    int size() {
+        return states.size();
+    }
+
+    private void track(Long customerId, long delta, boolean evict) {
+        State s = register(customerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            complete(customerId, s, status == STATUS_COMMITTED, delta, evict);
+                        }
+                    });
+        } else {
+            complete(customerId, s, true, delta, evict);
+        }
+    }
+
+    private Lookup lookup(Long customerId) {
+        State s = states.get(customerId);
+        if (s == null) {
+            if (states.size() >= maxEntries) {
+                return Lookup.UNCACHED;
+            }
+            s = states.computeIfAbsent(customerId, k -> new State());
+        }
+        synchronized (s) {
+            if (s.loaded) {
+                return new Lookup(s, true, s.total, s.stamp);
+            }
+            if (s.removed || s.inFlight > 0) {
+                return Lookup.UNCACHED;
+            }
+            return new Lookup(s, false, 0L, s.stamp);
+        }
+    }
+
+    // Publica la carga sólo si no hubo movimientos desde que se leyó el stamp.
+    private static void publish(Lookup lookup, long total) {
+        State s = lookup.state();
+        if (s == null) {
+            return;
+        }
+        synchronized (s) {
+            if (!s.removed && !s.loaded && s.inFlight == 0 && s.stamp == lookup.stamp()) {
+                s.total = total;
+                s.loaded = true;
+            }
+        }
+    }
+
+    private State register(Long customerId) {
+        while (true) {
+            State s = states.computeIfAbsent(customerId, k -> new State());
+            synchronized (s) {
+                if (!s.removed) {
+                    s.inFlight++;
+                    return s;
+                }
+            }
+        }
+    }
+
+    private void complete(Long customerId, State s, boolean committed, long delta,
+                          boolean evict) {
+        synchronized (s) {
+            s.inFlight--;
+            s.stamp++;
+            if (committed) {
+                if (evict) {
+                    s.loaded = false;
+                } else if (s.loaded) {
+                    s.total += delta;
+                }
+            }
+            if (!s.loaded && s.inFlight == 0) {
+                s.removed = true;
+                states.remove(customerId, s);
+            }
+        }
+    }
+
+    /**
+     * Movimiento registrado con {@link #begin}, pendiente del final de su transacción.
+     */
+    public final class Pending {
+
+        private final Long customerId;
+        private final State state;
+        private final long delta;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Pending(Long customerId, State state, long delta) {
+            this.customerId = customerId;
+            this.state = state;
+            this.delta = delta;
+        }
+
+        /**
+         * Aplica el cambio al total ({@code committed}) o lo descarta (rollback).
+         */
+        public void complete(boolean committed) {
+            if (done.compareAndSet(false, true)) {
+                CustomerBalanceCache.this.complete(customerId, state, committed, delta, false);
+            }
+        }
+
+        /**
+         * Descarta el total del cliente: el resultado de la transacción no se conoce
+         * (p.ej. la petición se canceló) o la operación no lleva delta (borrado).
+         */
+        public void evict() {
+            if (done.compareAndSet(false, true)) {
+                CustomerBalanceCache.this.complete(customerId, state, true, 0L, true);
+            }
+        }
+    }
+
+    private record Lookup(State state, boolean hit, long total, long stamp) {
+        static final Lookup UNCACHED = new Lookup(null, false, 0L, 0L);
+    }
+
+    private static final class State {
+        private long total;
+        private boolean loaded;
+        private boolean removed;
+        private int inFlight;
+        private long stamp;
+    }
+}
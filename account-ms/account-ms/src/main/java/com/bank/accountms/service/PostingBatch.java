@@ -0,0 +1,85 @@
+package com.bank.accountms.service;
+
+import com.bank.accountms.api.dto.AccountDtos.PostingDto;
+import com.bank.accountms.api.dto.AccountDtos.PostingResultDto;
+import com.bank.accountms.domain.Account;
+import com.bank.accountms.domain.AccountNumbers;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Cálculo en memoria de un lote de depósitos/retiros sobre cuentas ya leídas y bloqueadas.
+ * La lectura y la escritura las hace cada servicio ({@link AccountService} con JPA,
+ * {@link ReactiveAccountService} con R2DBC); las reglas son las mismas.
+ */
+final class PostingBatch {
+
+    private PostingBatch() { }
+
+    /**
+     * Números de cuenta distintos del lote que pueden existir (dígito de control válido).
+     */
+    static List<String> lookup(List<PostingDto> postings) {
+        return postings.stream()
+                .map(PostingDto::accountNumber)
+                .distinct()
+                .filter(AccountNumbers::isPlausible)
+                .toList();
+    }
+
+    /**
+     * Aplica los movimientos agrupados por cuenta, en el orden recibido dentro de cada una;
+     * uno inválido se rechaza sin afectar al resto.
+     *
+     * @param postings  movimientos del lote
+     * @param accounts  cuentas encontradas, por número
+     * @param rejection motivo de rechazo de un retiro que incumple la regla del tipo de cuenta
+     * @param changed   se invoca una vez por cuenta cuyo saldo final cambia, con ese saldo
+     * @return un resultado por movimiento, en el mismo orden del lote
+     */
+    static List<PostingResultDto> apply(List<PostingDto> postings, Map<String, Account> accounts,
+                                        Function<Account, String> rejection,
+                                        BiConsumer<Account, Long> changed) {
+        Map<String, List<Integer>> byAccount = new LinkedHashMap<>();
+        for (int i = 0; i < postings.size(); i++) {
+            byAccount.computeIfAbsent(postings.get(i).accountNumber(), k -> new ArrayList<>())
+                    .add(i);
+        }
+
+        var results = new PostingResultDto[postings.size()];
+        byAccount.forEach((number, indexes) -> {
+            var acc = accounts.get(number);
+            long balance = acc == null ? 0L : acc.getBalanceCents();
+            for (int i : indexes) {
+                var p = postings.get(i);
+                String error = null;
+                if (acc == null) {
+                    error = "Account not found: " + number;
+                } else if (p.amountCents() <= 0) {
+                    error = "Amount must be > 0";
+                } else if ("DEPOSIT".equalsIgnoreCase(p.type())) {
+                    balance += p.amountCents();
+                } else if ("WITHDRAW".equalsIgnoreCase(p.type())) {
+                    long candidate = balance - p.amountCents();
+                    if (candidate < AccountService.minBalanceCents(acc.getAccountType())) {
+                        error = rejection.apply(acc);
+                    } else {
+                        balance = candidate;
+                    }
+                } else {
+                    error = "Unknown posting type: " + p.type();
+                }
+                results[i] = new PostingResultDto(i, number, error == null, balance, error);
+            }
+            if (acc != null && balance != acc.getBalanceCents()) {
+                changed.accept(acc, balance);
+            }
+        });
+        return Arrays.asList(results);
+    }
+}
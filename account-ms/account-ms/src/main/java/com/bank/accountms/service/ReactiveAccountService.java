@@ -0,0 +1,351 @@
+package com.bank.accountms.service;
+
+import com.bank.accountms.api.dto.AccountDtos.AccountCreateDto;
+import com.bank.accountms.api.dto.AccountDtos.AmountDto;
+import com.bank.accountms.api.dto.AccountDtos.PostingDto;
+import com.bank.accountms.api.dto.AccountDtos.PostingResultDto;
+import com.bank.accountms.domain.Account;
+import com.bank.accountms.domain.AccountNumbers;
+import com.bank.accountms.repository.ReactiveAccountRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión reactiva de {@link AccountService} (perfil {@code reactive}, R2DBC): las mismas
+ * reglas y sentencias, sin bloquear el hilo que atiende la petición.
+ *
+ * <p>Las transacciones se abren con {@link TransactionalOperator}. Como no hay sincronización
+ * por hilo, los cambios de saldo se registran en {@link CustomerBalanceCache} con
+ * {@link CustomerBalanceCache#begin} y se completan al terminar la transacción. El timer
+ * {@code account.service} se mide sobre la ejecución del {@link Mono}, no sobre su montaje.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAccountService implements MeterBinder {
+
+    private final ReactiveAccountRepository repo;
+    private final R2dbcEntityTemplate template;
+    private final TransactionalOperator tx;
+    private final CustomerBalanceCache balances;
+    private final ReactiveSequences sequences;
+    private final MeterRegistry meterRegistry;
+
+    private final LongAdder insufficientFunds = new LongAdder();
+    private final LongAdder overdraftRejections = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+
+    /**
+     * Crea una nueva cuenta bancaria con id y número reservados por bloques.
+     *
+     * @param dto datos de creación
+     * @return cuenta creada
+     */
+    public Mono<Account> create(AccountCreateDto dto) {
+        return timed("create", inTransaction(pending ->
+                Mono.fromCallable(() -> AccountService.newAccount(dto, null))
+                        .flatMap(this::assignKeys)
+                        .flatMap(a -> template.insert(a)) // id ya asignado: INSERT, no UPDATE
+                        .doOnNext(saved -> pending.add(balances.begin(
+                                saved.getCustomerId(), saved.getBalanceCents())))));
+    }
+
+    /**
+     * Crea varias cuentas en una sola transacción. Si alguna es inválida no se crea ninguna.
+     *
+     * @param dtos datos de creación
+     * @return cuentas creadas, en el mismo orden
+     */
+    public Mono<List<Account>> createAll(List<AccountCreateDto> dtos) {
+        return timed("createAll", Mono.fromCallable(() -> validateAll(dtos))
+                .flatMap(accounts -> inTransaction(pending -> Flux.fromIterable(accounts)
+                        .concatMap(this::assignKeys)
+                        .concatMap(a -> template.insert(a))
+                        .collectList()
+                        .doOnNext(saved -> {
+                            Map<Long, Long> deltas = new HashMap<>();
+                            saved.forEach(a -> deltas.merge(
+                                    a.getCustomerId(), a.getBalanceCents(), Long::sum));
+                            deltas.forEach((customerId, delta) ->
+                                    pending.add(balances.begin(customerId, delta)));
+                        }))));
+    }
+
+    private static List<Account> validateAll(List<AccountCreateDto> dtos) {
+        var accounts = new ArrayList<Account>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            try {
+                accounts.add(AccountService.newAccount(dtos.get(i), null));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Item " + i + ": " + e.getMessage());
+            }
+        }
+        return accounts;
+    }
+
+    // Una reserva tras otra: cada una abre su propia transacción (REQUIRES_NEW) y, en paralelo,
+    // las dos suspenderían a la vez la transacción de la petición.
+    private Mono<Account> assignKeys(Account account) {
+        return sequences.nextId().zipWhen(id -> sequences.nextAccountNumber())
+                .map(keys -> {
+                    account.setId(keys.getT1());
+                    account.setAccountNumber(keys.getT2());
+                    return account;
+                });
+    }
+
+    public Mono<Account> get(Long id) {
+        return repo.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound("Account not found")));
+    }
+
+    public Mono<Void> delete(Long id) {
+        return repo.findById(id)
+                .flatMap(a -> repo.deleteById(id).thenReturn(a.getCustomerId()))
+                .as(tx::transactional)
+                .doOnNext(balances::evict)
+                .then();
+    }
+
+    /**
+     * Deposita en la cuenta con un único UPDATE atómico (sin lectura previa).
+     */
+    public Mono<Account> deposit(Long id, AmountDto dto) {
+        return timed("deposit", requirePositive(dto).then(inTransaction(pending ->
+                repo.incrementBalance(id, dto.amountCents())
+                        .flatMap(rows -> rows == 0
+                                ? Mono.<Account>error(notFound("Account not found"))
+                                : get(id))
+                        .doOnNext(a -> pending.add(
+                                balances.begin(a.getCustomerId(), dto.amountCents()))))));
+    }
+
+    /**
+     * Retira de la cuenta con un UPDATE condicionado por la regla del tipo de cuenta.
+     */
+    public Mono<Account> withdraw(Long id, AmountDto dto) {
+        return timed("withdraw", requirePositive(dto).then(inTransaction(pending ->
+                repo.decrementBalance(id, dto.amountCents(), AccountService.OVERDRAFT_LIMIT_CENTS)
+                        .flatMap(rows -> rows == 0
+                                ? get(id).flatMap(a -> Mono.<Account>error(withdrawRejected(a)))
+                                : get(id))
+                        .doOnNext(a -> pending.add(
+                                balances.begin(a.getCustomerId(), -dto.amountCents()))))));
+    }
+
+    /**
+     * Suma de saldos del cliente, en céntimos, servida desde {@link CustomerBalanceCache}.
+     */
+    public Mono<Long> totalBalance(Long customerId) {
+        return timed("totalBalance",
+                balances.getAsync(customerId, () -> repo.sumBalanceByCustomerId(customerId)));
+    }
+
+    public Mono<Page<Account>> list(Long customerId, Pageable pageable) {
+        var rows = customerId == null
+                ? repo.findAllBy(pageable)
+                : repo.findByCustomerId(customerId, pageable);
+        return Mono.zip(rows.collectList(), count(customerId))
+                .map(t -> new PageImpl<>(t.getT1(), pageable, t.getT2()));
+    }
+
+    /**
+     * Página keyset, como {@link AccountService#listAfter}.
+     */
+    public Mono<Slice<Account>> listAfter(Long customerId, long afterId, boolean ascending,
+                                          int size) {
+        var dir = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        var pageable = PageRequest.of(0, size + 1, Sort.by(dir, "id"));
+        Flux<Account> rows;
+        if (customerId == null) {
+            rows = ascending
+                    ? repo.findByIdGreaterThan(afterId, pageable)
+                    : repo.findByIdLessThan(afterId, pageable);
+        } else {
+            rows = ascending
+                    ? repo.findByCustomerIdAndIdGreaterThan(customerId, afterId, pageable)
+                    : repo.findByCustomerIdAndIdLessThan(customerId, afterId, pageable);
+        }
+        return rows.collectList().map(list -> {
+            boolean hasNext = list.size() > size;
+            return new SliceImpl<>(hasNext ? list.subList(0, size) : list,
+                    PageRequest.of(0, size, Sort.by(dir, "id")), hasNext);
+        });
+    }
+
+    public Mono<Long> count(Long customerId) {
+        return customerId == null ? repo.count() : repo.countByCustomerId(customerId);
+    }
+
+    public Mono<Boolean> hasAccounts(Long customerId) {
+        return repo.existsByCustomerId(customerId);
+    }
+
+    public Mono<Account> getByAccountNumber(String accountNumber) {
+        return requirePlausible(accountNumber).then(repo.findByAccountNumber(accountNumber)
+                .switchIfEmpty(Mono.error(() -> notFound("Account not found: " + accountNumber))));
+    }
+
+    /**
+     * Deposita por número de cuenta con un único UPDATE atómico.
+     */
+    public Mono<Account> depositByNumber(String accountNumber, AmountDto dto) {
+        return timed("depositByNumber", requirePositive(dto)
+                .then(requirePlausible(accountNumber))
+                .then(inTransaction(pending ->
+                        repo.incrementBalanceByNumber(accountNumber, dto.amountCents())
+                                .flatMap(rows -> rows == 0
+                                        ? Mono.<Account>error(
+                                                notFound("Account not found: " + accountNumber))
+                                        : getByAccountNumber(accountNumber))
+                                .doOnNext(a -> pending.add(balances.begin(
+                                        a.getCustomerId(), dto.amountCents()))))));
+    }
+
+    /**
+     * Retira por número de cuenta con un UPDATE condicionado por la regla del tipo de cuenta.
+     */
+    public Mono<Account> withdrawByNumber(String accountNumber, AmountDto dto) {
+        return timed("withdrawByNumber", requirePositive(dto)
+                .then(requirePlausible(accountNumber))
+                .then(inTransaction(pending -> repo.decrementBalanceByNumber(
+                                accountNumber, dto.amountCents(),
+                                AccountService.OVERDRAFT_LIMIT_CENTS)
+                        .flatMap(rows -> rows == 0
+                                ? getByAccountNumber(accountNumber)
+                                        .flatMap(a -> Mono.<Account>error(withdrawRejected(a)))
+                                : getByAccountNumber(accountNumber))
+                        .doOnNext(a -> pending.add(balances.begin(
+                                a.getCustomerId(), -dto.amountCents()))))));
+    }
+
+    /**
+     * Aplica un lote de depósitos/retiros en una sola transacción, con las reglas de
+     * {@link AccountService#applyPostings}: un SELECT ... FOR UPDATE para todas las cuentas y
+     * un UPDATE con el saldo final por cuenta modificada.
+     *
+     * @param postings movimientos a aplicar
+     * @return un resultado por movimiento, en el mismo orden de la petición
+     */
+    public Mono<List<PostingResultDto>> applyPostings(List<PostingDto> postings) {
+        return timed("applyPostings", inTransaction(pending -> {
+            var lookup = PostingBatch.lookup(postings);
+            Mono<Map<String, Account>> accounts = lookup.isEmpty()
+                    ? Mono.just(Map.<String, Account>of())
+                    : repo.lockByAccountNumberIn(lookup).collectMap(Account::getAccountNumber);
+            return accounts.flatMap(found -> {
+                List<Account> changed = new ArrayList<>();
+                var results = PostingBatch.apply(postings, found,
+                        a -> withdrawRejected(a).getMessage(),
+                        (acc, balance) -> {
+                            pending.add(balances.begin(
+                                    acc.getCustomerId(), balance - acc.getBalanceCents()));
+                            acc.setBalanceCents(balance);
+                            changed.add(acc);
+                        });
+                return Flux.fromIterable(changed)
+                        .concatMap(a -> repo.updateBalance(a.getId(), a.getBalanceCents()))
+                        .then(Mono.just(results));
+            });
+        }));
+    }
+
+    /**
+     * Ejecuta {@code work} en una transacción y completa los cambios de saldo que registre:
+     * se aplican si hace commit, se descartan si falla y, si la petición se cancela antes de
+     * conocer el resultado, se invalida el total del cliente.
+     */
+    private <T> Mono<T> inTransaction(
+            Function<List<CustomerBalanceCache.Pending>, Mono<T>> work) {
+        return Mono.defer(() -> {
+            List<CustomerBalanceCache.Pending> pending = new ArrayList<>();
+            return work.apply(pending)
+                    .as(tx::transactional)
+                    .doOnSuccess(v -> pending.forEach(p -> p.complete(true)))
+                    .doOnError(e -> pending.forEach(p -> p.complete(false)))
+                    .doOnCancel(() -> pending.forEach(CustomerBalanceCache.Pending::evict));
+        });
+    }
+
+    private static Mono<Void> requirePositive(AmountDto dto) {
+        return dto.amountCents() <= 0
+                ? Mono.error(new IllegalArgumentException("Amount must be > 0"))
+                : Mono.empty();
+    }
+
+    // Un número con dígito de control incorrecto no puede existir: se responde sin consultar
+    private Mono<Void> requirePlausible(String accountNumber) {
+        return AccountNumbers.isPlausible(accountNumber)
+                ? Mono.empty()
+                : Mono.error(() -> notFound("Account not found: " + accountNumber));
+    }
+
+    private IllegalStateException withdrawRejected(Account a) {
+        var counter = a.getAccountType() == Account.AccountType.SAVINGS
+                ? insufficientFunds
+                : overdraftRejections;
+        counter.increment();
+        return new IllegalStateException(AccountService.rejectionMessage(a.getAccountType()));
+    }
+
+    private NoSuchElementException notFound(String message) {
+        notFound.increment();
+        return new NoSuchElementException(message);
+    }
+
+    // Mismas etiquetas que @Timed("account.service") en AccountService
+    private <T> Mono<T> timed(String method, Mono<T> operation) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return operation
+                    .doOnSuccess(v -> stop(sample, method, "none"))
+                    .doOnError(e -> stop(sample, method, e.getClass().getSimpleName()))
+                    .doOnCancel(() -> stop(sample, method, "CancellationException"));
+        });
+    }
+
+    private void stop(Timer.Sample sample, String method, String exception) {
+        sample.stop(Timer.builder("account.service")
+                .tag("class", ReactiveAccountService.class.getName())
+                .tag("method", method)
+                .tag("exception", exception)
+                .register(meterRegistry));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rejections(registry, "insufficient_funds", insufficientFunds);
+        rejections(registry, "overdraft", overdraftRejections);
+        rejections(registry, "not_found", notFound);
+    }
+
+    private static void rejections(MeterRegistry registry, String reason, LongAdder count) {
+        FunctionCounter.builder("account.rejections", count, LongAdder::doubleValue)
+                .description("Operaciones rechazadas por regla de negocio")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,168 @@
+package com.bank.accountms.service;
+
+import com.bank.accountms.domain.Account;
+import com.bank.accountms.domain.AccountNumbers;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+/**
+ * Ids y números de cuenta para el perfil {@code reactive}, reservados por bloques sobre las
+ * mismas tablas que usa el modo JPA, de modo que ambos modos pueden compartir base de datos.
+ *
+ * <ul>
+ *   <li>Ids: tabla {@code account_seq} de Hibernate (optimizador "pooled"). Cada reserva suma
+ *       {@link Account#ID_ALLOCATION_SIZE} a {@code next_val} y usa los ids
+ *       {@code (valor leído - tamaño, valor leído]}, igual que Hibernate.</li>
+ *   <li>Números: fila {@code account_number} de {@code number_sequences}, como
+ *       {@link BlockAccountNumberGenerator}.</li>
+ * </ul>
+ *
+ * <p>Cada reserva se confirma en su propia transacción; los valores de un bloque se reparten en
+ * memoria y sólo una reserva por tabla está en curso a la vez.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveSequences {
+
+    private final DatabaseClient db;
+    private final TransactionalOperator newTx;
+    private final int numberBlockSize;
+    private final Blocks ids = new Blocks(this::reserveIds);
+    private final Blocks numbers = new Blocks(this::reserveNumbers);
+
+    public ReactiveSequences(
+            DatabaseClient db,
+            ReactiveTransactionManager txManager,
+            @Value("${account.number.block-size:1000}") int numberBlockSize) {
+        this.db = db;
+        var definition = new DefaultTransactionDefinition(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newTx = TransactionalOperator.create(txManager, definition);
+        this.numberBlockSize = numberBlockSize;
+    }
+
+    public Mono<Long> nextId() {
+        return ids.next();
+    }
+
+    public Mono<String> nextAccountNumber() {
+        return numbers.next().map(AccountNumbers::format);
+    }
+
+    private Mono<Block> reserveIds() {
+        return db.sql("select next_val from account_seq for update")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(
+                        () -> new IllegalStateException("Sequence table account_seq is empty")))
+                .flatMap(hi -> db.sql("update account_seq set next_val = :next")
+                        .bind("next", hi + Account.ID_ALLOCATION_SIZE)
+                        .then()
+                        .thenReturn(new Block(
+                                Math.max(1L, hi - Account.ID_ALLOCATION_SIZE + 1), hi + 1)))
+                .as(newTx::transactional);
+    }
+
+    private Mono<Block> reserveNumbers() {
+        return reserveNumberBlock()
+                // otro nodo creó la fila de la secuencia a la vez
+                .onErrorResume(DataIntegrityViolationException.class, e -> reserveNumberBlock())
+                .map(block -> {
+                    long start = block * numberBlockSize;
+                    if (start + numberBlockSize - 1 > AccountNumbers.MAX_BODY) {
+                        throw new IllegalStateException("Account number space exhausted");
+                    }
+                    return new Block(start, start + numberBlockSize);
+                });
+    }
+
+    private Mono<Long> reserveNumberBlock() {
+        String name = BlockAccountNumberGenerator.SEQUENCE;
+        return db.sql("select next_block from number_sequences where name = :name for update")
+                .bind("name", name)
+                .map(row -> row.get("next_block", Long.class))
+                .one()
+                .flatMap(reserved -> db.sql(
+                                "update number_sequences set next_block = :next where name = :name")
+                        .bind("next", reserved + 1)
+                        .bind("name", name)
+                        .then()
+                        .thenReturn(reserved))
+                .switchIfEmpty(Mono.defer(() -> db.sql(
+                                "insert into number_sequences (name, next_block) values (:name, 2)")
+                        .bind("name", name)
+                        .then()
+                        .thenReturn(1L)))
+                .as(newTx::transactional);
+    }
+
+    /**
+     * Reparte los valores del bloque actual y pide uno nuevo al agotarse; las peticiones que
+     * llegan mientras tanto esperan a la misma reserva.
+     */
+    private static final class Blocks {
+
+        private final Supplier<Mono<Block>> reserve;
+        private volatile Block current = Block.EMPTY;
+        private Mono<Void> pending; // guardado por this
+
+        Blocks(Supplier<Mono<Block>> reserve) {
+            this.reserve = reserve;
+        }
+
+        Mono<Long> next() {
+            return Mono.defer(() -> {
+                Block b = current;
+                long value = b.cursor.getAndIncrement();
+                if (value < b.end) {
+                    return Mono.just(value);
+                }
+                return refill(b).then(next());
+            });
+        }
+
+        private synchronized Mono<Void> refill(Block exhausted) {
+            if (current != exhausted) {
+                return Mono.empty();
+            }
+            if (pending == null) {
+                pending = reserve.get()
+                        .doOnNext(this::install)
+                        .doOnError(e -> install(null))
+                        .then()
+                        .cache();
+            }
+            return pending;
+        }
+
+        private synchronized void install(Block block) {
+            if (block != null) {
+                current = block;
+            }
+            pending = null;
+        }
+    }
+
+    private static final class Block {
+
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong cursor;
+        final long end;
+
+        Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+-- Esquema del perfil "reactive" para H2 embebido (el modo JPA lo genera Hibernate).
+-- account_seq emula la secuencia "pooled" de Hibernate en MySQL (tabla con next_val).
+create table if not exists accounts (
+    id             bigint      not null primary key,
+    account_number varchar(32) not null,
+    balance_cents  bigint      not null,
+    account_type   varchar(16) not null,
+    customer_id    bigint      not null,
+    constraint idx_account_number unique (account_number)
+);
+
+create index if not exists idx_customer_id on accounts (customer_id);
+
+create table if not exists account_seq (
+    next_val bigint
+);
+
+insert into account_seq (next_val)
+select 1 from dual where not exists (select 1 from account_seq);
+
+create table if not exists number_sequences (
+    name       varchar(64) not null primary key,
+    next_block bigint      not null
+);
@@ -0,0 +1,37 @@
+package com.bank.accountms;
+
+import com.bank.accountms.api.dto.AccountDtos.AccountCreateDto;
+import com.bank.accountms.domain.Account;
+import com.bank.accountms.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Arranque del modo por defecto (Tomcat + JPA) sobre H2: contexto completo, controlador
+ * generado desde el contrato OpenAPI y alta de una cuenta de extremo a extremo.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:context;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.root=WARN"
+})
+class AccountMsApplicationTest {
+
+    @Autowired
+    private AccountService accounts;
+
+    @Test
+    void createCountsTowardsTheCustomerTotal() {
+        Account created = accounts.create(new AccountCreateDto(7L, "SAVINGS", 10_000L));
+
+        assertNotNull(created.getId());
+        assertNotNull(created.getAccountNumber());
+        assertEquals(10_000L, accounts.totalBalance(7L));
+    }
+}
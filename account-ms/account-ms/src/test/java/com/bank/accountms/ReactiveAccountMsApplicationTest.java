@@ -0,0 +1,39 @@
+package com.bank.accountms;
+
+import com.bank.accountms.api.dto.AccountDtos.AccountCreateDto;
+import com.bank.accountms.domain.Account;
+import com.bank.accountms.service.ReactiveAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Arranque del perfil {@code reactive} (WebFlux + R2DBC) sobre H2: contexto completo,
+ * controlador generado desde el contrato OpenAPI en su versión reactiva y alta de una cuenta
+ * dentro de una transacción.
+ */
+@ActiveProfiles("reactive")
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivecontext;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "logging.level.root=WARN"
+})
+class ReactiveAccountMsApplicationTest {
+
+    @Autowired
+    private ReactiveAccountService accounts;
+
+    @Test
+    void createCountsTowardsTheCustomerTotal() {
+        Account created = accounts.create(new AccountCreateDto(7L, "SAVINGS", 10_000L)).block();
+
+        assertNotNull(created.getId());
+        assertNotNull(created.getAccountNumber());
+        assertEquals(10_000L, accounts.totalBalance(7L).block());
+    }
+}
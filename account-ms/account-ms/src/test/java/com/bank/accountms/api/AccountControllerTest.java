@@ -12,11 +12,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,14 +41,14 @@ class AccountControllerTest {
         Account acc = new Account();
         acc.setId(1L);
         acc.setAccountNumber("ACC1");
-        acc.setBalance(100.0);
+        acc.setBalanceCents(10_000L);
         acc.setAccountType(Account.AccountType.SAVINGS);
         acc.setCustomerId(10L);
         List<Account> accounts = List.of(acc);
         Page<Account> page = new PageImpl<>(accounts, PageRequest.of(0, 10), 1);
         when(accountService.list(any(Long.class), any(Pageable.class))).thenReturn(page);
 
-        ResponseEntity<AccountPage> response = accountController.listAccounts(10L, 0, 10, "id,desc");
+        ResponseEntity<AccountPage> response = accountController.listAccounts(10L, 0, 10, "id,desc", null, null);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().getContent().size());
@@ -62,7 +63,7 @@ class AccountControllerTest {
         Account acc = new Account();
         acc.setId(1L);
         acc.setAccountNumber("ACC1");
-        acc.setBalance(100.0);
+        acc.setBalanceCents(10_000L);
         acc.setAccountType(Account.AccountType.SAVINGS);
         acc.setCustomerId(10L);
         when(accountService.create(any())).thenReturn(acc);
@@ -78,7 +79,7 @@ class AccountControllerTest {
         Account acc = new Account();
         acc.setId(1L);
         acc.setAccountNumber("ACC1");
-        acc.setBalance(100.0);
+        acc.setBalanceCents(10_000L);
         acc.setAccountType(Account.AccountType.SAVINGS);
         acc.setCustomerId(10L);
         when(accountService.get(1L)).thenReturn(acc);
@@ -103,7 +104,7 @@ class AccountControllerTest {
         Account acc = new Account();
         acc.setId(1L);
         acc.setAccountNumber("ACC1");
-        acc.setBalance(150.0);
+        acc.setBalanceCents(15_000L);
         acc.setAccountType(Account.AccountType.SAVINGS);
         acc.setCustomerId(10L);
         when(accountService.deposit(eq(1L), any())).thenReturn(acc);
@@ -120,7 +121,7 @@ class AccountControllerTest {
         Account acc = new Account();
         acc.setId(1L);
         acc.setAccountNumber("ACC1");
-        acc.setBalance(70.0);
+        acc.setBalanceCents(7_000L);
         acc.setAccountType(Account.AccountType.SAVINGS);
         acc.setCustomerId(10L);
         when(accountService.withdraw(eq(1L), any())).thenReturn(acc);
@@ -132,18 +133,26 @@ class AccountControllerTest {
 
     @Test
     void testTotalBalance() {
-        when(accountService.totalBalanceAsync(10L)).thenReturn(CompletableFuture.completedFuture(1000.0));
+        when(accountService.totalBalance(10L)).thenReturn(100_000L);
         ResponseEntity<Double> response = accountController.totalBalance(10L);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1000.0, response.getBody());
     }
 
+    @Test
+    void testAccountsExist() {
+        when(accountService.hasAccounts(10L)).thenReturn(true);
+        var response = accountController.accountsExist(10L);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().getExists());
+    }
+
     @Test
     void testGetAccountByNumber() {
         Account acc = new Account();
         acc.setId(1L);
         acc.setAccountNumber("ACC1");
-        acc.setBalance(100.0);
+        acc.setBalanceCents(10_000L);
         acc.setAccountType(Account.AccountType.SAVINGS);
         acc.setCustomerId(10L);
         when(accountService.getByAccountNumber("ACC1")).thenReturn(acc);
@@ -160,7 +169,7 @@ class AccountControllerTest {
         Account acc = new Account();
         acc.setId(1L);
         acc.setAccountNumber("ACC1");
-        acc.setBalance(200.0);
+        acc.setBalanceCents(20_000L);
         acc.setAccountType(Account.AccountType.SAVINGS);
         acc.setCustomerId(10L);
         when(accountService.depositByNumber(eq("ACC1"), any())).thenReturn(acc);
@@ -177,7 +186,7 @@ class AccountControllerTest {
         Account acc = new Account();
         acc.setId(1L);
         acc.setAccountNumber("ACC1");
-        acc.setBalance(150.0);
+        acc.setBalanceCents(15_000L);
         acc.setAccountType(Account.AccountType.SAVINGS);
         acc.setCustomerId(10L);
         when(accountService.withdrawByNumber(eq("ACC1"), any())).thenReturn(acc);
@@ -186,4 +195,82 @@ class AccountControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(150.0, response.getBody().getBalance());
     }
+
+    @Test
+    void testCreateAccounts() {
+        AccountCreateDto dto = new AccountCreateDto();
+        dto.setCustomerId(10L);
+        dto.setAccountType(AccountCreateDto.AccountTypeEnum.CHECKING);
+        dto.setInitialDeposit(50.0);
+        Account acc = new Account();
+        acc.setId(7L);
+        acc.setAccountNumber("ACC-000000010009");
+        acc.setBalanceCents(5_000L);
+        acc.setAccountType(Account.AccountType.CHECKING);
+        acc.setCustomerId(10L);
+        when(accountService.createAll(any())).thenReturn(List.of(acc));
+
+        ResponseEntity<List<AccountDto>> response = accountController.createAccounts(List.of(dto));
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("ACC-000000010009", response.getBody().get(0).getAccountNumber());
+        verify(accountService).createAll(List.of(
+                new com.bank.accountms.api.dto.AccountDtos.AccountCreateDto(10L, "CHECKING", 5_000L)));
+    }
+
+    @Test
+    void testBatchPostings() {
+        PostingDto posting = new PostingDto();
+        posting.setAccountNumber("ACC1");
+        posting.setType(PostingDto.TypeEnum.DEPOSIT);
+        posting.setAmount(25.5);
+        when(accountService.applyPostings(any())).thenReturn(List.of(
+                new com.bank.accountms.api.dto.AccountDtos.PostingResultDto(
+                        0, "ACC1", true, 12_550L, null)));
+
+        ResponseEntity<List<PostingResultDto>> response =
+                accountController.batchPostings(List.of(posting));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(PostingResultDto.StatusEnum.APPLIED, response.getBody().get(0).getStatus());
+        assertEquals(125.5, response.getBody().get(0).getBalance());
+        verify(accountService).applyPostings(List.of(
+                new com.bank.accountms.api.dto.AccountDtos.PostingDto("ACC1", "DEPOSIT", 2_550L)));
+    }
+
+    @Test
+    void testListAccounts_CursorModeSkipsCountAndReturnsNextCursor() {
+        Account acc = new Account();
+        acc.setId(42L);
+        acc.setAccountNumber("ACC42");
+        acc.setAccountType(Account.AccountType.SAVINGS);
+        acc.setCustomerId(10L);
+        when(accountService.listAfter(10L, Long.MAX_VALUE, false, 1)).thenReturn(
+                new SliceImpl<>(List.of(acc), PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id")), true));
+
+        AccountPage first = accountController.listAccounts(10L, null, 1, null, "", null).getBody();
+        assertNotNull(first);
+        assertEquals(1, first.getContent().size());
+        assertNotNull(first.getNextCursor());
+        assertFalse(first.getLast());
+        verify(accountService, never()).count(any());
+        verify(accountService, never()).list(any(), any(Pageable.class));
+
+        when(accountService.listAfter(10L, 42L, false, 1)).thenReturn(
+                new SliceImpl<>(List.of(), PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id")), false));
+        when(accountService.count(10L)).thenReturn(1L);
+
+        AccountPage next = accountController
+                .listAccounts(10L, null, 1, null, first.getNextCursor(), true).getBody();
+        assertNotNull(next);
+        assertTrue(next.getLast());
+        assertNull(next.getNextCursor());
+        assertEquals(1L, next.getTotalElements());
+    }
+
+    @Test
+    void testListAccounts_CursorModeRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> accountController.listAccounts(null, null, 10, "balance,asc", "", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> accountController.listAccounts(null, null, 10, null, "not-a-cursor", null));
+    }
 }
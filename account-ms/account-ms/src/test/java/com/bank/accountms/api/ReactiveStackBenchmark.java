@@ -0,0 +1,203 @@
+package com.bank.accountms.api;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark HTTP de extremo a extremo que compara el modo por defecto (Tomcat + JPA) con el
+ * perfil {@code reactive} (WebFlux + R2DBC), ambos sobre H2 en memoria, con 5000 clientes
+ * concurrentes: throughput, p50/p99, hilos vivos y conexiones a la base de datos en uso.
+ *
+ * <p>Mezcla 1:1 de {@code GET /cuentas/{id}} (lectura) y
+ * {@code PUT /cuentas/ByNumber/{n}/depositar} (UPDATE + lectura, como lo llama
+ * transaction-ms). Se lanza una vez por modo (el perfil se lee al arrancar el contexto):
+ * <pre>
+ * mvn test -Dtest=ReactiveStackBenchmark
+ * mvn test -Dtest=ReactiveStackBenchmark -Dspring.profiles.active=reactive
+ * </pre>
+ * Los dos modos usan 20 conexiones como máximo. Los hilos incluyen los del cliente HTTP, que
+ * son los mismos en ambos casos. Resultados en {@code documentation/reactive.md}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stack;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.r2dbc.url=r2dbc:h2:mem:///stack;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.r2dbc.pool.max-size=20",
+        "logging.level.root=WARN"
+})
+class ReactiveStackBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 5_000);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern NUMBER = Pattern.compile("\"accountNumber\":\"([^\"]+)\"");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private MeterRegistry meters;
+
+    @Test
+    void threadsAndConnectionsUnderLoad() throws Exception {
+        var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        var accounts = createAccounts(client);
+
+        run(client, accounts, WARMUP);
+        var threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        var usage = new Usage();
+        var sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> usage.sample(meters), 0, 50, TimeUnit.MILLISECONDS);
+        Result result;
+        try {
+            result = run(client, accounts, MEASURE);
+        } finally {
+            sampler.shutdownNow();
+        }
+
+        boolean reactive = env.matchesProfiles("reactive");
+        System.out.printf("%-14s %8s %10s %8s %8s %8s %10s %10s%n",
+                "stack", "clients", "req/s", "p50 ms", "p99 ms", "threads", "conn max", "conn wait");
+        System.out.printf("%-14s %8d %10.0f %8.1f %8.1f %8d %10.0f %10.0f%n",
+                reactive ? "webflux+r2dbc" : "tomcat+jpa", CONCURRENCY,
+                result.count() / (double) MEASURE.toSeconds(),
+                result.percentile(0.50), result.percentile(0.99),
+                threads.getPeakThreadCount(), usage.maxActive, usage.maxPending);
+
+        assertEquals(0, result.errors);
+    }
+
+    private Accounts createAccounts(HttpClient client) throws Exception {
+        var body = new StringBuilder("[");
+        for (int i = 0; i < ACCOUNTS; i++) {
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"customerId\":").append(i % 100)
+                    .append(",\"accountType\":\"SAVINGS\",\"initialDeposit\":100.0}");
+        }
+        body.append(']');
+        var response = client.send(HttpRequest.newBuilder(uri("/api/v1/cuentas:batch"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), response.body());
+
+        List<Long> ids = new ArrayList<>();
+        List<String> numbers = new ArrayList<>();
+        Matcher id = ID.matcher(response.body());
+        while (id.find()) {
+            ids.add(Long.parseLong(id.group(1)));
+        }
+        Matcher number = NUMBER.matcher(response.body());
+        while (number.find()) {
+            numbers.add(number.group(1));
+        }
+        return new Accounts(ids.stream().mapToLong(Long::longValue).toArray(),
+                numbers.toArray(String[]::new));
+    }
+
+    private Result run(HttpClient client, Accounts accounts, Duration duration)
+            throws InterruptedException {
+        var permits = new Semaphore(CONCURRENCY);
+        var latencies = new ConcurrentLinkedQueue<Long>();
+        var errors = new AtomicLong();
+        long end = System.nanoTime() + duration.toNanos();
+        long n = 0;
+        while (System.nanoTime() < end) {
+            permits.acquire();
+            int i = (int) (n % accounts.ids.length);
+            HttpRequest request = n % 2 == 0
+                    ? HttpRequest.newBuilder(uri("/api/v1/cuentas/" + accounts.ids[i])).build()
+                    : HttpRequest.newBuilder(
+                                    uri("/api/v1/cuentas/ByNumber/" + accounts.numbers[i] + "/depositar"))
+                            .header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString("{\"amount\":1.0}"))
+                            .build();
+            n++;
+            long t0 = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((r, e) -> {
+                        if (e != null || r.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - t0);
+                        }
+                        permits.release();
+                    });
+        }
+        permits.acquire(CONCURRENCY);
+        return new Result(latencies.stream().mapToLong(Long::longValue).sorted().toArray(), errors.get());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Accounts(long[] ids, String[] numbers) { }
+
+    /**
+     * Máximos de conexiones en uso y de peticiones esperando conexión, según el pool activo
+     * (Hikari en modo JPA, r2dbc-pool en modo reactivo).
+     */
+    private static final class Usage {
+
+        private volatile double maxActive;
+        private volatile double maxPending;
+
+        void sample(MeterRegistry meters) {
+            maxActive = Math.max(maxActive,
+                    gauge(meters, "hikaricp.connections.active") + gauge(meters, "r2dbc.pool.acquired"));
+            maxPending = Math.max(maxPending,
+                    gauge(meters, "hikaricp.connections.pending") + gauge(meters, "r2dbc.pool.pending"));
+        }
+
+        private static double gauge(MeterRegistry meters, String name) {
+            var gauge = meters.find(name).gauge();
+            return gauge == null ? 0 : gauge.value();
+        }
+    }
+
+    private record Result(long[] sorted, long errors) {
+
+        long count() {
+            return sorted.length;
+        }
+
+        double percentile(double p) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, p * sorted.length)] / 1e6;
+        }
+    }
+}
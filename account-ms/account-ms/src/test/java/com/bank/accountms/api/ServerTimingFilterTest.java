@@ -0,0 +1,55 @@
+package com.bank.accountms.api;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    private final ServerTimingFilter filter = new ServerTimingFilter();
+
+    @Test
+    void testHeaderListsPhasesBeforeBodyIsWritten() throws Exception {
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                ServerTiming.record("db", 2_000_000L);
+                ServerTiming.record("db", 1_500_000L);
+                ServerTiming.record("mapping", 250_000L);
+                res.getOutputStream().write("{}".getBytes());
+                ServerTiming.record("db", 9_000_000L); // ya confirmada: no cuenta
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/cuentas/1"), response, chain);
+
+        var header = response.getHeader(ServerTiming.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("db;dur=3.50, mapping;dur=0.25, total;dur="), header);
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    @Test
+    void testHeaderOnResponseWithoutBody() throws Exception {
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                res.setStatus(204);
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/v1/cuentas/1"), response, chain);
+
+        assertTrue(response.getHeader(ServerTiming.HEADER).startsWith("total;dur="));
+    }
+}
@@ -0,0 +1,120 @@
+package com.bank.accountms.api;
+
+import com.bank.accountms.api.dto.AccountDtos.AccountCreateDto;
+import com.bank.accountms.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark HTTP de extremo a extremo (Tomcat + JPA sobre H2) con alta concurrencia:
+ * throughput y p99 de {@code GET /cuentas/{id}} y {@code GET /cuentas/total-balance}.
+ *
+ * <p>Se lanza una vez por modo (la propiedad se lee al arrancar el contexto), con JDK 21:
+ * <pre>
+ * mvn test -Dtest=VirtualThreadsBenchmark -Dspring.threads.virtual.enabled=false
+ * mvn test -Dtest=VirtualThreadsBenchmark -Dspring.threads.virtual.enabled=true
+ * </pre>
+ * Resultados en {@code documentation/virtual-threads.md}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:vt;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "logging.level.root=WARN"
+})
+class VirtualThreadsBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 1_000);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private AccountService service;
+
+    @Test
+    void throughputAndP99() throws Exception {
+        List<AccountCreateDto> dtos = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            dtos.add(new AccountCreateDto((long) (i % 100), "SAVINGS", 10_000L));
+        }
+        var ids = service.createAll(dtos).stream().mapToLong(a -> a.getId()).toArray();
+
+        var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        run(client, ids, WARMUP);
+        var result = run(client, ids, MEASURE);
+
+        System.out.printf("%-10s %-6s %8s %10s %8s %8s%n",
+                "threads", "jdk", "clients", "req/s", "p50 ms", "p99 ms");
+        System.out.printf("%-10s %-6s %8d %10.0f %8.1f %8.1f%n",
+                virtualThreads ? "virtual" : "platform", Runtime.version().feature(), CONCURRENCY,
+                result.count() / (double) MEASURE.toSeconds(),
+                result.percentile(0.50), result.percentile(0.99));
+
+        assertEquals(0, result.errors);
+    }
+
+    private Result run(HttpClient client, long[] ids, Duration duration) throws InterruptedException {
+        var permits = new Semaphore(CONCURRENCY);
+        var latencies = new ConcurrentLinkedQueue<Long>();
+        var errors = new AtomicLong();
+        long end = System.nanoTime() + duration.toNanos();
+        long n = 0;
+        while (System.nanoTime() < end) {
+            permits.acquire();
+            long id = ids[(int) (n % ids.length)];
+            var uri = n % 4 == 0
+                    ? "/api/v1/cuentas/total-balance?customerId=" + (id % 100)
+                    : "/api/v1/cuentas/" + id;
+            n++;
+            long t0 = System.nanoTime();
+            client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + uri)).build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((r, e) -> {
+                        if (e != null || r.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - t0);
+                        }
+                        permits.release();
+                    });
+        }
+        permits.acquire(CONCURRENCY);
+        return new Result(latencies.stream().mapToLong(Long::longValue).sorted().toArray(), errors.get());
+    }
+
+    private record Result(long[] sorted, long errors) {
+
+        long count() {
+            return sorted.length;
+        }
+
+        double percentile(double p) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, p * sorted.length)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bank.accountms.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumbersTest {
+
+    @Test
+    void testFormat_FixedWidthWithLuhnCheckDigit() {
+        assertEquals("ACC-000000010009", AccountNumbers.format(1_000L));
+        assertEquals("ACC-079927398713", AccountNumbers.format(7_992_739_871L));
+        assertEquals(16, AccountNumbers.format(0L).length());
+        assertThrows(IllegalArgumentException.class, () -> AccountNumbers.format(-1L));
+    }
+
+    @Test
+    void testIsPlausible_RejectsBadCheckDigitAndWidth() {
+        assertTrue(AccountNumbers.isPlausible(AccountNumbers.format(123_456L)));
+        assertFalse(AccountNumbers.isPlausible("ACC-000000010004"));
+        assertFalse(AccountNumbers.isPlausible("ACC-00000001000"));
+        assertFalse(AccountNumbers.isPlausible(" "));
+        assertFalse(AccountNumbers.isPlausible(null));
+    }
+
+    @Test
+    void testIsPlausible_AcceptsLegacyNumbers() {
+        assertTrue(AccountNumbers.isPlausible("ACC1726345987123"));
+        assertTrue(AccountNumbers.isPlausible("ACC1"));
+    }
+}
@@ -0,0 +1,27 @@
+package com.bank.accountms.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testToCents_ConvertsExactly() {
+        assertEquals(15_025L, Money.toCents(150.25));
+        assertEquals(10L, Money.toCents(0.1));
+        assertEquals(100L, Money.toCents(1.0));
+    }
+
+    @Test
+    void testToCents_RejectsMoreThanTwoDecimals() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(10.005));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(null));
+    }
+
+    @Test
+    void testToDecimal_KeepsDecimalShape() {
+        assertEquals(150.25, Money.toDecimal(15_025L));
+        assertEquals(-500.0, Money.toDecimal(-50_000L));
+    }
+}
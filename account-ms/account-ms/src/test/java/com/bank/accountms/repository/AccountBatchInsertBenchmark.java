@@ -0,0 +1,78 @@
+package com.bank.accountms.repository;
+
+import com.bank.accountms.api.dto.AccountDtos.AccountCreateDto;
+import com.bank.accountms.domain.AccountNumbers;
+import com.bank.accountms.service.AccountService;
+import com.bank.accountms.service.CustomerBalanceCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark de 100k altas de cuentas (H2 embebido): una cuenta por transacción
+ * ({@code create}) frente a lotes de 1000 ({@code createAll}, ids de secuencia e INSERT
+ * agrupados en lotes JDBC).
+ *
+ * <p>No lo ejecuta surefire por defecto; lanzarlo con:
+ * {@code mvn test -Dtest=AccountBatchInsertBenchmark}
+ */
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountBatchInsertBenchmark {
+
+    private static final int ACCOUNTS = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @SpringBootConfiguration
+    @AutoConfigurationPackage(basePackages = "com.bank.accountms")
+    static class Config { }
+
+    @Autowired
+    private AccountRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    void bulkInsertThroughput() {
+        var tx = new TransactionTemplate(txManager);
+        var seq = new AtomicLong();
+        var service = new AccountService(repo, new CustomerBalanceCache(1_000),
+                () -> AccountNumbers.format(seq.incrementAndGet()));
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            var dto = new AccountCreateDto((long) (i % 1_000), "SAVINGS", 10_000L);
+            tx.executeWithoutResult(s -> service.create(dto));
+        }
+        double singleSecs = (System.nanoTime() - t0) / 1e9;
+
+        t0 = System.nanoTime();
+        for (int from = 0; from < ACCOUNTS; from += CHUNK) {
+            List<AccountCreateDto> chunk = new ArrayList<>(CHUNK);
+            for (int i = from; i < from + CHUNK; i++) {
+                chunk.add(new AccountCreateDto((long) (i % 1_000), "CHECKING", 10_000L));
+            }
+            tx.executeWithoutResult(s -> service.createAll(chunk));
+        }
+        double batchSecs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("%-28s %10s %10s%n", "mode", "rows/s", "secs");
+        System.out.printf("%-28s %10.0f %10.2f%n", "create (1 per tx)", ACCOUNTS / singleSecs, singleSecs);
+        System.out.printf("%-28s %10.0f %10.2f%n", "createAll (" + CHUNK + " per tx)", ACCOUNTS / batchSecs, batchSecs);
+
+        assertEquals(2L * ACCOUNTS, repo.count());
+    }
+}
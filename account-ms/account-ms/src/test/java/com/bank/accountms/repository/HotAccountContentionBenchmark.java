@@ -0,0 +1,109 @@
+package com.bank.accountms.repository;
+
+import com.bank.accountms.api.dto.AccountDtos.AmountDto;
+import com.bank.accountms.domain.Account;
+import com.bank.accountms.service.AccountService;
+import com.bank.accountms.service.CustomerBalanceCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark de contención sobre una única cuenta "caliente" (H2 embebido).
+ * Compara el flujo anterior (findById + save) con el UPDATE atómico del repositorio.
+ *
+ * <p>No lo ejecuta surefire por defecto; lanzarlo con:
+ * {@code mvn test -Dtest=HotAccountContentionBenchmark}
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HotAccountContentionBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int OPS_PER_THREAD = 500;
+
+    @SpringBootConfiguration
+    @AutoConfigurationPackage(basePackages = "com.bank.accountms")
+    static class Config { }
+
+    @Autowired
+    private AccountRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Test
+    void hotAccountThroughput() throws Exception {
+        var tx = new TransactionTemplate(txManager);
+        var service = new AccountService(repo, new CustomerBalanceCache(1_000), () -> "unused");
+        var amount = new AmountDto(100L);
+
+        Long legacyId = newAccount("BENCH-LEGACY");
+        double legacySecs = run(() -> tx.executeWithoutResult(s -> {
+            var a = repo.findById(legacyId).orElseThrow();
+            a.setBalanceCents(a.getBalanceCents() + amount.amountCents());
+            repo.save(a);
+        }));
+        long legacyBalance = repo.findById(legacyId).orElseThrow().getBalanceCents() / 100;
+
+        Long atomicId = newAccount("BENCH-ATOMIC");
+        double atomicSecs = run(() -> tx.executeWithoutResult(s -> service.deposit(atomicId, amount)));
+        long atomicBalance = repo.findById(atomicId).orElseThrow().getBalanceCents() / 100;
+
+        int total = THREADS * OPS_PER_THREAD;
+        System.out.printf("%-22s %10s %12s %14s%n", "mode", "ops/s", "balance", "lost updates");
+        System.out.printf("%-22s %10.0f %12d %14d%n", "findById + save",
+                total / legacySecs, legacyBalance, total - legacyBalance);
+        System.out.printf("%-22s %10.0f %12d %14d%n", "atomic update",
+                total / atomicSecs, atomicBalance, total - atomicBalance);
+
+        assertEquals(total, atomicBalance);
+    }
+
+    private Long newAccount(String number) {
+        return repo.save(Account.builder()
+                .accountNumber(number)
+                .balanceCents(0L)
+                .accountType(Account.AccountType.SAVINGS)
+                .customerId(1L)
+                .build()).getId();
+    }
+
+    private double run(Runnable op) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    op.run();
+                }
+                return null;
+            }));
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (var f : futures) {
+            f.get();
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        pool.shutdown();
+        return secs;
+    }
+}
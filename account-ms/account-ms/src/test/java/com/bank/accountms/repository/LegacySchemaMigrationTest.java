@@ -0,0 +1,65 @@
+package com.bank.accountms.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LegacySchemaMigrationTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void seedsPooledSequenceAboveExistingIds() {
+        jdbc.execute("create table accounts (id bigint primary key, balance_cents bigint not null)");
+        jdbc.execute("create table account_seq (next_val bigint)");
+        jdbc.update("insert into account_seq (next_val) values (1)");
+        jdbc.update("insert into accounts (id, balance_cents) values (1, 0), (250, 0)");
+
+        new LegacySchemaMigration(dataSource).migrate();
+
+        long nextVal = jdbc.queryForObject("select next_val from account_seq", Long.class);
+        assertEquals(350L, nextVal);
+        // el primer bloque que reserve Hibernate, (next_val - 100, next_val], empieza tras 250
+        assertTrue(nextVal - 100 + 1 > 250);
+
+        // nunca baja un valor ya reservado
+        jdbc.update("update account_seq set next_val = 1000");
+        new LegacySchemaMigration(dataSource).migrate();
+        assertEquals(1000L, jdbc.queryForObject("select next_val from account_seq", Long.class));
+    }
+
+    @Test
+    void copiesLegacyBalanceToCentsAndDropsColumn() {
+        // esquema tras ddl-auto=update sobre una tabla anterior a los céntimos
+        jdbc.execute("create table accounts (id bigint primary key, balance double not null,"
+                + " balance_cents bigint default 0 not null)");
+        jdbc.update("insert into accounts (id, balance) values (1, 10.29), (2, -0.07)");
+
+        new LegacySchemaMigration(dataSource).migrate();
+
+        assertEquals(1029L, jdbc.queryForObject(
+                "select balance_cents from accounts where id = 1", Long.class));
+        assertEquals(-7L, jdbc.queryForObject(
+                "select balance_cents from accounts where id = 2", Long.class));
+        assertEquals(0, jdbc.queryForObject("select count(*) from information_schema.columns"
+                + " where table_name = 'ACCOUNTS' and column_name = 'BALANCE'", Integer.class));
+        // ya migrada: no hace nada
+        jdbc.update("insert into accounts (id, balance_cents) values (3, 500)");
+        new LegacySchemaMigration(dataSource).migrate();
+        assertEquals(500L, jdbc.queryForObject(
+                "select balance_cents from accounts where id = 3", Long.class));
+    }
+}
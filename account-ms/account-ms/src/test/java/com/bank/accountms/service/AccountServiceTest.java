@@ -2,18 +2,20 @@ package com.bank.accountms.service;
 
 import com.bank.accountms.domain.Account;
 import com.bank.accountms.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class AccountServiceTest {
@@ -21,6 +23,12 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Spy
+    private CustomerBalanceCache balanceCache = new CustomerBalanceCache(1_000);
+
+    @Mock
+    private AccountNumberGenerator accountNumbers;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -51,47 +59,157 @@ class AccountServiceTest {
     void testCreate_Success() {
         var dto = mock(com.bank.accountms.api.dto.AccountDtos.AccountCreateDto.class);
         when(dto.accountType()).thenReturn("SAVINGS");
-        when(dto.initialDeposit()).thenReturn(1000.0);
+        when(dto.initialDepositCents()).thenReturn(100_000L);
         when(dto.customerId()).thenReturn(123L);
+        when(accountNumbers.next()).thenReturn("ACC-000000010009");
 
         Account saved = new Account();
         when(accountRepository.save(any(Account.class))).thenReturn(saved);
 
         Account result = accountService.create(dto);
         assertNotNull(result);
-        verify(accountRepository).save(any(Account.class));
+        verify(accountRepository).save(argThat(a -> "ACC-000000010009".equals(a.getAccountNumber())));
+    }
+
+    @Test
+    void testCreateAll_SavesOnceAndAggregatesBalancePerCustomer() {
+        when(accountNumbers.next()).thenReturn("ACC-000000010009", "ACC-000000010017");
+        when(accountRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+        when(accountRepository.sumBalanceByCustomerId(123L)).thenReturn(0L);
+        assertEquals(0L, accountService.totalBalance(123L));
+
+        List<Account> created = accountService.createAll(List.of(
+                new com.bank.accountms.api.dto.AccountDtos.AccountCreateDto(123L, "SAVINGS", 1_000L),
+                new com.bank.accountms.api.dto.AccountDtos.AccountCreateDto(123L, "checking", 2_000L)));
+
+        assertEquals(2, created.size());
+        assertEquals(Account.AccountType.CHECKING, created.get(1).getAccountType());
+        assertEquals(3_000L, accountService.totalBalance(123L));
+        verify(accountRepository, times(1)).saveAll(anyList());
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void testCreateAll_RejectsWholeBatchOnInvalidItem() {
+        var ex = assertThrows(IllegalArgumentException.class, () -> accountService.createAll(List.of(
+                new com.bank.accountms.api.dto.AccountDtos.AccountCreateDto(1L, "SAVINGS", 1_000L),
+                new com.bank.accountms.api.dto.AccountDtos.AccountCreateDto(1L, "SAVINGS", 0L))));
+
+        assertTrue(ex.getMessage().startsWith("Item 1"));
+        verify(accountRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testGetByAccountNumber_RejectsBadCheckDigitWithoutQuery() {
+        assertThrows(NoSuchElementException.class,
+                () -> accountService.getByAccountNumber("ACC-000000010004"));
+        verify(accountRepository, never()).findByAccountNumber(any());
     }
 
     @Test
     void testDeposit_Success() {
         Account account = new Account();
         account.setId(1L);
-        account.setBalance(100.0);
+        account.setBalanceCents(15_000L);
         account.setAccountType(Account.AccountType.SAVINGS);
+        account.setCustomerId(123L);
+        when(accountRepository.incrementBalance(1L, 5_000L)).thenReturn(1);
         when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
-        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArgument(0));
 
         var dto = mock(com.bank.accountms.api.dto.AccountDtos.AmountDto.class);
-        when(dto.amount()).thenReturn(50.0);
+        when(dto.amountCents()).thenReturn(5_000L);
 
         Account result = accountService.deposit(1L, dto);
-        assertEquals(150.0, result.getBalance());
+        assertEquals(15_000L, result.getBalanceCents());
+        verify(accountRepository).incrementBalance(1L, 5_000L);
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void testDeposit_ThrowsWhenNotFound() {
+        when(accountRepository.incrementBalance(9L, 5_000L)).thenReturn(0);
+
+        var dto = mock(com.bank.accountms.api.dto.AccountDtos.AmountDto.class);
+        when(dto.amountCents()).thenReturn(5_000L);
+
+        assertThrows(NoSuchElementException.class, () -> accountService.deposit(9L, dto));
     }
 
     @Test
     void testWithdraw_Success() {
         Account account = new Account();
         account.setId(1L);
-        account.setBalance(200.0);
+        account.setBalanceCents(15_000L);
         account.setAccountType(Account.AccountType.SAVINGS);
+        account.setCustomerId(123L);
+        when(accountRepository.decrementBalance(1L, 5_000L, AccountService.OVERDRAFT_LIMIT_CENTS))
+                .thenReturn(1);
         when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
-        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArgument(0));
 
         var dto = mock(com.bank.accountms.api.dto.AccountDtos.AmountDto.class);
-        when(dto.amount()).thenReturn(50.0);
+        when(dto.amountCents()).thenReturn(5_000L);
 
         Account result = accountService.withdraw(1L, dto);
-        assertEquals(150.0, result.getBalance());
+        assertEquals(15_000L, result.getBalanceCents());
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void testWithdraw_SavingsRejectedWhenGuardFails() {
+        Account account = new Account();
+        account.setId(1L);
+        account.setBalanceCents(2_000L);
+        account.setAccountType(Account.AccountType.SAVINGS);
+        when(accountRepository.decrementBalance(1L, 5_000L, AccountService.OVERDRAFT_LIMIT_CENTS))
+                .thenReturn(0);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        var dto = mock(com.bank.accountms.api.dto.AccountDtos.AmountDto.class);
+        when(dto.amountCents()).thenReturn(5_000L);
+
+        var ex = assertThrows(IllegalStateException.class, () -> accountService.withdraw(1L, dto));
+        assertEquals("Savings cannot be negative", ex.getMessage());
+    }
+
+    @Test
+    void testWithdrawByNumber_CheckingRejectedWhenGuardFails() {
+        Account account = new Account();
+        account.setAccountNumber("ACC1");
+        account.setBalanceCents(-48_000L);
+        account.setAccountType(Account.AccountType.CHECKING);
+        when(accountRepository.decrementBalanceByNumber("ACC1", 5_000L, AccountService.OVERDRAFT_LIMIT_CENTS))
+                .thenReturn(0);
+        when(accountRepository.findByAccountNumber("ACC1")).thenReturn(Optional.of(account));
+
+        var dto = mock(com.bank.accountms.api.dto.AccountDtos.AmountDto.class);
+        when(dto.amountCents()).thenReturn(5_000L);
+
+        assertThrows(IllegalStateException.class, () -> accountService.withdrawByNumber("ACC1", dto));
+    }
+
+    @Test
+    void testRejections_AreCountedByReason() {
+        var registry = new SimpleMeterRegistry();
+        accountService.bindTo(registry);
+        Account account = new Account();
+        account.setId(1L);
+        account.setAccountType(Account.AccountType.SAVINGS);
+        when(accountRepository.decrementBalance(1L, 5_000L, AccountService.OVERDRAFT_LIMIT_CENTS))
+                .thenReturn(0);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        var dto = mock(com.bank.accountms.api.dto.AccountDtos.AmountDto.class);
+        when(dto.amountCents()).thenReturn(5_000L);
+
+        assertThrows(IllegalStateException.class, () -> accountService.withdraw(1L, dto));
+        assertThrows(NoSuchElementException.class,
+                () -> accountService.getByAccountNumber("ACC-000000010004"));
+
+        assertEquals(1.0, registry.get("account.rejections").tag("reason", "insufficient_funds")
+                .functionCounter().count());
+        assertEquals(0.0, registry.get("account.rejections").tag("reason", "overdraft")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("account.rejections").tag("reason", "not_found")
+                .functionCounter().count());
     }
 
     @Test
@@ -127,29 +245,101 @@ class AccountServiceTest {
         verify(accountRepository, never()).findAll();
     }
     @Test
-    void testTotalBalanceAsync_ReturnsSumOfBalances() throws Exception {
-        Account acc1 = new Account();
-        acc1.setBalance(100.0);
-        Account acc2 = new Account();
-        acc2.setBalance(200.0);
-        when(accountRepository.findByCustomerId(123L)).thenReturn(List.of(acc1, acc2));
+    void testHasAccounts_UsesExistsQuery() {
+        when(accountRepository.existsByCustomerId(123L)).thenReturn(true);
 
-        CompletableFuture<Double> future = accountService.totalBalanceAsync(123L);
-        Double result = future.get(); // Wait for completion
+        assertTrue(accountService.hasAccounts(123L));
+        verify(accountRepository, never()).countByCustomerId(123L);
+        verify(accountRepository, never()).findByCustomerId(123L);
+    }
 
-        assertEquals(300.0, result);
-        verify(accountRepository).findByCustomerId(123L);
+    @Test
+    void testTotalBalance_UsesAggregateQueryOnce() {
+        when(accountRepository.sumBalanceByCustomerId(123L)).thenReturn(30_000L);
+
+        assertEquals(30_000L, accountService.totalBalance(123L));
+        assertEquals(30_000L, accountService.totalBalance(123L));
+
+        verify(accountRepository, times(1)).sumBalanceByCustomerId(123L);
+        verify(accountRepository, never()).findByCustomerId(123L);
+    }
+
+    @Test
+    void testTotalBalance_ReturnsZeroWhenNoAccounts() {
+        when(accountRepository.sumBalanceByCustomerId(999L)).thenReturn(0L);
+
+        assertEquals(0L, accountService.totalBalance(999L));
+        verify(accountRepository).sumBalanceByCustomerId(999L);
     }
 
     @Test
-    void testTotalBalanceAsync_ReturnsZeroWhenNoAccounts() throws Exception {
-        when(accountRepository.findByCustomerId(999L)).thenReturn(List.of());
+    void testTotalBalance_UpdatedIncrementallyByDeposit() {
+        when(accountRepository.sumBalanceByCustomerId(123L)).thenReturn(30_000L);
+        assertEquals(30_000L, accountService.totalBalance(123L));
+
+        Account account = new Account();
+        account.setId(1L);
+        account.setCustomerId(123L);
+        when(accountRepository.incrementBalance(1L, 5_000L)).thenReturn(1);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        var dto = mock(com.bank.accountms.api.dto.AccountDtos.AmountDto.class);
+        when(dto.amountCents()).thenReturn(5_000L);
+        accountService.deposit(1L, dto);
+
+        assertEquals(35_000L, accountService.totalBalance(123L));
+        verify(accountRepository, times(1)).sumBalanceByCustomerId(123L);
+    }
 
-        CompletableFuture<Double> future = accountService.totalBalanceAsync(999L);
-        Double result = future.get();
+    @Test
+    void testApplyPostings_GroupsPerAccountAndReportsPerItem() {
+        Account savings = new Account();
+        savings.setAccountNumber("ACC1");
+        savings.setBalanceCents(10_000L);
+        savings.setAccountType(Account.AccountType.SAVINGS);
+        savings.setCustomerId(123L);
+        when(accountRepository.findByAccountNumberIn(any())).thenReturn(List.of(savings));
+
+        var postings = List.of(
+                new com.bank.accountms.api.dto.AccountDtos.PostingDto("ACC1", "DEPOSIT", 5_000L),
+                new com.bank.accountms.api.dto.AccountDtos.PostingDto("NOPE", "DEPOSIT", 100L),
+                new com.bank.accountms.api.dto.AccountDtos.PostingDto("ACC1", "WITHDRAW", 20_000L),
+                new com.bank.accountms.api.dto.AccountDtos.PostingDto("ACC1", "WITHDRAW", 15_000L)
+        );
+
+        var results = accountService.applyPostings(postings);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).applied());
+        assertEquals(15_000L, results.get(0).balanceCents());
+        assertFalse(results.get(1).applied());
+        assertFalse(results.get(2).applied());
+        assertEquals("Savings cannot be negative", results.get(2).error());
+        assertTrue(results.get(3).applied());
+        assertEquals(0L, results.get(3).balanceCents());
+        assertEquals(0L, savings.getBalanceCents());
+        verify(accountRepository, times(1)).findByAccountNumberIn(any());
+        verify(accountRepository, never()).save(any(Account.class));
+    }
 
-        assertEquals(0.0, result);
-        verify(accountRepository).findByCustomerId(999L);
+    @Test
+    void testListAfter_FetchesOneExtraRowToDetectNextPage() {
+        Account a1 = new Account();
+        a1.setId(9L);
+        Account a2 = new Account();
+        a2.setId(8L);
+        Account a3 = new Account();
+        a3.setId(7L);
+        when(accountRepository.findByCustomerIdAndIdLessThan(eq(123L), eq(10L), any()))
+                .thenReturn(List.of(a1, a2, a3));
+
+        var slice = accountService.listAfter(123L, 10L, false, 2);
+
+        assertEquals(2, slice.getNumberOfElements());
+        assertTrue(slice.hasNext());
+        verify(accountRepository).findByCustomerIdAndIdLessThan(
+                123L, 10L, org.springframework.data.domain.PageRequest.of(0, 3,
+                        org.springframework.data.domain.Sort.by(
+                                org.springframework.data.domain.Sort.Direction.DESC, "id")));
+        verify(accountRepository, never()).count();
     }
-    
 }
@@ -0,0 +1,72 @@
+package com.bank.accountms.service;
+
+import com.bank.accountms.domain.AccountNumbers;
+import com.bank.accountms.domain.NumberSequence;
+import com.bank.accountms.repository.NumberSequenceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BlockAccountNumberGeneratorTest {
+
+    private final NumberSequenceRepository sequences = mock(NumberSequenceRepository.class);
+    private final NumberSequence sequence = new NumberSequence(BlockAccountNumberGenerator.SEQUENCE, 1L);
+
+    @Test
+    void testNext_HandsOutBlockThenReservesNext() {
+        when(sequences.lockByName(BlockAccountNumberGenerator.SEQUENCE)).thenReturn(Optional.of(sequence));
+        var generator = new BlockAccountNumberGenerator(
+                sequences, mock(PlatformTransactionManager.class), 10);
+
+        assertEquals(AccountNumbers.format(10L), generator.next());
+        for (int i = 0; i < 9; i++) {
+            generator.next();
+        }
+        assertEquals(AccountNumbers.format(20L), generator.next());
+        assertEquals(3L, sequence.getNextBlock());
+        verify(sequences, times(2)).lockByName(BlockAccountNumberGenerator.SEQUENCE);
+    }
+
+    @Test
+    void testNext_CreatesSequenceOnFirstUse() {
+        when(sequences.lockByName(BlockAccountNumberGenerator.SEQUENCE)).thenReturn(Optional.empty());
+        when(sequences.saveAndFlush(any(NumberSequence.class))).thenAnswer(i -> i.getArgument(0));
+        var generator = new BlockAccountNumberGenerator(
+                sequences, mock(PlatformTransactionManager.class), 10);
+
+        assertEquals(AccountNumbers.format(10L), generator.next());
+    }
+
+    @Test
+    void testNext_UniqueAndValidUnderConcurrency() throws Exception {
+        when(sequences.lockByName(BlockAccountNumberGenerator.SEQUENCE)).thenReturn(Optional.of(sequence));
+        var generator = new BlockAccountNumberGenerator(
+                sequences, mock(PlatformTransactionManager.class), 100);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    seen.add(generator.next());
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(8_000, seen.size());
+        assertTrue(seen.stream().allMatch(AccountNumbers::isPlausible));
+        assertEquals(81L, sequence.getNextBlock());
+    }
+}
@@ -0,0 +1,105 @@
+package com.bank.accountms.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerBalanceCacheTest {
+
+    private final CustomerBalanceCache cache = new CustomerBalanceCache(1_000);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testDeltaAppliedOnlyAfterCommit() {
+        assertEquals(1_000L, cache.get(1L, () -> 1_000L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.recordDelta(1L, 500L);
+        assertEquals(1_000L, cache.get(1L, () -> -1L));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(1_500L, cache.get(1L, () -> -1L));
+    }
+
+    @Test
+    void testDeltaDiscardedOnRollback() {
+        assertEquals(1_000L, cache.get(1L, () -> 1_000L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.recordDelta(1L, 500L);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(1_000L, cache.get(1L, () -> -1L));
+    }
+
+    @Test
+    void testLoadNotCachedWhileMutationInFlight() {
+        var queries = new AtomicInteger();
+        LongSupplier sum = () -> {
+            queries.incrementAndGet();
+            return 1_500L;
+        };
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.recordDelta(2L, 500L);
+        assertEquals(1_500L, cache.get(2L, sum));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(1_500L, cache.get(2L, sum));
+        assertEquals(1_500L, cache.get(2L, sum));
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void testEvictForcesReload() {
+        assertEquals(1_000L, cache.get(3L, () -> 1_000L));
+        cache.evict(3L);
+        assertEquals(0, cache.size());
+        assertEquals(400L, cache.get(3L, () -> 400L));
+    }
+
+    @Test
+    void testPendingDeltaAppliedOnCommitAndDiscardedOnRollback() {
+        assertEquals(1_000L, cache.getAsync(4L, () -> Mono.just(1_000L)).block());
+
+        var committed = cache.begin(4L, 500L);
+        var rolledBack = cache.begin(4L, 200L);
+        assertEquals(1_000L, cache.getAsync(4L, () -> Mono.just(-1L)).block());
+        committed.complete(true);
+        rolledBack.complete(false);
+        committed.complete(true); // sólo cuenta una vez
+
+        assertEquals(1_500L, cache.getAsync(4L, () -> Mono.just(-1L)).block());
+    }
+
+    @Test
+    void testPendingEvictForcesReload() {
+        assertEquals(1_000L, cache.get(5L, () -> 1_000L));
+
+        var pending = cache.begin(5L, 300L);
+        assertEquals(1_000L, cache.getAsync(5L, () -> Mono.just(-1L)).block());
+        pending.evict();
+
+        assertEquals(0, cache.size());
+        assertEquals(1_300L, cache.get(5L, () -> 1_300L));
+    }
+
+    private static void complete(int status) {
+        var syncs = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        syncs.forEach(s -> s.afterCompletion(status));
+    }
+}
@@ -0,0 +1,59 @@
+package com.bank.customerms.api.mapper;
+
+import com.bank.customerms.api.dto.CustomerDtos.CustomerDto;
+import com.bank.customerms.domain.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * {@link CustomerMapper#toDto} para un cliente y para una página de 20 (listado).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerMapperBenchmark {
+
+    private Customer customer;
+    private List<Customer> page;
+
+    @Setup
+    public void setUp() {
+        customer = customer(1L);
+        page = LongStream.rangeClosed(1, 20).mapToObj(CustomerMapperBenchmark::customer).toList();
+    }
+
+    @Benchmark
+    public CustomerDto toDto() {
+        return CustomerMapper.toDto(customer);
+    }
+
+    @Benchmark
+    public List<CustomerDto> toDtoPage() {
+        return page.stream().map(CustomerMapper::toDto).toList();
+    }
+
+    private static Customer customer(long id) {
+        return Customer.builder()
+                .id(id)
+                .firstName("Ana")
+                .lastName("Perez")
+                .dni(String.format("%08d", id))
+                .email("ana" + id + "@bank.com")
+                .build();
+    }
+}
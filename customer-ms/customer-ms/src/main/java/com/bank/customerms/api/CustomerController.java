@@ -12,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,10 +28,14 @@ public class CustomerController implements ClientesApi {
 
   @Override
   public ResponseEntity<CustomerPage> listCustomers(String q, Integer page, Integer size,
-      String sort) {
+      String sort, String cursor, Boolean withCount) {
     int p = (page == null || page < 0) ? 0 : page;
     int s = (size == null || size < 1) ? 10 : Math.min(size, 50);
     Sort sortSpec = parseSort(sort);
+    if (cursor != null) {
+      return ResponseEntity.ok(
+          listByCursor(q, s, sortSpec, cursor, Boolean.TRUE.equals(withCount)));
+    }
     Pageable pageable = PageRequest.of(p, s, sortSpec);
 
     Page<Customer> pageDomain = service.list(q, pageable);
@@ -42,7 +47,8 @@ public class CustomerController implements ClientesApi {
     resp.setTotalPages(pageDomain.getTotalPages());
     resp.setFirst(pageDomain.isFirst());
     resp.setLast(pageDomain.isLast());
-    resp.setSort(sortSpec.isSorted() ? sortSpec.toString() : "");
+    var applied = pageDomain.getSort(); // unsorted si se ordenó por relevancia
+    resp.setSort(applied.isSorted() ? applied.toString() : "");
     resp.setContent(pageDomain.getContent().stream().map(this::toDto).toList());
 
     return ResponseEntity.ok(resp);
@@ -85,28 +91,63 @@ public class CustomerController implements ClientesApi {
     return ResponseEntity.noContent().build();
   }
 
+  private CustomerPage listByCursor(String q, int size, Sort sortSpec, String cursor,
+      boolean withCount) {
+    IdCursor position;
+    if (cursor.isBlank()) {
+      var effective = sortSpec.isSorted() ? sortSpec : CustomerService.DEFAULT_SORT;
+      var order = effective.getOrderFor("id");
+      if (order == null) {
+        throw new IllegalArgumentException("Cursor pagination only supports sort by id");
+      }
+      position = IdCursor.first(order.isAscending());
+    } else {
+      position = IdCursor.decode(cursor);
+    }
+
+    Slice<Customer> slice = service.listAfter(q, position.lastId(), position.ascending(), size);
+
+    CustomerPage resp = new CustomerPage();
+    resp.setSize(size);
+    resp.setFirst(cursor.isBlank());
+    resp.setLast(!slice.hasNext());
+    resp.setSort(slice.getSort().toString());
+    resp.setContent(slice.getContent().stream().map(this::toDto).toList());
+    if (slice.hasNext()) {
+      var last = slice.getContent().get(slice.getNumberOfElements() - 1);
+      resp.setNextCursor(new IdCursor(last.getId(), position.ascending()).encode());
+    }
+    if (withCount) {
+      resp.setTotalElements(service.count(q));
+    }
+    return resp;
+  }
+
+  // cuenta en la fase "mapping" de Server-Timing
   private CustomerDto toDto(Customer c) {
+    long start = System.nanoTime();
     var dto = new CustomerDto();
     dto.setId(c.getId());
     dto.setFirstName(c.getFirstName());
     dto.setLastName(c.getLastName());
     dto.setDni(c.getDni());
     dto.setEmail(c.getEmail());
+    ServerTiming.record("mapping", System.nanoTime() - start);
     return dto;
   }
 
+  // Sin sort: el servicio decide (relevancia si busca por q, si no id descendente)
   private Sort parseSort(String sort) {
     if (sort == null || sort.isBlank()) {
-      return Sort.by(Sort.Direction.DESC, "id");
+      return Sort.unsorted();
     }
-    try {
-      var parts = sort.split(",", 2);
-      var field = parts[0].trim();
-      var dir = (parts.length > 1 ? parts[1].trim() : "asc");
-      return Sort.by("desc".equalsIgnoreCase(dir) ? Sort.Direction.DESC : Sort.Direction.ASC,
-          field);
-    } catch (Exception e) {
-      return Sort.by(Sort.Direction.DESC, "id");
+    var parts = sort.split(",", 2);
+    var field = parts[0].trim();
+    if (!CustomerService.SORTABLE.contains(field)) {
+      throw new IllegalArgumentException("Unsupported sort property: " + field);
     }
+    var dir = (parts.length > 1 ? parts[1].trim() : "asc");
+    return Sort.by("desc".equalsIgnoreCase(dir) ? Sort.Direction.DESC : Sort.Direction.ASC,
+        field);
   }
 }
@@ -0,0 +1,55 @@
+package com.bank.customerms.api;
+
+import com.bank.customerms.service.CustomerImportService;
+import com.bank.customerms.service.CustomerImportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Importación masiva de clientes (fuera del contrato OpenAPI generado: el cuerpo y la
+ * respuesta son streams, no modelos).
+ *
+ * <p>{@code POST /api/v1/clientes:import} con {@code text/csv} (cabecera
+ * {@code firstName,lastName,dni,email}) o {@code application/x-ndjson} (un
+ * {@code CustomerCreateDto} por línea). Responde en NDJSON un resultado por fila, escrito a
+ * medida que se procesa cada bloque.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CustomerImportController {
+
+  private static final String TEXT_CSV = "text/csv";
+
+  private final CustomerImportService importService;
+  private final ObjectMapper mapper;
+
+  @PostMapping(value = "/api/v1/clientes:import",
+      consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE},
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public void importCustomers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      InputStream body, HttpServletResponse response) throws IOException {
+    var format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+        ? Format.NDJSON
+        : Format.CSV;
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    var out = response.getOutputStream();
+    importService.importCustomers(body, format, row -> {
+      try {
+        out.write(mapper.writeValueAsBytes(row));
+        out.write('\n');
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    out.flush();
+  }
+}
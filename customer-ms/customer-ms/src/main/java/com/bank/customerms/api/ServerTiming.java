@@ -0,0 +1,124 @@
+package com.bank.customerms.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fases de la petición en curso para la cabecera {@code Server-Timing}.
+ *
+ * <p>{@link ServerTimingFilter} abre una instancia por petición en el hilo que la atiende; las
+ * fases ({@code db}, {@code mapping}, llamadas a account-ms) suman su duración con
+ * {@link #record}. Las cabeceras de account-ms se incorporan con {@link #merge}, de modo que
+ * una sola respuesta desglosa todos los saltos. Sin petición abierta (tareas en segundo plano,
+ * benchmarks) no se registra nada. La cabecera se escribe al confirmar la respuesta y termina
+ * con {@code total}: el tiempo hasta ese momento, sin la serialización del cuerpo.
+ */
+public final class ServerTiming {
+
+  public static final String HEADER = "Server-Timing";
+
+  private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+  private final long start = System.nanoTime();
+  private final Map<String, Long> phases = new LinkedHashMap<>();
+
+  private ServerTiming() {
+  }
+
+  static ServerTiming open() {
+    var timing = new ServerTiming();
+    CURRENT.set(timing);
+    return timing;
+  }
+
+  static void close() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Suma {@code nanos} a la fase {@code name} de la petición en curso, si la hay.
+   */
+  public static void record(String name, long nanos) {
+    var timing = CURRENT.get();
+    if (timing != null) {
+      timing.phases.merge(name, nanos, Long::sum);
+    }
+  }
+
+  /**
+   * Incorpora las fases de una respuesta de otro servicio con el prefijo {@code hop}
+   * (p.ej. {@code account-ms.exists.db}); se suman si hay varias llamadas al mismo destino.
+   */
+  public static void merge(String hop, List<String> headerValues) {
+    var timing = CURRENT.get();
+    if (timing == null || headerValues == null) {
+      return;
+    }
+    for (var value : headerValues) {
+      for (var metric : parse(value)) {
+        timing.phases.merge(hop + "." + metric.name(), metric.nanos(), Long::sum);
+      }
+    }
+  }
+
+  String header() {
+    var sb = new StringBuilder();
+    phases.forEach((name, nanos) -> append(sb, name, nanos));
+    append(sb, "total", System.nanoTime() - start);
+    return sb.toString();
+  }
+
+  private static void append(StringBuilder sb, String name, long nanos) {
+    if (!sb.isEmpty()) {
+      sb.append(", ");
+    }
+    sb.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1e6));
+  }
+
+  /**
+   * Métricas con {@code dur} de un valor de {@code Server-Timing}; el resto se ignora.
+   */
+  static List<Metric> parse(String value) {
+    var metrics = new ArrayList<Metric>();
+    for (var entry : splitOutsideQuotes(value, ',')) {
+      var params = splitOutsideQuotes(entry, ';');
+      var name = params.get(0).strip();
+      for (int i = 1; i < params.size() && !name.isEmpty(); i++) {
+        var param = params.get(i).strip();
+        if (param.regionMatches(true, 0, "dur=", 0, 4)) {
+          try {
+            double ms = Double.parseDouble(param.substring(4).replace("\"", ""));
+            metrics.add(new Metric(name, Math.round(ms * 1e6)));
+          } catch (NumberFormatException e) {
+            // dur mal formado: se descarta la métrica
+          }
+          break;
+        }
+      }
+    }
+    return metrics;
+  }
+
+  private static List<String> splitOutsideQuotes(String s, char separator) {
+    var parts = new ArrayList<String>();
+    boolean quoted = false;
+    int from = 0;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (c == separator && !quoted) {
+        parts.add(s.substring(from, i));
+        from = i + 1;
+      }
+    }
+    parts.add(s.substring(from));
+    return parts;
+  }
+
+  record Metric(String name, long nanos) {
+  }
+}
@@ -0,0 +1,85 @@
+package com.bank.customerms.api;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Añade {@code Server-Timing} con las fases de {@link ServerTiming} a cada respuesta.
+ *
+ * <p>La cabecera se escribe justo antes de confirmar la respuesta (primer acceso al cuerpo,
+ * {@code flushBuffer} o {@code sendError}), sin almacenar el cuerpo en memoria. Se desactiva
+ * con {@code server-timing.enabled=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "server-timing.enabled", matchIfMissing = true)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    var timed = new TimedResponse(response, ServerTiming.open());
+    try {
+      chain.doFilter(request, timed);
+      timed.writeHeader();
+    } finally {
+      ServerTiming.close();
+    }
+  }
+
+  private static final class TimedResponse extends HttpServletResponseWrapper {
+
+    private final ServerTiming timing;
+    private boolean written;
+
+    TimedResponse(HttpServletResponse response, ServerTiming timing) {
+      super(response);
+      this.timing = timing;
+    }
+
+    void writeHeader() {
+      if (!written && !isCommitted()) {
+        written = true;
+        addHeader(ServerTiming.HEADER, timing.header());
+      }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      writeHeader();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      writeHeader();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      writeHeader();
+      super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      writeHeader();
+      super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      writeHeader();
+      super.sendError(sc, msg);
+    }
+  }
+}
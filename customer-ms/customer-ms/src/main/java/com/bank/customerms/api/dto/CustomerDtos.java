@@ -52,6 +52,20 @@ public final class CustomerDtos {
   ) {
   }
 
+  /**
+   * Resultado de una fila de la importación masiva (una línea NDJSON por fila).
+   *
+   * @param row número de fila de datos (1 = primera tras la cabecera)
+   * @param dni documento de la fila, si se pudo leer
+   * @param status {@code CREATED} o {@code REJECTED}
+   * @param id identificador asignado si se creó
+   * @param error motivo del rechazo
+   */
+  public record ImportRowDto(
+      long row, String dni, String status, Long id, String error
+  ) {
+  }
+
   private CustomerDtos() {
   }
 }
@@ -1,52 +1,88 @@
 package com.bank.customerms.client;
 
+import com.bank.customerms.api.ServerTiming;
+import io.micrometer.core.annotation.Timed;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 
 @Component
 @RequiredArgsConstructor
 public class AccountClient {
 
+  private static final int MAX_CACHED = 10_000;
+  private static final String EXISTS_HOP = "account-ms.exists";
+
   private final RestClient restClient;
 
+  /** Clientes con cuentas: id → instante (nanoTime) en que caduca la respuesta. */
+  private final ConcurrentHashMap<Long, Long> withAccounts = new ConcurrentHashMap<>();
+
   @Value("${account.service.base-url}")
   private String accountsBaseUrl;
 
+  @Value("${account.service.exists-cache-ttl:2s}")
+  private Duration existsCacheTtl;
+
   /**
-   * Devuelve true si el cliente tiene al menos una cuenta en account-ms
+   * Devuelve true si el cliente tiene al menos una cuenta en account-ms.
+   *
+   * <p>Usa {@code GET /api/v1/cuentas/existe} (un {@code exists} en account-ms, sin página ni
+   * DTOs de cuenta). Las respuestas positivas se guardan unos segundos para que los borrados
+   * masivos no repitan la misma consulta; las negativas no, porque autorizan el borrado y el
+   * cliente puede haber abierto una cuenta mientras tanto. El timer
+   * {@code customer.account.client} incluye los aciertos de caché; la llamada HTTP aparece
+   * aparte en {@code http.client.requests}. En {@code Server-Timing} la llamada cuenta como
+   * {@code account-ms.exists} y las fases que devuelve account-ms se añaden como
+   * {@code account-ms.exists.<fase>}.
    */
+  @Timed(value = "customer.account.client", extraTags = {"method", "hasAccounts"})
   public boolean hasAccounts(Long customerId) {
-    var response = restClient.get()
-        .uri(accountsBaseUrl + "/api/v1/cuentas?customerId={id}", customerId)
-        .retrieve()
-        // 👇 en vez de un array, deserializamos el objeto que tiene "content"
-        .body(AccountPageDto.class);
+    long now = System.nanoTime();
+    var expiresAt = withAccounts.get(customerId);
+    if (expiresAt != null && now - expiresAt < 0) {
+      return true;
+    }
 
-    return response != null && response.getContent() != null && !response.getContent().isEmpty();
-  }
-
-  // ✅ Esta clase la dejas como está
-  @Getter
-  public static class AccountDto {
+    long start = System.nanoTime();
+    AccountExistsDto response;
+    try {
+      var entity = restClient.get()
+          .uri(accountsBaseUrl + "/api/v1/cuentas/existe?customerId={id}", customerId)
+          .retrieve()
+          .toEntity(AccountExistsDto.class);
+      ServerTiming.merge(EXISTS_HOP, entity.getHeaders().get(ServerTiming.HEADER));
+      response = entity.getBody();
+    } catch (RestClientResponseException e) {
+      var headers = e.getResponseHeaders();
+      ServerTiming.merge(EXISTS_HOP, headers == null ? null : headers.get(ServerTiming.HEADER));
+      throw e;
+    } finally {
+      ServerTiming.record(EXISTS_HOP, System.nanoTime() - start);
+    }
+    if (response == null || !response.isExists()) {
+      withAccounts.remove(customerId);
+      return false;
+    }
 
-    private Long id;
-    private String accountNumber;
-    private Double balance;
-    private String accountType;
-    private Long customerId;
+    if (withAccounts.size() >= MAX_CACHED) {
+      withAccounts.values().removeIf(e -> now - e >= 0);
+      if (withAccounts.size() >= MAX_CACHED) {
+        withAccounts.clear();
+      }
+    }
+    withAccounts.put(customerId, now + existsCacheTtl.toNanos());
+    return true;
   }
 
-  // NUEVA CLASE AQUÍ, al mismo nivel que AccountDto
   @Getter
-  public static class AccountPageDto {
+  public static class AccountExistsDto {
 
-    private java.util.List<AccountDto> content;
-    private long totalElements;
-    private int totalPages;
-    private int number;
-    private int size;
+    private boolean exists;
   }
 }
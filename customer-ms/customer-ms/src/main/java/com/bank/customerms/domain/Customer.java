@@ -14,8 +14,17 @@ import lombok.*;
 @Builder
 public class Customer {
 
+  /** Ids reservados por consulta a {@code customer_seq}. */
+  public static final int ID_ALLOCATION_SIZE = 100;
+
+  /**
+   * Id de una secuencia "pooled" (en MySQL, tabla {@code customer_seq}) para que los INSERT
+   * de la importación masiva se agrupen en lotes JDBC; IDENTITY lo impide.
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+  @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq",
+      allocationSize = ID_ALLOCATION_SIZE)
   private Long id;
 
   @Column(nullable = false, length = 80)
@@ -4,7 +4,12 @@ import com.bank.customerms.domain.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
@@ -12,6 +17,25 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
   Optional<Customer> findByDni(String dni);
 
+  /**
+   * DNIs de la lista que ya existen (comprobación de unicidad en bloque para la importación).
+   */
+  @Query("select c.dni from Customer c where c.dni in :dnis")
+  Set<String> findExistingDnis(@Param("dnis") Collection<String> dnis);
+
+  /**
+   * Sólo id y dni, por id ascendente (carga del filtro de Bloom de DNI sin hidratar entidades).
+   */
+  @Query("select c.id as id, c.dni as dni from Customer c where c.id > :id")
+  List<DniRef> findDniRefsAfter(@Param("id") Long id, Pageable pageable);
+
+  interface DniRef {
+
+    Long getId();
+
+    String getDni();
+  }
+
   Page<Customer>
   findByDniContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
       String dni,
@@ -20,6 +44,27 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
       Pageable pageable
   );
 
+  // Paginación keyset: el Pageable sólo aporta límite y orden por id (sin COUNT).
+
+  String SEARCH = "(lower(c.dni) like lower(concat('%', :q, '%'))"
+      + " or lower(c.firstName) like lower(concat('%', :q, '%'))"
+      + " or lower(c.lastName) like lower(concat('%', :q, '%')))";
+
+  List<Customer> findByIdLessThan(Long id, Pageable pageable);
+
+  List<Customer> findByIdGreaterThan(Long id, Pageable pageable);
+
+  @Query("select c from Customer c where c.id < :id and " + SEARCH)
+  List<Customer> searchByIdLessThan(@Param("q") String q, @Param("id") Long id,
+      Pageable pageable);
+
+  @Query("select c from Customer c where c.id > :id and " + SEARCH)
+  List<Customer> searchByIdGreaterThan(@Param("q") String q, @Param("id") Long id,
+      Pageable pageable);
+
+  @Query("select count(c) from Customer c where " + SEARCH)
+  long countSearch(@Param("q") String q);
+
 }
 
 
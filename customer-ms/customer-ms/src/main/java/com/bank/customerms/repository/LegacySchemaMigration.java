@@ -0,0 +1,54 @@
+package com.bank.customerms.repository;
+
+import com.bank.customerms.domain.Customer;
+import jakarta.annotation.PostConstruct;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Locale;
+import javax.sql.DataSource;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ajustes de esquema que {@code ddl-auto=update} no hace por sí solo. Se ejecuta al arrancar,
+ * después de que Hibernate actualice las tablas y antes de atender peticiones.
+ *
+ * <p>{@code customer_seq} (tabla en MySQL): Hibernate la crea con {@code next_val = 1} aunque
+ * ya haya clientes con ids de IDENTITY. El optimizador "pooled" usa los ids
+ * {@code (valor leído - 100, valor leído]}, así que {@code next_val} debe ser al menos
+ * {@code max(id) + 100} para no repetir ids; sólo se sube, nunca se baja.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class LegacySchemaMigration {
+
+  private final JdbcTemplate jdbc;
+
+  public LegacySchemaMigration(DataSource dataSource) {
+    this.jdbc = new JdbcTemplate(dataSource);
+  }
+
+  @PostConstruct
+  public void migrate() {
+    // en H2 Hibernate usa una secuencia nativa, no una tabla, y la base de datos es nueva
+    if (hasTable("customer_seq")) {
+      String floor = "(select coalesce(max(id), 0) + " + Customer.ID_ALLOCATION_SIZE
+          + " from customers)";
+      jdbc.update("update customer_seq set next_val = " + floor + " where next_val < " + floor);
+    }
+  }
+
+  private boolean hasTable(String table) {
+    Boolean found = jdbc.execute((ConnectionCallback<Boolean>) conn -> {
+      DatabaseMetaData meta = conn.getMetaData();
+      String name = meta.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+      try (ResultSet rs = meta.getTables(conn.getCatalog(), conn.getSchema(), name,
+          new String[] {"TABLE"})) {
+        return rs.next();
+      }
+    });
+    return Boolean.TRUE.equals(found);
+  }
+}
@@ -0,0 +1,284 @@
+package com.bank.customerms.service;
+
+import com.bank.customerms.api.dto.CustomerDtos.CustomerCreateDto;
+import com.bank.customerms.api.dto.CustomerDtos.ImportRowDto;
+import com.bank.customerms.domain.Customer;
+import com.bank.customerms.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Importación masiva de clientes desde CSV o NDJSON, en streaming.
+ *
+ * <p>Lee el fichero línea a línea y procesa bloques de {@code customer.import.chunk-size}
+ * filas: normaliza con las mismas reglas que {@link CustomerService#create} ({@code strip()}),
+ * valida, comprueba los DNI del bloque con una sola consulta e inserta el bloque en una
+ * transacción (INSERT en lotes JDBC). Sólo se mantiene en memoria un bloque, así que el
+ * consumo no depende del tamaño del fichero. Cada fila produce un {@link ImportRowDto}.
+ */
+@Service
+public class CustomerImportService {
+
+  public static final String CREATED = "CREATED";
+  public static final String REJECTED = "REJECTED";
+
+  private static final List<String> COLUMNS = List.of("firstName", "lastName", "dni", "email");
+
+  /**
+   * Formatos de entrada admitidos.
+   */
+  public enum Format { CSV, NDJSON }
+
+  private final CustomerRepository repo;
+  private final CustomerSearchIndex searchIndex;
+  private final DniBloomFilter dniFilter;
+  private final TransactionTemplate tx;
+  private final Validator validator;
+  private final ObjectReader ndjsonReader;
+  private final int chunkSize;
+
+  public CustomerImportService(CustomerRepository repo, CustomerSearchIndex searchIndex,
+      DniBloomFilter dniFilter, PlatformTransactionManager txManager, Validator validator, ObjectMapper mapper,
+      @Value("${customer.import.chunk-size:500}") int chunkSize) {
+    this.repo = repo;
+    this.searchIndex = searchIndex;
+    this.dniFilter = dniFilter;
+    this.tx = new TransactionTemplate(txManager);
+    this.validator = validator;
+    this.ndjsonReader = mapper.readerFor(CustomerCreateDto.class);
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Importa el contenido de {@code in} e informa cada fila a {@code report}, en orden.
+   *
+   * @throws IllegalArgumentException si la cabecera CSV no tiene las columnas necesarias
+   */
+  public void importCustomers(InputStream in, Format format, Consumer<ImportRowDto> report)
+      throws IOException {
+    var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    Map<String, Integer> header = format == Format.CSV ? readHeader(reader) : null;
+
+    var chunk = new ArrayList<Row>(chunkSize);
+    long rowNumber = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+      rowNumber++;
+      chunk.add(format == Format.CSV ? csvRow(rowNumber, line, header) : ndjsonRow(rowNumber, line));
+      if (chunk.size() == chunkSize) {
+        flush(chunk, report);
+      }
+    }
+    flush(chunk, report);
+  }
+
+  private void flush(List<Row> chunk, Consumer<ImportRowDto> report) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    var candidates = chunk.stream().filter(r -> r.error == null).toList();
+
+    var seen = new HashSet<String>();
+    for (var r : candidates) {
+      if (!seen.add(r.dni)) {
+        r.error = "DNI duplicated in file";
+      }
+    }
+    if (!seen.isEmpty()) {
+      var existing = repo.findExistingDnis(seen);
+      for (var r : candidates) {
+        if (r.error == null && existing.contains(r.dni)) {
+          r.error = "DNI already exists";
+        }
+      }
+    }
+
+    var toInsert = candidates.stream().filter(r -> r.error == null).toList();
+    if (!toInsert.isEmpty()) {
+      try {
+        var saved = tx.execute(s -> repo.saveAll(toInsert.stream().map(Row::toCustomer).toList()));
+        for (int i = 0; i < toInsert.size(); i++) {
+          toInsert.get(i).saved = saved.get(i);
+        }
+      } catch (DataIntegrityViolationException e) {
+        // p.ej. un alta concurrente con el mismo DNI: se reintenta fila a fila
+        toInsert.forEach(this::insertOne);
+      }
+    }
+
+    for (var r : chunk) {
+      if (r.saved != null) {
+        searchIndex.put(r.saved);
+        dniFilter.put(r.dni);
+        report.accept(new ImportRowDto(r.number, r.dni, CREATED, r.saved.getId(), null));
+      } else {
+        report.accept(new ImportRowDto(r.number, r.dni, REJECTED, null, r.error));
+      }
+    }
+    chunk.clear();
+  }
+
+  private void insertOne(Row r) {
+    try {
+      r.saved = tx.execute(s -> repo.save(r.toCustomer()));
+    } catch (DataIntegrityViolationException e) {
+      r.error = repo.existsByDni(r.dni) ? "DNI already exists" : "Invalid data";
+    }
+  }
+
+  private Map<String, Integer> readHeader(BufferedReader reader) throws IOException {
+    String line;
+    do {
+      line = reader.readLine();
+    } while (line != null && line.isBlank());
+    if (line == null) {
+      throw new IllegalArgumentException("CSV header is missing");
+    }
+    var names = splitCsv(line);
+    Map<String, Integer> header = new HashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      header.put(names.get(i).strip().toLowerCase(Locale.ROOT), i);
+    }
+    var missing = COLUMNS.stream()
+        .filter(c -> !header.containsKey(c.toLowerCase(Locale.ROOT)))
+        .toList();
+    if (!missing.isEmpty()) {
+      throw new IllegalArgumentException("CSV header is missing columns: " + missing);
+    }
+    return header;
+  }
+
+  private Row csvRow(long number, String line, Map<String, Integer> header) {
+    List<String> fields;
+    try {
+      fields = splitCsv(line);
+    } catch (IllegalArgumentException e) {
+      return Row.rejected(number, null, e.getMessage());
+    }
+    var values = COLUMNS.stream().map(c -> {
+      int i = header.get(c.toLowerCase(Locale.ROOT));
+      return i < fields.size() ? fields.get(i) : null;
+    }).toList();
+    return validated(number,
+        new CustomerCreateDto(values.get(0), values.get(1), values.get(2), values.get(3)));
+  }
+
+  private Row ndjsonRow(long number, String line) {
+    try {
+      // "null", un número o un array no son un cliente: se rechaza la fila, no la importación
+      JsonNode node = ndjsonReader.readTree(line);
+      if (node == null || !node.isObject()) {
+        return Row.rejected(number, null, "Malformed JSON");
+      }
+      return validated(number, ndjsonReader.readValue(node));
+    } catch (IOException e) {
+      return Row.rejected(number, null, "Malformed JSON");
+    }
+  }
+
+  private Row validated(long number, CustomerCreateDto raw) {
+    var dto = new CustomerCreateDto(strip(raw.firstName()), strip(raw.lastName()),
+        strip(raw.dni()), strip(raw.email()));
+    var violations = validator.validate(dto);
+    if (!violations.isEmpty()) {
+      var error = violations.stream()
+          .map(v -> v.getPropertyPath() + " " + v.getMessage())
+          .sorted()
+          .collect(Collectors.joining(", "));
+      return Row.rejected(number, dto.dni(), error);
+    }
+    return new Row(number, dto);
+  }
+
+  private static String strip(String s) {
+    return s == null ? null : s.strip();
+  }
+
+  /**
+   * Separa una línea CSV (RFC 4180, sin saltos de línea dentro de comillas).
+   */
+  static List<String> splitCsv(String line) {
+    var fields = new ArrayList<String>();
+    var field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quoted field");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private static final class Row {
+
+    private final long number;
+    private final CustomerCreateDto dto;
+    private final String dni;
+    private String error;
+    private Customer saved;
+
+    private Row(long number, CustomerCreateDto dto) {
+      this.number = number;
+      this.dto = dto;
+      this.dni = dto == null ? null : dto.dni();
+    }
+
+    static Row rejected(long number, String dni, String error) {
+      var r = new Row(number, dni == null ? null : new CustomerCreateDto(null, null, dni, null));
+      r.error = error;
+      return r;
+    }
+
+    // una entidad nueva por intento: tras un rollback no se reutiliza la que ya tenía id
+    Customer toCustomer() {
+      return Customer.builder()
+          .firstName(dto.firstName())
+          .lastName(dto.lastName())
+          .dni(dto.dni())
+          .email(dto.email())
+          .build();
+    }
+  }
+}
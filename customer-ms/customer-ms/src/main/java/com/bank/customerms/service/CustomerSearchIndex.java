@@ -0,0 +1,220 @@
+package com.bank.customerms.service;
+
+import com.bank.customerms.domain.Customer;
+import com.bank.customerms.repository.CustomerRepository;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índice de trigramas en memoria sobre dni, nombre y apellido de los clientes.
+ *
+ * <p>Resuelve en memoria los ids que contienen el texto buscado (sin distinguir mayúsculas ni
+ * tildes, como la colación de MySQL) para que {@link CustomerService} sólo hidrate la página
+ * pedida. Se carga al arrancar recorriendo la tabla por id y se mantiene con las altas,
+ * modificaciones y bajas de esta instancia.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerSearchIndex {
+
+  private static final int GRAM = 3;
+  private static final int LOAD_CHUNK = 1_000;
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+  private final CustomerRepository repo;
+
+  private final ConcurrentHashMap<Long, Entry> docs = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Set<Long>> grams = new ConcurrentHashMap<>();
+  private volatile boolean ready;
+
+  /**
+   * Carga inicial: recorre la tabla por id en bloques (keyset), sin cargarla entera.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    long lastId = 0L;
+    List<Customer> chunk;
+    do {
+      chunk = repo.findByIdGreaterThan(lastId, PageRequest.of(0, LOAD_CHUNK, Sort.by("id")));
+      for (var c : chunk) {
+        put(c);
+        lastId = c.getId();
+      }
+    } while (chunk.size() == LOAD_CHUNK);
+    ready = true;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public int size() {
+    return docs.size();
+  }
+
+  /**
+   * Indexa (o reindexa) un cliente.
+   */
+  public synchronized void put(Customer c) {
+    var entry = new Entry(c.getId(), normalize(c.getDni()), normalize(c.getFirstName()),
+        normalize(c.getLastName()), normalize(c.getEmail()));
+    var previous = docs.put(entry.id(), entry);
+    if (previous != null) {
+      var stale = previous.grams();
+      stale.removeAll(entry.grams());
+      stale.forEach(g -> unlink(g, entry.id()));
+    }
+    entry.grams().forEach(g -> grams.computeIfAbsent(g, k -> ConcurrentHashMap.newKeySet())
+        .add(entry.id()));
+  }
+
+  public synchronized void remove(Long id) {
+    var previous = docs.remove(id);
+    if (previous != null) {
+      previous.grams().forEach(g -> unlink(g, id));
+    }
+  }
+
+  /**
+   * Ids que coinciden con {@code q}. Con {@code sort} se ordenan como lo haría la BD; sin él,
+   * por calidad de coincidencia (exacta, prefijo, contenido; dni antes que apellido y nombre)
+   * y después por id descendente.
+   *
+   * @throws IllegalArgumentException si {@code sort} usa una propiedad no ordenable
+   */
+  public List<Long> search(String q, Sort sort) {
+    var k = normalize(q);
+    var order = sort.isSorted()
+        ? comparator(sort)
+        : Comparator.comparingInt((Entry e) -> e.score(k)).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::id).reversed());
+    var matches = candidates(k);
+    matches.sort(order);
+    return matches.stream().map(Entry::id).toList();
+  }
+
+  /**
+   * Ids que coinciden con {@code q} posteriores a {@code afterId}, en orden de id (keyset).
+   */
+  public List<Long> searchAfter(String q, long afterId, boolean ascending, int limit) {
+    return candidates(normalize(q)).stream()
+        .map(Entry::id)
+        .filter(id -> ascending ? id > afterId : id < afterId)
+        .sorted(ascending ? Comparator.<Long>naturalOrder() : Comparator.<Long>reverseOrder())
+        .limit(limit)
+        .toList();
+  }
+
+  private List<Entry> candidates(String k) {
+    var result = new ArrayList<Entry>();
+    if (k.length() < GRAM) {
+      docs.values().stream().filter(e -> e.matches(k)).forEach(result::add);
+      return result;
+    }
+    var postings = new ArrayList<Set<Long>>();
+    for (var g : gramsOf(k)) {
+      var ids = grams.get(g);
+      if (ids == null) {
+        return result;
+      }
+      postings.add(ids);
+    }
+    postings.sort(Comparator.comparingInt(Set::size));
+    var smallest = postings.get(0);
+    for (var id : smallest) {
+      boolean all = true;
+      for (int i = 1; i < postings.size() && all; i++) {
+        all = postings.get(i).contains(id);
+      }
+      var e = all ? docs.get(id) : null;
+      if (e != null && e.matches(k)) {
+        result.add(e);
+      }
+    }
+    return result;
+  }
+
+  private void unlink(String gram, Long id) {
+    grams.computeIfPresent(gram, (k, ids) -> {
+      ids.remove(id);
+      return ids.isEmpty() ? null : ids;
+    });
+  }
+
+  private static Comparator<Entry> comparator(Sort sort) {
+    Comparator<Entry> byId = Comparator.comparingLong(Entry::id);
+    Comparator<Entry> result = null;
+    for (var order : sort) {
+      Comparator<Entry> c = switch (order.getProperty()) {
+        case "dni" -> Comparator.comparing(Entry::dni);
+        case "firstName" -> Comparator.comparing(Entry::firstName);
+        case "lastName" -> Comparator.comparing(Entry::lastName);
+        case "email" -> Comparator.comparing(Entry::email);
+        case "id" -> byId;
+        default -> throw new IllegalArgumentException(
+            "Unsupported sort property: " + order.getProperty());
+      };
+      c = order.isAscending() ? c : c.reversed();
+      result = result == null ? c : result.thenComparing(c);
+    }
+    return result.thenComparing(byId.reversed());
+  }
+
+  static String normalize(String s) {
+    if (s == null) {
+      return "";
+    }
+    var decomposed = Normalizer.normalize(s.strip(), Normalizer.Form.NFD);
+    return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+  }
+
+  private static Set<String> gramsOf(String s) {
+    var out = new HashSet<String>();
+    for (int i = 0; i + GRAM <= s.length(); i++) {
+      out.add(s.substring(i, i + GRAM));
+    }
+    return out;
+  }
+
+  // email sólo se guarda para ordenar: no se busca por él
+  private record Entry(long id, String dni, String firstName, String lastName, String email) {
+
+    Set<String> grams() {
+      var out = gramsOf(dni);
+      out.addAll(gramsOf(firstName));
+      out.addAll(gramsOf(lastName));
+      return out;
+    }
+
+    boolean matches(String k) {
+      return dni.contains(k) || firstName.contains(k) || lastName.contains(k);
+    }
+
+    int score(String k) {
+      return Math.max(score(dni, k) * 3, Math.max(score(lastName, k) * 2, score(firstName, k)));
+    }
+
+    private static int score(String field, String k) {
+      if (field.equals(k)) {
+        return 3;
+      }
+      if (field.startsWith(k)) {
+        return 2;
+      }
+      return field.contains(k) ? 1 : 0;
+    }
+  }
+}
@@ -5,25 +5,67 @@ import com.bank.customerms.api.dto.CustomerDtos.CustomerUpdateDto;
 import com.bank.customerms.domain.Customer;
 import com.bank.customerms.repository.CustomerRepository;
 import com.bank.customerms.client.AccountClient;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Altas, consultas y bajas de clientes.
+ *
+ * <p>Las operaciones principales se miden con {@code @Timed} (timer {@code customer.service})
+ * y los rechazos de negocio se publican como {@code customer.rejections{reason}}.
+ */
 @Service
 @RequiredArgsConstructor
-public class CustomerService {
+public class CustomerService implements MeterBinder {
+
+  /** Orden de los listados sin {@code sort} que no se resuelven por relevancia. */
+  public static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "id");
+  /** Propiedades por las que se puede ordenar, tanto en la BD como en el índice. */
+  public static final Set<String> SORTABLE = Set.of("id", "dni", "firstName", "lastName", "email");
 
   private final CustomerRepository repo;
   private final AccountClient accountClient;
+  private final CustomerSearchIndex searchIndex;
+  private final DniBloomFilter dniFilter;
+
+  private final LongAdder duplicateDni = new LongAdder();
+  private final LongAdder notFound = new LongAdder();
+  private final LongAdder hasAccounts = new LongAdder();
 
+  /**
+   * Alta de cliente. Si el filtro de Bloom descarta el DNI no se consulta la BD; el índice
+   * único de {@code dni} sigue siendo la garantía ante altas concurrentes.
+   */
+  @Timed("customer.service")
   public Customer create(CustomerCreateDto dto) {
     var dni = dto.dni().strip();
-    if (repo.existsByDni(dni)) {
-      throw new IllegalArgumentException("DNI already exists");
+    if (dniFilter.mightContain(dni)) {
+      boolean exists = repo.existsByDni(dni);
+      dniFilter.recordLookup(exists);
+      if (exists) {
+        throw duplicateDni();
+      }
     }
     var c = Customer.builder()
         .firstName(dto.firstName().strip())
@@ -31,7 +73,18 @@ public class CustomerService {
         .dni(dni)
         .email(dto.email().strip())
         .build();
-    return repo.save(c);
+    Customer saved;
+    try {
+      saved = repo.save(c);
+    } catch (DataIntegrityViolationException e) {
+      if (repo.existsByDni(dni)) {
+        throw duplicateDni();
+      }
+      throw e;
+    }
+    dniFilter.put(dni);
+    searchIndex.put(saved);
+    return saved;
   }
 
   public List<Customer> list() {
@@ -39,7 +92,10 @@ public class CustomerService {
   }
 
   public Customer get(Long id) {
-    return repo.findById(id).orElseThrow(() -> new NoSuchElementException("Customer not found"));
+    return repo.findById(id).orElseThrow(() -> {
+      notFound.increment();
+      return new NoSuchElementException("Customer not found");
+    });
   }
 
   public Customer update(Long id, CustomerUpdateDto dto) {
@@ -47,18 +103,40 @@ public class CustomerService {
     c.setFirstName(dto.firstName().strip());
     c.setLastName(dto.lastName().strip());
     c.setEmail(dto.email().strip());
-    return repo.save(c);
+    var saved = repo.save(c);
+    searchIndex.put(saved);
+    return saved;
   }
 
+  @Timed("customer.service")
   public void delete(Long id) {
     var c = get(id);
     if (accountClient.hasAccounts(c.getId())) {
+      hasAccounts.increment();
       throw new IllegalStateException("Customer has active accounts");
     }
     repo.deleteById(id);
+    searchIndex.remove(id);
+    dniFilter.remove(c.getDni());
   }
 
+  /**
+   * Página de clientes, opcionalmente filtrada por {@code q} (dni, nombre, apellido). Sin orden
+   * explícito, una búsqueda resuelta por el índice se ordena por relevancia y el resto por id
+   * descendente.
+   */
+  @Timed("customer.service")
   public Page<Customer> list(String q, Pageable pageable) {
+    if (q != null && !q.isBlank() && searchIndex.isReady()) {
+      // Ids resueltos en memoria; sólo se lee de la BD la página devuelta.
+      var ids = searchIndex.search(q.strip(), pageable.getSort());
+      int from = (int) Math.min(pageable.getOffset(), ids.size());
+      int to = Math.min(from + pageable.getPageSize(), ids.size());
+      return new PageImpl<>(hydrate(ids.subList(from, to)), pageable, ids.size());
+    }
+    if (pageable.getSort().isUnsorted()) {
+      pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), DEFAULT_SORT);
+    }
     if (q == null || q.isBlank()) {
       return repo.findAll(pageable);
     }
@@ -72,4 +150,74 @@ public class CustomerService {
     );
 
   }
+
+  /**
+   * Página keyset: clientes con id posterior a {@code afterId} en la dirección indicada, sin
+   * COUNT. Se pide un elemento extra sólo para saber si hay página siguiente.
+   *
+   * @param q búsqueda opcional (dni, nombre, apellido)
+   * @param afterId último id de la página anterior (exclusivo)
+   * @param ascending true para id ascendente, false para descendente
+   * @param size tamaño de página
+   * @return slice con los clientes y si existe página siguiente
+   */
+  @Timed("customer.service")
+  public Slice<Customer> listAfter(String q, long afterId, boolean ascending, int size) {
+    var dir = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+    var pageable = PageRequest.of(0, size + 1, Sort.by(dir, "id"));
+    List<Customer> rows;
+    if (q == null || q.isBlank()) {
+      rows = ascending
+          ? repo.findByIdGreaterThan(afterId, pageable)
+          : repo.findByIdLessThan(afterId, pageable);
+    } else if (searchIndex.isReady()) {
+      rows = hydrate(searchIndex.searchAfter(q.strip(), afterId, ascending, size + 1));
+    } else {
+      var k = q.strip();
+      rows = ascending
+          ? repo.searchByIdGreaterThan(k, afterId, pageable)
+          : repo.searchByIdLessThan(k, afterId, pageable);
+    }
+    boolean hasNext = rows.size() > size;
+    return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows,
+        PageRequest.of(0, size, Sort.by(dir, "id")), hasNext);
+  }
+
+  public long count(String q) {
+    if (q == null || q.isBlank()) {
+      return repo.count();
+    }
+    return searchIndex.isReady()
+        ? searchIndex.search(q.strip(), Sort.unsorted()).size()
+        : repo.countSearch(q.strip());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    rejections(registry, "duplicate_dni", duplicateDni);
+    rejections(registry, "not_found", notFound);
+    rejections(registry, "has_accounts", hasAccounts);
+  }
+
+  private static void rejections(MeterRegistry registry, String reason, LongAdder count) {
+    FunctionCounter.builder("customer.rejections", count, LongAdder::doubleValue)
+        .description("Operaciones rechazadas por regla de negocio")
+        .tag("reason", reason)
+        .register(registry);
+  }
+
+  private IllegalArgumentException duplicateDni() {
+    duplicateDni.increment();
+    return new IllegalArgumentException("DNI already exists");
+  }
+
+  // Carga los clientes por id conservando el orden recibido.
+  private List<Customer> hydrate(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, Customer> byId = repo.findAllById(ids).stream()
+        .collect(Collectors.toMap(Customer::getId, Function.identity()));
+    return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+  }
 }
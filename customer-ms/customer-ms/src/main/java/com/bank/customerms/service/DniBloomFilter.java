@@ -0,0 +1,251 @@
+package com.bank.customerms.service;
+
+import com.bank.customerms.repository.CustomerRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Filtro de Bloom en memoria con los DNI existentes.
+ *
+ * <p>Si dice "no está" el DNI seguro que no existe y {@link CustomerService#create} se ahorra
+ * el {@code existsByDni}; el índice único de la tabla sigue siendo la garantía final. Se carga
+ * al arrancar recorriendo la tabla por id (sólo id y dni) y se actualiza con las altas. Un
+ * filtro de Bloom no admite borrados: las bajas dejan bits "sucios" que sólo suben la tasa de
+ * falsos positivos, y cuando la tasa estimada duplica la objetivo el filtro se reconstruye en
+ * segundo plano.
+ */
+@Component
+public class DniBloomFilter implements MeterBinder {
+
+  private static final int LOAD_CHUNK = 5_000;
+
+  private final CustomerRepository repo;
+  private final long expectedInsertions;
+  private final double targetFpp;
+
+  private volatile Bits bits;
+  private volatile Bits building;
+  private volatile boolean ready;
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+  private final AtomicLong entries = new AtomicLong();
+  private final LongAdder negatives = new LongAdder();
+  private final LongAdder positives = new LongAdder();
+  private final LongAdder falsePositives = new LongAdder();
+
+  public DniBloomFilter(CustomerRepository repo,
+      @Value("${customer.dni-bloom.expected-insertions:1000000}") long expectedInsertions,
+      @Value("${customer.dni-bloom.fpp:0.01}") double targetFpp) {
+    this.repo = repo;
+    this.expectedInsertions = expectedInsertions;
+    this.targetFpp = targetFpp;
+    this.bits = Bits.sized(expectedInsertions, targetFpp);
+  }
+
+  /**
+   * Carga inicial; hasta que termina, {@link #mightContain} responde siempre {@code true}.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    rebuild(expectedInsertions);
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * {@code false} sólo si el DNI seguro que no existe.
+   */
+  public boolean mightContain(String dni) {
+    if (!ready) {
+      return true;
+    }
+    boolean maybe = bits.mightContain(dni);
+    (maybe ? positives : negatives).increment();
+    return maybe;
+  }
+
+  /**
+   * Resultado de la consulta a la base de datos tras un {@link #mightContain} positivo.
+   */
+  public void recordLookup(boolean exists) {
+    if (!exists) {
+      falsePositives.increment();
+    }
+  }
+
+  public void put(String dni) {
+    bits.put(dni);
+    var next = building;
+    if (next != null) {
+      next.put(dni);
+    }
+    if (entries.incrementAndGet() > bits.capacity) {
+      rebuildAsync(); // más DNI de los previstos: se redimensiona
+    }
+  }
+
+  public void remove(String dni) {
+    if (ready && bits.estimatedFpp() > 2 * targetFpp) {
+      rebuildAsync();
+    }
+  }
+
+  /** Tasa de falsos positivos estimada a partir de los bits activos. */
+  public double estimatedFpp() {
+    return bits.estimatedFpp();
+  }
+
+  /** Tasa de falsos positivos observada: positivos que la base de datos no confirmó. */
+  public double observedFpp() {
+    long p = positives.sum();
+    return p == 0 ? 0.0 : (double) falsePositives.sum() / p;
+  }
+
+  public long sizeInBytes() {
+    return bits.sizeInBytes();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("customer.dni.bloom.fpp", this, DniBloomFilter::estimatedFpp)
+        .tag("kind", "estimated").register(registry);
+    Gauge.builder("customer.dni.bloom.fpp", this, DniBloomFilter::observedFpp)
+        .tag("kind", "observed").register(registry);
+    Gauge.builder("customer.dni.bloom.size", this, DniBloomFilter::sizeInBytes)
+        .baseUnit("bytes").register(registry);
+    Gauge.builder("customer.dni.bloom.entries", entries, AtomicLong::get).register(registry);
+    FunctionCounter.builder("customer.dni.bloom.checks", negatives, LongAdder::doubleValue)
+        .tag("result", "negative").register(registry);
+    FunctionCounter.builder("customer.dni.bloom.checks", positives, LongAdder::doubleValue)
+        .tag("result", "positive").register(registry);
+    FunctionCounter.builder("customer.dni.bloom.false.positives", falsePositives,
+        LongAdder::doubleValue).register(registry);
+  }
+
+  private void rebuildAsync() {
+    if (ready) {
+      CompletableFuture.runAsync(
+          () -> rebuild(Math.max(expectedInsertions, 2 * entries.get())));
+    }
+  }
+
+  private void rebuild(long capacity) {
+    if (!rebuilding.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      var fresh = Bits.sized(capacity, targetFpp);
+      building = fresh; // las altas durante la carga van a los dos filtros
+      long loaded = 0;
+      long lastId = 0L;
+      List<CustomerRepository.DniRef> chunk;
+      do {
+        chunk = repo.findDniRefsAfter(lastId, PageRequest.of(0, LOAD_CHUNK, Sort.by("id")));
+        for (var ref : chunk) {
+          fresh.put(ref.getDni());
+          lastId = ref.getId();
+        }
+        loaded += chunk.size();
+      } while (chunk.size() == LOAD_CHUNK);
+      bits = fresh;
+      entries.set(loaded);
+      ready = true;
+    } finally {
+      building = null;
+      rebuilding.set(false);
+    }
+  }
+
+  /**
+   * Vector de bits con k funciones hash por doble hashing (Kirsch–Mitzenmacher).
+   */
+  static final class Bits {
+
+    final long capacity;
+    private final long numBits;
+    private final int numHashes;
+    private final AtomicLongArray words;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    private Bits(long capacity, long numBits, int numHashes) {
+      this.capacity = capacity;
+      this.numBits = numBits;
+      this.numHashes = numHashes;
+      this.words = new AtomicLongArray((int) ((numBits + 63) >>> 6));
+    }
+
+    static Bits sized(long capacity, double fpp) {
+      long n = Math.max(1, capacity);
+      long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+      int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+      return new Bits(n, Math.max(64, m), k);
+    }
+
+    void put(String key) {
+      long h = hash(key);
+      int h1 = (int) h;
+      int h2 = (int) (h >>> 32);
+      for (int i = 1; i <= numHashes; i++) {
+        long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % numBits;
+        long mask = 1L << bit;
+        int word = (int) (bit >>> 6);
+        long prev = words.getAndAccumulate(word, mask, (a, b) -> a | b);
+        if ((prev & mask) == 0) {
+          bitsSet.incrementAndGet();
+        }
+      }
+    }
+
+    boolean mightContain(String key) {
+      long h = hash(key);
+      int h1 = (int) h;
+      int h2 = (int) (h >>> 32);
+      for (int i = 1; i <= numHashes; i++) {
+        long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % numBits;
+        if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    double estimatedFpp() {
+      return Math.pow((double) bitsSet.get() / numBits, numHashes);
+    }
+
+    long sizeInBytes() {
+      return (long) words.length() * Long.BYTES;
+    }
+
+    // FNV-1a de 64 bits con mezcla final de MurmurHash3 (fmix64)
+    private static long hash(String key) {
+      long h = 0xcbf29ce484222325L;
+      for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+        h ^= b;
+        h *= 0x100000001b3L;
+      }
+      h ^= h >>> 33;
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb93fe53e87c3L;
+      h ^= h >>> 33;
+      return h;
+    }
+  }
+}
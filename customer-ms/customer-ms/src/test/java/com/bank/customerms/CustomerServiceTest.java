@@ -5,7 +5,9 @@ import com.bank.customerms.api.dto.CustomerDtos.CustomerUpdateDto;
 import com.bank.customerms.client.AccountClient;
 import com.bank.customerms.domain.Customer;
 import com.bank.customerms.repository.CustomerRepository;
+import com.bank.customerms.service.CustomerSearchIndex;
 import com.bank.customerms.service.CustomerService;
+import com.bank.customerms.service.DniBloomFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 
 import java.util.List;
@@ -32,6 +36,12 @@ class CustomerServiceTest {
     @Mock
     private AccountClient accountClient;
 
+    @Mock
+    private CustomerSearchIndex searchIndex;
+
+    @Mock
+    private DniBloomFilter dniFilter;
+
     @InjectMocks
     private CustomerService service;
 
@@ -62,6 +72,7 @@ class CustomerServiceTest {
     void create_ok_whenDniNotExists() {
         // Arrange
         var dto = new CustomerCreateDto("  Luis ", " Lopez ", " 87654321 ", " luis@bank.com ");
+        when(dniFilter.mightContain("87654321")).thenReturn(true);
         when(repo.existsByDni(anyString())).thenReturn(false);
         // Verificamos que se persiste con valores 'strip'
         when(repo.save(any(Customer.class))).thenReturn(saved);
@@ -80,6 +91,41 @@ class CustomerServiceTest {
         assertEquals("87654321", toSave.getDni());
         assertEquals("luis@bank.com", toSave.getEmail());
         verify(repo).existsByDni("87654321");
+        verify(dniFilter).recordLookup(false);
+        verify(dniFilter).put("87654321");
+    }
+
+    @Test
+    @DisplayName("create: sin consulta de existencia si el filtro de Bloom descarta el DNI")
+    void create_skipsExistsQuery_whenBloomFilterSaysNo() {
+        // Arrange
+        var dto = new CustomerCreateDto("Luis", "Lopez", "87654321", "luis@bank.com");
+        when(dniFilter.mightContain("87654321")).thenReturn(false);
+        when(repo.save(any(Customer.class))).thenReturn(saved);
+
+        // Act
+        Customer result = service.create(dto);
+
+        // Assert
+        assertEquals(saved.getId(), result.getId());
+        verify(repo, never()).existsByDni(anyString());
+        verify(dniFilter).put("87654321");
+    }
+
+    @Test
+    @DisplayName("create: el índice único detecta el duplicado que el filtro no conocía")
+    void create_throws_whenUniqueIndexRejectsDni() {
+        // Arrange
+        var dto = new CustomerCreateDto("Luis", "Lopez", "87654321", "luis@bank.com");
+        when(dniFilter.mightContain("87654321")).thenReturn(false);
+        when(repo.save(any(Customer.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_customer_dni"));
+        when(repo.existsByDni("87654321")).thenReturn(true);
+
+        // Act + Assert
+        var ex = assertThrows(IllegalArgumentException.class, () -> service.create(dto));
+        assertTrue(ex.getMessage().toLowerCase().contains("dni"));
+        verify(dniFilter, never()).put(anyString());
     }
 
     @Test
@@ -87,6 +133,7 @@ class CustomerServiceTest {
     void create_throws_whenDniExists() {
         // Arrange
         var dto = new CustomerCreateDto("Luis", "Lopez", "87654321", "luis@bank.com");
+        when(dniFilter.mightContain("87654321")).thenReturn(true);
         when(repo.existsByDni(anyString())).thenReturn(true);
 
         // Act + Assert
@@ -95,6 +142,31 @@ class CustomerServiceTest {
         verify(repo, never()).save(any());
     }
 
+    @Test
+    @DisplayName("los rechazos de negocio se cuentan por motivo")
+    void rejections_areCountedByReason() {
+        // Arrange
+        var registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+        when(dniFilter.mightContain("87654321")).thenReturn(true);
+        when(repo.existsByDni("87654321")).thenReturn(true);
+        when(repo.findById(9L)).thenReturn(Optional.empty());
+        when(repo.findById(1L)).thenReturn(Optional.of(existing));
+        when(accountClient.hasAccounts(1L)).thenReturn(true);
+
+        // Act
+        assertThrows(IllegalArgumentException.class,
+                () -> service.create(new CustomerCreateDto("Luis", "Lopez", "87654321", "luis@bank.com")));
+        assertThrows(NoSuchElementException.class, () -> service.get(9L));
+        assertThrows(IllegalStateException.class, () -> service.delete(1L));
+
+        // Assert
+        for (var reason : List.of("duplicate_dni", "not_found", "has_accounts")) {
+            assertEquals(1.0, registry.get("customer.rejections").tag("reason", reason)
+                    .functionCounter().count(), reason);
+        }
+    }
+
     @Test
     @DisplayName("get: devuelve cliente por id")
     void get_ok() {
@@ -188,14 +260,14 @@ class CustomerServiceTest {
     @Test
     @DisplayName("list(q): con filtro usa búsqueda por dni/first/last (ignora espacios)")
     void list_withQuery_callsSearch() {
-        // Arrange
-        Pageable pageable = PageRequest.of(0, 10);
+        // Arrange: sin sort ni índice listo, la BD ordena por id descendente
+        Pageable pageable = PageRequest.of(0, 10, CustomerService.DEFAULT_SORT);
         Page<Customer> page = new PageImpl<>(List.of(existing), pageable, 1);
         when(repo.findByDniContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
                 "ana", "ana", "ana", pageable)).thenReturn(page);
 
         // Act
-        Page<Customer> result = service.list("  ana  ", pageable);
+        Page<Customer> result = service.list("  ana  ", PageRequest.of(0, 10));
 
         // Assert
         assertEquals(1, result.getTotalElements());
@@ -222,4 +294,63 @@ class CustomerServiceTest {
         verify(repo).findAll();
     }
 
+    @Test
+    @DisplayName("listAfter(q): keyset por id, sin COUNT y con un elemento extra para hasNext")
+    void listAfter_withQuery_usesKeysetSearch() {
+        // Arrange
+        var pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id"));
+        when(repo.searchByIdLessThan("ana", 50L, pageable)).thenReturn(List.of(existing, saved));
+
+        // Act
+        Slice<Customer> result = service.listAfter("  ana ", 50L, false, 1);
+
+        // Assert
+        assertEquals(1, result.getNumberOfElements());
+        assertTrue(result.hasNext());
+        verify(repo, never()).count();
+        verify(repo, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("list(q): con el índice listo sólo hidrata la página pedida (sin LIKE ni COUNT)")
+    void list_withQuery_usesSearchIndex() {
+        // Arrange
+        Pageable pageable = PageRequest.of(1, 1);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("lo", pageable.getSort())).thenReturn(List.of(1L, 2L, 3L));
+        when(repo.findAllById(List.of(2L))).thenReturn(List.of(saved));
+
+        // Act
+        Page<Customer> result = service.list(" lo ", pageable);
+
+        // Assert
+        assertEquals(3, result.getTotalElements());
+        assertEquals(List.of(saved), result.getContent());
+        verify(repo, never())
+            .findByDniContainingIgnoreCaseOrFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
+                anyString(), anyString(), anyString(), any());
+        verify(repo, never()).count();
+    }
+
+    @Test
+    @DisplayName("create/update/delete mantienen el índice de búsqueda")
+    void writes_keepSearchIndexInSync() {
+        // Arrange
+        when(dniFilter.mightContain(anyString())).thenReturn(true);
+        when(repo.existsByDni(anyString())).thenReturn(false);
+        when(repo.save(any(Customer.class))).thenReturn(saved);
+        when(repo.findById(2L)).thenReturn(Optional.of(saved));
+        when(accountClient.hasAccounts(2L)).thenReturn(false);
+
+        // Act
+        service.create(new CustomerCreateDto("Luis", "Lopez", "87654321", "luis@bank.com"));
+        service.update(2L, new CustomerUpdateDto("Luis", "López", "luis@bank.com"));
+        service.delete(2L);
+
+        // Assert
+        verify(searchIndex, times(2)).put(saved);
+        verify(searchIndex).remove(2L);
+        verify(dniFilter).remove("87654321");
+    }
+
 }
@@ -0,0 +1,51 @@
+package com.bank.customerms.api;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingTest {
+
+    @Test
+    @DisplayName("parse(): toma nombre y dur, ignora desc (aunque lleve comas) y entradas sin dur")
+    void parse_readsNameAndDuration() {
+        var metrics = ServerTiming.parse("db;dur=1.5, cache;desc=\"hit, warm\", total;desc=\"x\";dur=2");
+
+        assertEquals(List.of(
+                new ServerTiming.Metric("db", 1_500_000L),
+                new ServerTiming.Metric("total", 2_000_000L)), metrics);
+    }
+
+    @Test
+    @DisplayName("La respuesta incluye las fases propias y las de account-ms con prefijo")
+    void filter_mergesDownstreamTimings() throws Exception {
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                ServerTiming.record("db", 1_000_000L);
+                ServerTiming.record("account-ms.exists", 4_000_000L);
+                ServerTiming.merge("account-ms.exists", List.of("db;dur=0.50, total;dur=1.00"));
+                ServerTiming.merge("account-ms.exists", List.of("db;dur=0.25, total;dur=0.75"));
+                res.setStatus(204);
+            }
+        });
+
+        new ServerTimingFilter().doFilter(
+                new MockHttpServletRequest("DELETE", "/api/v1/clientes/1"), response, chain);
+
+        assertTrue(response.getHeader(ServerTiming.HEADER).startsWith(
+                "db;dur=1.00, account-ms.exists;dur=4.00, account-ms.exists.db;dur=0.75, "
+                        + "account-ms.exists.total;dur=1.75, total;dur="),
+                response.getHeader(ServerTiming.HEADER));
+    }
+}
@@ -0,0 +1,63 @@
+package com.bank.customerms.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class AccountClientTest {
+
+    private MockRestServiceServer server;
+    private AccountClient client;
+
+    @BeforeEach
+    void init() {
+        var builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        client = new AccountClient(builder.build());
+        ReflectionTestUtils.setField(client, "accountsBaseUrl", "http://accounts");
+        ReflectionTestUtils.setField(client, "existsCacheTtl", Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("hasAccounts(): usa el endpoint de existencia y cachea sólo las respuestas positivas")
+    void hasAccounts_usesExistsEndpointAndCachesPositives() {
+        server.expect(once(), requestTo("http://accounts/api/v1/cuentas/existe?customerId=1"))
+            .andRespond(withSuccess("{\"exists\":true}", MediaType.APPLICATION_JSON));
+        server.expect(times(2), requestTo("http://accounts/api/v1/cuentas/existe?customerId=2"))
+            .andRespond(withSuccess("{\"exists\":false}", MediaType.APPLICATION_JSON));
+
+        assertTrue(client.hasAccounts(1L));
+        assertTrue(client.hasAccounts(1L));
+        assertFalse(client.hasAccounts(2L));
+        assertFalse(client.hasAccounts(2L));
+
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("hasAccounts(): vuelve a consultar cuando caduca la entrada")
+    void hasAccounts_requeriesAfterTtl() {
+        ReflectionTestUtils.setField(client, "existsCacheTtl", Duration.ZERO);
+        server.expect(requestTo("http://accounts/api/v1/cuentas/existe?customerId=1"))
+            .andRespond(withSuccess("{\"exists\":true}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://accounts/api/v1/cuentas/existe?customerId=1"))
+            .andRespond(withSuccess("{\"exists\":false}", MediaType.APPLICATION_JSON));
+
+        assertTrue(client.hasAccounts(1L));
+        assertFalse(client.hasAccounts(1L));
+
+        server.verify();
+    }
+}
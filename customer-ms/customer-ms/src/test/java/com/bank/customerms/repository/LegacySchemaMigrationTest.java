@@ -0,0 +1,32 @@
+package com.bank.customerms.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LegacySchemaMigrationTest {
+
+    @Test
+    @DisplayName("migrate(): sube customer_seq por encima de los ids existentes")
+    void seedsPooledSequenceAboveExistingIds() {
+        var dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1;MODE=MySQL", "sa", "");
+        var jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table customers (id bigint primary key)");
+        jdbc.execute("create table customer_seq (next_val bigint)");
+        jdbc.update("insert into customer_seq (next_val) values (1)");
+        jdbc.update("insert into customers (id) values (1), (42)");
+
+        new LegacySchemaMigration(dataSource).migrate();
+        // el primer bloque de Hibernate, (142 - 100, 142], empieza en 43
+        assertEquals(142L, jdbc.queryForObject("select next_val from customer_seq", Long.class));
+
+        // nunca baja un valor ya reservado
+        jdbc.update("update customer_seq set next_val = 1000");
+        new LegacySchemaMigration(dataSource).migrate();
+        assertEquals(1000L, jdbc.queryForObject("select next_val from customer_seq", Long.class));
+    }
+}
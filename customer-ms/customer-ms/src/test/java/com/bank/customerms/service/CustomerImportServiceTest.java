@@ -0,0 +1,161 @@
+package com.bank.customerms.service;
+
+import com.bank.customerms.api.dto.CustomerDtos.ImportRowDto;
+import com.bank.customerms.domain.Customer;
+import com.bank.customerms.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CustomerImportServiceTest {
+
+    private CustomerRepository repo;
+    private CustomerSearchIndex searchIndex;
+    private CustomerImportService service;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void init() {
+        repo = mock(CustomerRepository.class);
+        searchIndex = mock(CustomerSearchIndex.class);
+        when(repo.findExistingDnis(anyCollection())).thenReturn(Set.of());
+        when(repo.saveAll(anyList())).thenAnswer(i -> {
+            var saved = new ArrayList<Customer>();
+            for (var c : (List<Customer>) i.getArgument(0)) {
+                c.setId(ids.incrementAndGet());
+                saved.add(c);
+            }
+            return saved;
+        });
+        service = new CustomerImportService(repo, searchIndex, mock(DniBloomFilter.class),
+            mock(PlatformTransactionManager.class),
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 2);
+    }
+
+    @Test
+    @DisplayName("CSV: normaliza, valida y crea en bloques con un resultado por fila")
+    void importCsv_createsInChunksAndReportsEachRow() throws Exception {
+        // como la base de datos: los bloques anteriores ya están confirmados
+        var stored = new HashSet<>(Set.of("22222222"));
+        when(repo.findExistingDnis(anyCollection())).thenAnswer(i -> {
+            var found = new HashSet<String>(i.getArgument(0));
+            found.retainAll(stored);
+            return found;
+        });
+        doAnswer(i -> stored.add(((Customer) i.getArgument(0)).getDni())).when(searchIndex).put(any());
+        var csv = """
+            dni,firstName,lastName,email
+            11111111,  Ana ,Pérez,ana@bank.com
+            22222222,Luis,Lopez,luis@bank.com
+            33333333,"Quispe, María",Rojas,no-es-email
+
+            44444444,Juan,Diaz,juan@bank.com
+            11111111,Ana,Repetida,ana2@bank.com
+            """;
+
+        var report = run(csv, CustomerImportService.Format.CSV);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), report.stream().map(ImportRowDto::row).toList());
+        assertEquals(CustomerImportService.CREATED, report.get(0).status());
+        assertEquals("DNI already exists", report.get(1).error());
+        assertEquals("email must be a well-formed email address", report.get(2).error());
+        assertEquals(CustomerImportService.CREATED, report.get(3).status());
+        assertEquals("DNI already exists", report.get(4).error());
+        verify(repo, times(2)).saveAll(argThat(list -> ((List<?>) list).size() == 1));
+        verify(searchIndex, times(2)).put(any(Customer.class));
+        verify(repo, never()).existsByDni(anyString());
+    }
+
+    @Test
+    @DisplayName("NDJSON: JSON inválido y DNI repetido en el mismo bloque se rechazan")
+    void importNdjson_rejectsMalformedAndDuplicatedRows() throws Exception {
+        var ndjson = """
+            {"firstName":"Ana","lastName":"Perez","dni":"11111111","email":"ana@bank.com"}
+            {"firstName":"Ana","lastName":"Perez","dni":"11111111","email":"ana@bank.com"}
+            {"firstName":
+            """;
+
+        var report = run(ndjson, CustomerImportService.Format.NDJSON);
+
+        assertEquals(3, report.size());
+        assertEquals(CustomerImportService.CREATED, report.get(0).status());
+        assertEquals("DNI duplicated in file", report.get(1).error());
+        assertEquals("Malformed JSON", report.get(2).error());
+    }
+
+    @Test
+    @DisplayName("NDJSON: una línea null o que no es un objeto se rechaza sin cortar la importación")
+    void importNdjson_rejectsNullAndNonObjectRows() throws Exception {
+        var ndjson = """
+            null
+            42
+            ["Ana"]
+            {"firstName":"Ana","lastName":"Perez","dni":"11111111","email":"ana@bank.com"}
+            """;
+
+        var report = run(ndjson, CustomerImportService.Format.NDJSON);
+
+        assertEquals(4, report.size());
+        assertEquals("Malformed JSON", report.get(0).error());
+        assertEquals("Malformed JSON", report.get(1).error());
+        assertEquals("Malformed JSON", report.get(2).error());
+        assertEquals(CustomerImportService.CREATED, report.get(3).status());
+    }
+
+    @Test
+    @DisplayName("Si el lote choca con un alta concurrente, se reintenta fila a fila")
+    void importCsv_fallsBackToSingleInsertsOnConstraintViolation() throws Exception {
+        when(repo.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("dup"));
+        when(repo.save(argThat(c -> c != null && "11111111".equals(c.getDni()))))
+            .thenThrow(new DataIntegrityViolationException("dup"));
+        when(repo.save(argThat(c -> c != null && "22222222".equals(c.getDni()))))
+            .thenAnswer(i -> { Customer c = i.getArgument(0); c.setId(9L); return c; });
+        when(repo.existsByDni("11111111")).thenReturn(true);
+
+        var report = run("""
+            firstName,lastName,dni,email
+            Ana,Perez,11111111,ana@bank.com
+            Luis,Lopez,22222222,luis@bank.com
+            """, CustomerImportService.Format.CSV);
+
+        assertEquals("DNI already exists", report.get(0).error());
+        assertEquals(9L, report.get(1).id());
+    }
+
+    @Test
+    @DisplayName("CSV sin las columnas necesarias se rechaza antes de procesar filas")
+    void importCsv_requiresHeaderColumns() {
+        assertThrows(IllegalArgumentException.class,
+            () -> run("dni,email\n1,a@b.com\n", CustomerImportService.Format.CSV));
+    }
+
+    @Test
+    void splitCsv_handlesQuotesAndEscapes() {
+        assertEquals(List.of("a", "b, c", "d \"e\"", ""),
+            CustomerImportService.splitCsv("a,\"b, c\",\"d \"\"e\"\"\","));
+    }
+
+    private List<ImportRowDto> run(String body, CustomerImportService.Format format) throws Exception {
+        var report = new ArrayList<ImportRowDto>();
+        service.importCustomers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format,
+            report::add);
+        return report;
+    }
+}
@@ -0,0 +1,95 @@
+package com.bank.customerms.service;
+
+import com.bank.customerms.domain.Customer;
+import com.bank.customerms.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class CustomerSearchIndexTest {
+
+    private CustomerRepository repo;
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void init() {
+        repo = mock(CustomerRepository.class);
+        when(repo.findByIdGreaterThan(anyLong(), any(Pageable.class))).thenReturn(List.of(
+            customer(1L, "Ana", "Perez", "12345678"),
+            customer(2L, "Luis", "Lopez", "87654321"),
+            customer(3L, "Lorena", "Ánaya", "11112222")
+        ));
+        index = new CustomerSearchIndex(repo);
+        index.load();
+    }
+
+    @Test
+    @DisplayName("load(): indexa la tabla y marca el índice como listo")
+    void load_indexesAllRows() {
+        assertTrue(index.isReady());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("search(): subcadena sin distinguir mayúsculas ni tildes")
+    void search_matchesSubstringIgnoringCaseAndAccents() {
+        assertEquals(List.of(3L), index.search("ANAY", Sort.by("id")));
+        assertEquals(List.of(2L), index.search("654", Sort.by("id")));
+        assertTrue(index.search("xyz", Sort.by("id")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("search(): sin sort ordena por calidad de coincidencia")
+    void search_ranksByMatchQualityWhenUnsorted() {
+        // "lo": prefijo de apellido (2) y de nombre (3) -> apellido pesa más
+        assertEquals(List.of(2L, 3L), index.search("lo", Sort.unsorted()));
+        // "an": prefijo de nombre (1) y de apellido (3, tras quitar la tilde)
+        assertEquals(List.of(3L, 1L), index.search("an", Sort.unsorted()));
+    }
+
+    @Test
+    @DisplayName("search(): un sort explícito manda sobre la relevancia, como en la BD")
+    void search_honoursExplicitSort() {
+        assertEquals(List.of(3L, 2L), index.search("lo", Sort.by("lastName")));
+        assertEquals(List.of(3L, 2L), index.search("lo", Sort.by(Sort.Direction.DESC, "id")));
+        assertEquals(List.of(2L, 3L), index.search("lo", Sort.by(Sort.Direction.DESC, "email")));
+    }
+
+    @Test
+    @DisplayName("search(): una propiedad no ordenable se rechaza")
+    void search_rejectsUnknownSortProperty() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("lo", Sort.by("phone")));
+    }
+
+    @Test
+    @DisplayName("put()/remove(): reindexa cambios y elimina bajas")
+    void put_and_remove_keepIndexInSync() {
+        index.put(customer(2L, "Luis", "Quispe", "87654321"));
+        assertTrue(index.search("lopez", Sort.unsorted()).isEmpty());
+        assertEquals(List.of(2L), index.search("quis", Sort.unsorted()));
+
+        index.remove(2L);
+        assertTrue(index.search("quis", Sort.unsorted()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("searchAfter(): keyset por id sobre las coincidencias")
+    void searchAfter_filtersAndOrdersById() {
+        assertEquals(List.of(2L), index.searchAfter("lo", 3L, false, 5));
+        assertEquals(List.of(2L, 3L), index.searchAfter("lo", 0L, true, 5));
+    }
+
+    private static Customer customer(Long id, String first, String last, String dni) {
+        return Customer.builder().id(id).firstName(first).lastName(last).dni(dni)
+            .email(first.toLowerCase() + "@bank.com").build();
+    }
+}
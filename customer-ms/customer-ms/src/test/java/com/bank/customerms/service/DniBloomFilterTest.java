@@ -0,0 +1,101 @@
+package com.bank.customerms.service;
+
+import com.bank.customerms.repository.CustomerRepository;
+import com.bank.customerms.repository.CustomerRepository.DniRef;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DniBloomFilterTest {
+
+    private CustomerRepository repo;
+    private DniBloomFilter filter;
+
+    @BeforeEach
+    void init() {
+        repo = mock(CustomerRepository.class);
+        when(repo.findDniRefsAfter(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        when(repo.findDniRefsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+            ref(1L, "12345678"),
+            ref(2L, "87654321")
+        ));
+        filter = new DniBloomFilter(repo, 10_000, 0.01);
+    }
+
+    @Test
+    @DisplayName("antes de cargar responde 'puede estar' para no saltarse la consulta")
+    void mightContain_isTrueUntilLoaded() {
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("00000000"));
+    }
+
+    @Test
+    @DisplayName("load(): los DNI de la tabla y las altas posteriores nunca dan falso negativo")
+    void load_andPut_haveNoFalseNegatives() {
+        filter.load();
+        filter.put("11112222");
+
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightContain("12345678"));
+        assertTrue(filter.mightContain("87654321"));
+        assertTrue(filter.mightContain("11112222"));
+    }
+
+    @Test
+    @DisplayName("la tasa de falsos positivos se mantiene cerca de la configurada")
+    void falsePositiveRate_staysNearTarget() {
+        filter.load();
+        IntStream.range(0, 10_000).forEach(i -> filter.put(String.format("%08d", i)));
+
+        long fp = IntStream.range(50_000_000, 50_100_000)
+            .filter(i -> filter.mightContain(String.valueOf(i)))
+            .count();
+
+        assertTrue(fp < 2_000, "falsos positivos: " + fp); // < 2 % sobre 100k
+        assertTrue(filter.estimatedFpp() < 0.02);
+    }
+
+    @Test
+    @DisplayName("publica tasa estimada/observada, memoria y comprobaciones como métricas")
+    void bindTo_registersMeters() {
+        var registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+        filter.load();
+
+        filter.mightContain("12345678");
+        filter.recordLookup(false);
+
+        assertEquals(1.0, registry.get("customer.dni.bloom.checks").tag("result", "positive")
+            .functionCounter().count());
+        assertEquals(1.0, registry.get("customer.dni.bloom.fpp").tag("kind", "observed")
+            .gauge().value());
+        assertEquals(filter.sizeInBytes(), registry.get("customer.dni.bloom.size").gauge().value());
+        assertTrue(filter.sizeInBytes() > 0);
+        assertEquals(2.0, registry.get("customer.dni.bloom.entries").gauge().value());
+    }
+
+    private static DniRef ref(Long id, String dni) {
+        return new DniRef() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getDni() {
+                return dni;
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Arranca los tres servicios en esta máquina con el perfil "loadtest" (H2 y Mongo en memoria),
+# lanza el generador de carga y los para al terminar.
+#
+#   ./run-local.sh --rate=50 --duration=60s --warmup=10s
+#
+# Los argumentos se pasan tal cual a com.bank.loadtest.LoadTest. Logs en target/services/.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+LOGS="$ROOT/load-test/target/services"
+mkdir -p "$LOGS"
+PIDS=()
+
+cleanup() {
+  for pid in "${PIDS[@]}"; do kill "$pid" 2>/dev/null || true; done
+  wait 2>/dev/null || true
+}
+trap cleanup EXIT
+
+build() {
+  echo "Construyendo $1..."
+  (cd "$ROOT/$1" && mvn -B -q -DskipTests "${@:2}" package)
+}
+
+start() {
+  local dir="$1" name="$2"
+  local jar
+  jar="$(ls "$ROOT/$dir"/target/*.jar | grep -v plain | head -1)"
+  java -jar "$jar" --spring.profiles.active=loadtest > "$LOGS/$name.log" 2>&1 &
+  PIDS+=($!)
+}
+
+wait_for() {
+  local name="$1" port="$2"
+  for _ in $(seq 1 180); do
+    if [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$port/")" != "000" ]; then
+      echo "$name listo en :$port"
+      return
+    fi
+    sleep 1
+  done
+  echo "$name no arrancó; ver $LOGS/$name.log" >&2
+  exit 1
+}
+
+build customer-ms/customer-ms
+build account-ms/account-ms
+build transaction-ms -Pembedded-mongo
+
+start customer-ms/customer-ms customer-ms
+start account-ms/account-ms account-ms
+start transaction-ms transaction-ms
+wait_for customer-ms 8081
+wait_for account-ms 8082
+wait_for transaction-ms 8083
+
+(cd "$ROOT/load-test" && mvn -B -q compile exec:java -Dexec.args="$*")
@@ -0,0 +1,129 @@
+package com.bank.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Un flujo de cliente completo contra los tres servicios. Cada salto se registra por separado
+ * en {@link LatencyReport}; si uno falla, el flujo se corta y el error queda en ese salto.
+ */
+final class CustomerJourney {
+
+    static final String CREATE_CUSTOMER = "customer-ms    POST /api/v1/clientes";
+    static final String OPEN_ACCOUNT = "account-ms     POST /api/v1/cuentas";
+    static final String DEPOSIT = "transaction-ms POST /transacciones/deposito";
+    static final String TRANSFER = "transaction-ms POST /transacciones/transferencia";
+    static final String HISTORY = "transaction-ms GET  /transacciones/historial";
+    static final String JOURNEY = "flujo completo";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String customersUrl;
+    private final String accountsUrl;
+    private final String transactionsUrl;
+    private final Duration timeout;
+    private final HttpClient http;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    CustomerJourney(String customersUrl, String accountsUrl, String transactionsUrl, Duration timeout) {
+        this.customersUrl = customersUrl;
+        this.accountsUrl = accountsUrl;
+        this.transactionsUrl = transactionsUrl;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Ejecuta el flujo de forma asíncrona.
+     *
+     * @param intendedStart instante ({@link System#nanoTime()}) en que el flujo debía empezar
+     */
+    CompletableFuture<Void> start(LatencyReport report, long intendedStart) {
+        long n = sequence.incrementAndGet();
+        ObjectNode customer = JSON.createObjectNode()
+                .put("firstName", "Carga")
+                .put("lastName", "Prueba " + n)
+                .put("dni", "LT" + runId + n)
+                .put("email", "lt" + n + "@bank.test");
+
+        return call(report, CREATE_CUSTOMER, post(customersUrl + "/api/v1/clientes", customer), intendedStart)
+                .thenCompose(c -> {
+                    long customerId = c.get("id").asLong();
+                    return openAccount(report, customerId, "SAVINGS")
+                            .thenCombine(openAccount(report, customerId, "CHECKING"),
+                                    (from, to) -> new String[] {from, to});
+                })
+                .thenCompose(accounts -> call(report, DEPOSIT,
+                        post(transactionsUrl + "/transacciones/deposito", JSON.createObjectNode()
+                                .put("accountNumber", accounts[0])
+                                .put("amount", 50.00)), System.nanoTime())
+                        .thenCompose(d -> call(report, TRANSFER,
+                                post(transactionsUrl + "/transacciones/transferencia", JSON.createObjectNode()
+                                        .put("originAccountNumber", accounts[0])
+                                        .put("destinationAccountNumber", accounts[1])
+                                        .put("amount", 25.00)), System.nanoTime()))
+                        .thenCompose(t -> call(report, HISTORY,
+                                get(transactionsUrl + "/transacciones/historial?numeroCuenta=" + accounts[0]),
+                                System.nanoTime())))
+                .handle((r, e) -> {
+                    if (e == null) {
+                        report.record(JOURNEY, System.nanoTime() - intendedStart);
+                    } else {
+                        report.error(JOURNEY);
+                    }
+                    return null;
+                });
+    }
+
+    private CompletableFuture<String> openAccount(LatencyReport report, long customerId, String type) {
+        var body = JSON.createObjectNode()
+                .put("customerId", customerId)
+                .put("accountType", type)
+                .put("initialDeposit", 100.00);
+        return call(report, OPEN_ACCOUNT, post(accountsUrl + "/api/v1/cuentas", body), System.nanoTime())
+                .thenApply(a -> a.get("accountNumber").asText());
+    }
+
+    private CompletableFuture<JsonNode> call(LatencyReport report, String hop, HttpRequest request, long start) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, e) -> {
+                    long latency = System.nanoTime() - start;
+                    if (e != null || response.statusCode() / 100 != 2) {
+                        report.error(hop);
+                        throw new CompletionException(new IllegalStateException(hop + ": "
+                                + (e != null ? e : response.statusCode() + " " + response.body())));
+                    }
+                    report.record(hop, latency);
+                    try {
+                        return response.body().isEmpty() ? JSON.nullNode() : JSON.readTree(response.body());
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                });
+    }
+
+    private HttpRequest post(String url, JsonNode body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencias por salto en histogramas HdrHistogram (microsegundos, 3 cifras significativas)
+ * y errores por salto.
+ */
+final class LatencyReport {
+
+    private static final List<String> HOPS = List.of(
+            CustomerJourney.CREATE_CUSTOMER,
+            CustomerJourney.OPEN_ACCOUNT,
+            CustomerJourney.DEPOSIT,
+            CustomerJourney.TRANSFER,
+            CustomerJourney.HISTORY,
+            CustomerJourney.JOURNEY);
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+    LatencyReport() {
+        for (String hop : HOPS) {
+            latencies.put(hop, new ConcurrentHistogram(MAX_MICROS, 3));
+            errors.put(hop, new LongAdder());
+        }
+    }
+
+    void record(String hop, long nanos) {
+        latencies.get(hop).recordValue(Math.min(MAX_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    void error(String hop) {
+        errors.get(hop).increment();
+    }
+
+    void print(PrintStream out, Duration duration, long dropped) {
+        double secs = duration.toMillis() / 1000.0;
+        out.printf("%n%-50s %8s %7s %9s %9s %9s %9s %9s%n",
+                "salto", "ok", "errores", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (String hop : HOPS) {
+            Histogram h = latencies.get(hop);
+            out.printf("%-50s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    hop, h.getTotalCount(), errors.get(hop).sum(), h.getTotalCount() / secs,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(99)),
+                    millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+        }
+        if (dropped > 0) {
+            out.printf("%nFlujos descartados por --max-in-flight: %d%n", dropped);
+        }
+    }
+
+    void writeHistograms(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (String hop : HOPS) {
+            String name = hop.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream ps = new PrintStream(Files.newOutputStream(dir.resolve(name)))) {
+                latencies.get(hop).outputPercentileDistribution(ps, 1000.0); // en milisegundos
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
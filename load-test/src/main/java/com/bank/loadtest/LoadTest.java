@@ -0,0 +1,103 @@
+package com.bank.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de modelo abierto para el flujo completo
+ * alta de cliente → apertura de cuentas → depósito → transferencia → historial.
+ *
+ * <p>Los flujos llegan a un ritmo fijo ({@code --rate} por segundo) que no depende de lo que
+ * tarden las respuestas: si los servicios se frenan, los flujos se acumulan en vuelo en vez de
+ * espaciarse. La latencia del primer salto se mide desde el instante en que el flujo debía
+ * empezar, así que la espera en el propio generador también cuenta (sin omisión coordinada).
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.args="--rate=50 --duration=60s --warmup=10s"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() { }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        double rate = Double.parseDouble(opts.getOrDefault("rate", "20"));
+        Duration warmup = duration(opts.getOrDefault("warmup", "10s"));
+        Duration duration = duration(opts.getOrDefault("duration", "60s"));
+        int maxInFlight = Integer.parseInt(opts.getOrDefault("max-in-flight", "2000"));
+        Path out = Path.of(opts.getOrDefault("out", "target/loadtest"));
+
+        var journey = new CustomerJourney(
+                opts.getOrDefault("customers-url", "http://localhost:8081"),
+                opts.getOrDefault("accounts-url", "http://localhost:8082"),
+                opts.getOrDefault("transactions-url", "http://localhost:8083"),
+                Duration.ofSeconds(30));
+
+        System.out.printf("Calentamiento: %s a %.1f flujos/s%n", warmup, rate);
+        run(journey, new LatencyReport(), rate, warmup, maxInFlight);
+
+        System.out.printf("Medición: %s a %.1f flujos/s%n", duration, rate);
+        var report = new LatencyReport();
+        var dropped = run(journey, report, rate, duration, maxInFlight);
+
+        report.print(System.out, duration, dropped);
+        report.writeHistograms(out);
+        System.out.println("Histogramas (.hgrm) en " + out.toAbsolutePath());
+    }
+
+    /**
+     * Lanza flujos a ritmo constante durante {@code duration} y espera a que terminen.
+     *
+     * @return flujos descartados por superar {@code maxInFlight}
+     */
+    private static long run(CustomerJourney journey, LatencyReport report, double rate,
+                            Duration duration, int maxInFlight) throws InterruptedException {
+        var inFlight = new Semaphore(maxInFlight);
+        var dropped = new AtomicLong();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            journey.start(report, intended).whenComplete((r, e) -> inFlight.release());
+        }
+        inFlight.acquire(maxInFlight);
+        return dropped.get();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--") || !a.contains("=")) {
+                throw new IllegalArgumentException("Argumento no válido: " + a + " (usar --clave=valor)");
+            }
+            int eq = a.indexOf('=');
+            opts.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        return opts;
+    }
+
+    private static Duration duration(String s) {
+        return s.endsWith("ms")
+                ? Duration.ofMillis(Long.parseLong(s.substring(0, s.length() - 2)))
+                : Duration.ofSeconds(Long.parseLong(s.endsWith("s") ? s.substring(0, s.length() - 1) : s));
+    }
+}
@@ -0,0 +1,24 @@
+package com.transactionms.config;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Servidor Mongo en memoria para el perfil {@code loadtest}: el driver reactivo se conecta a
+ * él por el puerto configurado como a un mongod real. Sólo se compila con -Pembedded-mongo.
+ */
+@Configuration
+@Profile("loadtest")
+public class EmbeddedMongoConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public MongoServer embeddedMongoServer(@Value("${spring.data.mongodb.port}") int port) {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        server.bind("localhost", port);
+        return server;
+    }
+}
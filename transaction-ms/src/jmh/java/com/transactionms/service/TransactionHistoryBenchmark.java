@@ -0,0 +1,87 @@
+package com.transactionms.service;
+
+import com.transactionms.dto.TransactionDto;
+import com.transactionms.repository.TransactionRepository;
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import com.transactionms.service.impl.TransactionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Ruta de {@code GET /transacciones/historial} sin Mongo: traducción de filtros en
+ * {@link TransactionServiceImpl#history} y la cadena {@code Flux} que convierte cada documento
+ * con {@link TransactionDto#fromEntity}, más la conversión aislada.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionHistoryBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private TransactionServiceImpl service;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        List<Transaction> docs = IntStream.range(0, size)
+                .mapToObj(i -> Transaction.builder()
+                        .id("tx-" + i)
+                        .type(TransactionType.TRANSFER)
+                        .accountFrom("ACC-000000010009")
+                        .accountTo("ACC-000000020008")
+                        .amountCents(1_000L + i)
+                        .date(Instant.parse("2025-01-01T00:00:00Z").plusSeconds(i))
+                        .build())
+                .toList();
+        transaction = docs.get(0);
+        // el repositorio devuelve los documentos ya filtrados, como haría la consulta en Mongo
+        var repository = (TransactionRepository) Proxy.newProxyInstance(
+                TransactionRepository.class.getClassLoader(),
+                new Class<?>[] {TransactionRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("search")) {
+                        return Flux.fromIterable(docs);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        service = new TransactionServiceImpl(repository, null, null, null, null, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public TransactionDto fromEntity() {
+        return TransactionDto.fromEntity(transaction);
+    }
+
+    @Benchmark
+    public List<TransactionDto> history() {
+        return service.history("ACC-000000010009", "transfer",
+                        LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))
+                .map(TransactionDto::fromEntity)
+                .collectList()
+                .block();
+    }
+}
@@ -0,0 +1,40 @@
+package com.transactionms.api;
+
+import com.transactionms.dto.LedgerBalanceDto;
+import com.transactionms.service.LedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/ledger")
+@ConditionalOnProperty(name = "transaction.ledger.enabled", havingValue = "true")
+@Tag(name = "Ledger", description = "Saldos a fecha reconstruidos desde el ledger de transacciones")
+public class LedgerController {
+
+    private final LedgerService ledger;
+
+    public LedgerController(LedgerService ledger) {
+        this.ledger = ledger;
+    }
+
+    @Operation(summary = "Saldo de una cuenta a una fecha (snapshot + replay)")
+    @GetMapping("/{numeroCuenta}/saldo")
+    public Mono<LedgerBalanceDto> balance(
+            @PathVariable String numeroCuenta,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant fecha) {
+        return ledger.balanceAt(numeroCuenta, fecha == null ? Instant.now() : fecha)
+                .map(LedgerBalanceDto::from);
+    }
+
+    @Operation(summary = "Generar los snapshots pendientes (o reconstruirlos todos con rebuild=true)")
+    @PostMapping("/snapshots")
+    public Mono<LedgerService.SnapshotRun> snapshots(@RequestParam(defaultValue = "false") boolean rebuild) {
+        return ledger.snapshotAll(rebuild);
+    }
+}
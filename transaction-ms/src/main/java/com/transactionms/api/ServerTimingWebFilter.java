@@ -0,0 +1,30 @@
+package com.transactionms.api;
+
+import com.transactionms.util.ServerTiming;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Abre un {@link ServerTiming} por petición y escribe {@code Server-Timing} justo antes de
+ * confirmar la respuesta. En los endpoints en streaming (NDJSON) la cabecera sólo recoge lo
+ * ocurrido antes del primer elemento. Se desactiva con {@code server-timing.enabled=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "server-timing.enabled", matchIfMissing = true)
+public class ServerTimingWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerTiming timing = new ServerTiming();
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().add(ServerTiming.HEADER, timing.header());
+            return Mono.empty();
+        });
+        return chain.filter(exchange).contextWrite(Context.of(ServerTiming.class, timing));
+    }
+}
@@ -0,0 +1,43 @@
+package com.transactionms.api;
+
+import com.transactionms.dto.TransactionSummaryDto;
+import com.transactionms.service.RollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/transacciones/resumen")
+@ConditionalOnProperty(name = "transaction.rollups.enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Resumen", description = "Totales por tipo y rango de fechas desde los acumulados diarios")
+public class SummaryController {
+
+    private final RollupService rollups;
+
+    public SummaryController(RollupService rollups) {
+        this.rollups = rollups;
+    }
+
+    @Operation(summary = "Totales de una cuenta por tipo entre dos fechas (inclusive)")
+    @GetMapping
+    public Mono<TransactionSummaryDto> summary(
+            @RequestParam String numeroCuenta,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta) {
+        return rollups.summary(numeroCuenta, fechaDesde, fechaHasta)
+                .map(TransactionSummaryDto::from);
+    }
+
+    @Operation(summary = "Recalcular los acumulados diarios desde las transacciones")
+    @PostMapping("/reconstruir")
+    public Mono<RollupService.RebuildRun> rebuild(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta) {
+        return rollups.rebuild(fechaDesde, fechaHasta);
+    }
+}
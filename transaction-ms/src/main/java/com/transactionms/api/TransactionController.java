@@ -4,10 +4,13 @@ import com.transactionms.dto.DepositRequestDto;
 import com.transactionms.dto.TransactionDto;
 import com.transactionms.dto.TransferRequestDto;
 import com.transactionms.dto.WithdrawalRequestDto;
+import com.transactionms.service.IdempotencyStore;
 import com.transactionms.service.TransactionService;
+import com.transactionms.util.ServerTiming;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -19,31 +22,49 @@ import java.time.LocalDate;
 @Tag(name = "Transacciones", description = "Endpoints para registrar y consultar transacciones")
 public class TransactionController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TransactionService service;
+    private final IdempotencyStore idempotency;
 
-    public TransactionController(TransactionService service) {
+    public TransactionController(TransactionService service, IdempotencyStore idempotency) {
         this.service = service;
+        this.idempotency = idempotency;
     }
 
     @Operation(summary = "Registrar un depósito")
     @PostMapping("/deposito")
-    public Mono<TransactionDto> deposit(@RequestBody DepositRequestDto request) {
-        return service.deposit(request.getAccountNumber(), request.getAmount())
-                .map(TransactionDto::fromEntity);
+    public Mono<TransactionDto> deposit(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody DepositRequestDto request) {
+        String fingerprint = "deposito:" + request.getAccountNumber() + ":" + request.getAmountCents();
+        return idempotency.execute(idempotencyKey, fingerprint,
+                        () -> service.deposit(request.getAccountNumber(), request.getAmountCents()))
+                .transform(ServerTiming.map("mapping", TransactionDto::fromEntity));
     }
 
     @Operation(summary = "Registrar un retiro")
     @PostMapping("/retiro")
-    public Mono<TransactionDto> withdraw(@RequestBody WithdrawalRequestDto request) {
-        return service.withdraw(request.getAccountNumber(), request.getAmount())
-                .map(TransactionDto::fromEntity);
+    public Mono<TransactionDto> withdraw(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody WithdrawalRequestDto request) {
+        String fingerprint = "retiro:" + request.getAccountNumber() + ":" + request.getAmountCents();
+        return idempotency.execute(idempotencyKey, fingerprint,
+                        () -> service.withdraw(request.getAccountNumber(), request.getAmountCents()))
+                .transform(ServerTiming.map("mapping", TransactionDto::fromEntity));
     }
 
     @Operation(summary = "Registrar una transferencia")
     @PostMapping("/transferencia")
-    public Mono<TransactionDto> transfer(@RequestBody TransferRequestDto request) {
-        return service.transfer(request.getOriginAccountNumber(), request.getDestinationAccountNumber(), request.getAmount())
-                .map(TransactionDto::fromEntity);
+    public Mono<TransactionDto> transfer(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody TransferRequestDto request) {
+        String fingerprint = "transferencia:" + request.getOriginAccountNumber() + ":"
+                + request.getDestinationAccountNumber() + ":" + request.getAmountCents();
+        return idempotency.execute(idempotencyKey, fingerprint,
+                        () -> service.transfer(request.getOriginAccountNumber(),
+                                request.getDestinationAccountNumber(), request.getAmountCents()))
+                .transform(ServerTiming.map("mapping", TransactionDto::fromEntity));
     }
 
     @Operation(summary = "Consultar historial de transacciones")
@@ -56,5 +77,16 @@ public class TransactionController {
         return service.history(numeroCuenta, tipo, fechaDesde, fechaHasta)
                 .map(TransactionDto::fromEntity);
     }
-}
 
+    @Operation(summary = "Exportar historial de transacciones (NDJSON, en streaming)")
+    @GetMapping(value = "/historial/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TransactionDto> exportHistory(
+            @RequestParam(required = false) String numeroCuenta,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta) {
+        // una línea JSON por transacción; se escribe según la demanda del cliente
+        return service.export(numeroCuenta, tipo, fechaDesde, fechaHasta)
+                .map(TransactionDto::fromEntity);
+    }
+}
@@ -1,61 +1,157 @@
 package com.transactionms.client;
 
 import com.transactionms.client.dto.AccountDto;
+import com.transactionms.client.dto.AccountRef;
 import com.transactionms.client.dto.AmountDto;
+import com.transactionms.util.ServerTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 @Component
 @RequiredArgsConstructor
-public class AccountClient {
+public class AccountClient implements MeterBinder {
 
     private final WebClient webClient;
+    private final AccountLookupCache lookupCache;
+
+    // GETs idénticos concurrentes comparten una sola llamada a account-ms (configurable por método)
+    private final SingleFlight<Long, AccountDto> getAccountFlight = new SingleFlight<>("getAccount");
+    private final SingleFlight<String, AccountDto> getByNumberFlight = new SingleFlight<>("getByAccountNumber");
+
+    @Value("${account.single-flight.get-account:true}")
+    private boolean coalesceGetAccount;
+
+    @Value("${account.single-flight.get-by-account-number:true}")
+    private boolean coalesceGetByNumber;
+
+    /**
+     * Id, tipo y cliente de la cuenta, desde {@link AccountLookupCache} si está vigente.
+     * Vacío si account-ms responde 404. No incluye saldo: las reglas de saldo las aplica account-ms.
+     */
+    public Mono<AccountRef> lookup(String accountNumber) {
+        return Mono.defer(() -> {
+            AccountRef cached = lookupCache.get(accountNumber);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return lookupFresh(accountNumber);
+        });
+    }
+
+    /**
+     * Como {@link #lookup} pero siempre pregunta a account-ms (y refresca la caché), para las
+     * comprobaciones que no pueden fiarse de una cuenta que quizá ya no existe.
+     */
+    public Mono<AccountRef> lookupFresh(String accountNumber) {
+        return getByAccountNumber(accountNumber)
+                .map(AccountRef::from)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
 
     public Mono<AccountDto> getAccount(Long id) {
-        return webClient.get()
-                .uri("/{id}", id)
-                .retrieve()
-                .bodyToMono(AccountDto.class);
+        return coalesceGetAccount
+                ? getAccountFlight.execute(id, () -> fetchAccount(id))
+                : fetchAccount(id);
+    }
+
+    private Mono<AccountDto> fetchAccount(Long id) {
+        return exchange("get", webClient.get()
+                .uri("/{id}", id))
+                .doOnNext(this::refresh);
     }
 
-    public Mono<AccountDto> deposit(Long id, Double amount) {
-        return webClient.put()
+    public Mono<AccountDto> deposit(Long id, long amountCents) {
+        return exchange("deposit", webClient.put()
                 .uri("/{id}/depositar", id)
-                .bodyValue(new AmountDto(amount))
-                .retrieve()
-                .bodyToMono(AccountDto.class);
+                .bodyValue(new AmountDto(amountCents)))
+                .doOnNext(this::refresh);
     }
 
-    public Mono<AccountDto> withdraw(Long id, Double amount) {
-        return webClient.put()
+    public Mono<AccountDto> withdraw(Long id, long amountCents) {
+        return exchange("withdraw", webClient.put()
                 .uri("/{id}/retirar", id)
-                .bodyValue(new AmountDto(amount))
-                .retrieve()
-                .bodyToMono(AccountDto.class);
+                .bodyValue(new AmountDto(amountCents)))
+                .doOnNext(this::refresh);
     }
 
     public Mono<AccountDto> getByAccountNumber(String accountNumber) {
-        return webClient.get()
-                .uri("/ByNumber/{accountNumber}", accountNumber)
-                .retrieve()
-                .bodyToMono(AccountDto.class);
+        return coalesceGetByNumber
+                ? getByNumberFlight.execute(accountNumber, () -> fetchByAccountNumber(accountNumber))
+                : fetchByAccountNumber(accountNumber);
     }
 
-    public Mono<AccountDto> depositByNumberAccount(String accountNumber, Double amount) {
-        return webClient.put()
+    private Mono<AccountDto> fetchByAccountNumber(String accountNumber) {
+        return exchange("lookup", webClient.get()
+                .uri("/ByNumber/{accountNumber}", accountNumber))
+                .doOnNext(this::refresh)
+                .doOnError(WebClientResponseException.NotFound.class,
+                        e -> lookupCache.invalidate(accountNumber));
+    }
+
+    public Mono<AccountDto> depositByNumberAccount(String accountNumber, long amountCents) {
+        return exchange("deposit", webClient.put()
                 .uri("/ByNumber/{accountNumber}/depositar", accountNumber)
-                .bodyValue(new AmountDto(amount))
-                .retrieve()
-                .bodyToMono(AccountDto.class);
+                .bodyValue(new AmountDto(amountCents)))
+                .doOnNext(this::refresh)
+                .doOnError(WebClientResponseException.NotFound.class,
+                        e -> lookupCache.invalidate(accountNumber));
     }
 
-    public Mono<AccountDto> withdrawByAccountNumber(String accountNumber, Double amount) {
-        return webClient.put()
+    public Mono<AccountDto> withdrawByAccountNumber(String accountNumber, long amountCents) {
+        return exchange("withdraw", webClient.put()
                 .uri("/ByNumber/{accountNumber}/retirar", accountNumber)
-                .bodyValue(new AmountDto(amount))
-                .retrieve()
-                .bodyToMono(AccountDto.class);
+                .bodyValue(new AmountDto(amountCents)))
+                .doOnNext(this::refresh)
+                .doOnError(WebClientResponseException.NotFound.class,
+                        e -> lookupCache.invalidate(accountNumber));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        getAccountFlight.bindTo(registry);
+        getByNumberFlight.bindTo(registry);
+    }
+
+    /**
+     * Ejecuta la llamada y, dentro de una petición, la registra en {@link ServerTiming} como
+     * {@code account-ms.<hop>} junto con las fases que devuelve account-ms en su cabecera
+     * ({@code account-ms.<hop>.db}, ...). Con single-flight sólo la petición que hace la
+     * llamada la ve en su desglose.
+     */
+    private Mono<AccountDto> exchange(String hop, WebClient.RequestHeadersSpec<?> request) {
+        String name = "account-ms." + hop;
+        return Mono.deferContextual(ctx -> {
+            Mono<ResponseEntity<AccountDto>> call = request.retrieve().toEntity(AccountDto.class);
+            ServerTiming timing = ServerTiming.from(ctx);
+            if (timing == null) {
+                return call.mapNotNull(ResponseEntity::getBody);
+            }
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(response -> {
+                        if (response != null) {
+                            timing.merge(name, response.getHeaders().get(ServerTiming.HEADER));
+                        }
+                        timing.record(name, System.nanoTime() - start);
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof WebClientResponseException rejected) {
+                            timing.merge(name, rejected.getHeaders().get(ServerTiming.HEADER));
+                        }
+                        timing.record(name, System.nanoTime() - start);
+                    })
+                    .mapNotNull(ResponseEntity::getBody);
+        });
+    }
+
+    private void refresh(AccountDto dto) {
+        lookupCache.put(AccountRef.from(dto));
     }
 }
@@ -0,0 +1,105 @@
+package com.transactionms.client;
+
+import com.transactionms.client.dto.AccountRef;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada con TTL de número de cuenta -> {@link AccountRef} (id, tipo, cliente).
+ *
+ * <p>Las respuestas de account-ms que traen la cuenta refrescan la entrada y un 404 la invalida.
+ * Publica las métricas estándar de Micrometer {@code cache.gets{result=hit|miss}},
+ * {@code cache.evictions} y {@code cache.size} con {@code cache=accountLookup}.
+ */
+@Component
+public class AccountLookupCache implements MeterBinder {
+
+    static final String NAME = "accountLookup";
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public AccountLookupCache(@Value("${account.lookup-cache.ttl:60s}") Duration ttl,
+                              @Value("${account.lookup-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /** Referencia cacheada y vigente, o null (cuenta como fallo). */
+    public AccountRef get(String accountNumber) {
+        Entry e = entries.get(accountNumber);
+        if (e != null && System.nanoTime() - e.expiresAt() < 0) {
+            hits.increment();
+            return e.ref();
+        }
+        if (e != null && entries.remove(accountNumber, e)) {
+            evictions.increment();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(AccountRef ref) {
+        if (ref == null || ref.accountNumber() == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (entries.size() >= maxEntries && !entries.containsKey(ref.accountNumber())) {
+            makeRoom(now);
+        }
+        entries.put(ref.accountNumber(), new Entry(ref, now + ttlNanos));
+    }
+
+    public void invalidate(String accountNumber) {
+        entries.remove(accountNumber);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", NAME).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", NAME).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("cache", NAME).register(registry);
+        Gauge.builder("cache.size", entries, ConcurrentHashMap::size)
+                .tag("cache", NAME).register(registry);
+    }
+
+    private void makeRoom(long now) {
+        // primero las caducadas; si no basta, cualquiera (la caché sólo ahorra llamadas)
+        entries.entrySet().removeIf(en -> {
+            boolean expired = now - en.getValue().expiresAt() >= 0;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry(AccountRef ref, long expiresAt) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.transactionms.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicación de llamadas en vuelo ("single-flight"): mientras una llamada con la misma
+ * clave no ha terminado, las peticiones concurrentes se suscriben al mismo {@link Mono}
+ * en lugar de lanzar otra. Al terminar (valor, vacío o error) la clave se libera, así que
+ * nunca se sirve un resultado ya terminado a peticiones posteriores.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String method;
+    private final ConcurrentHashMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public SingleFlight(String method) {
+        this.method = method;
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<V>> self = new AtomicReference<>();
+            Mono<V> shared = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .cache();
+            self.set(shared);
+            Mono<V> existing = inFlight.putIfAbsent(key, shared);
+            if (existing != null) {
+                collapsed.increment();
+                return existing;
+            }
+            executed.increment();
+            return shared;
+        });
+    }
+
+    public long collapsedCount() {
+        return collapsed.sum();
+    }
+
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("account.client.calls", executed, LongAdder::doubleValue)
+                .tag("method", method).tag("result", "executed").register(registry);
+        FunctionCounter.builder("account.client.calls", collapsed, LongAdder::doubleValue)
+                .tag("method", method).tag("result", "collapsed").register(registry);
+    }
+}
@@ -1,12 +1,17 @@
 package com.transactionms.client.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.transactionms.util.CentsJson;
 import lombok.Data;
 
 @Data
 public class AccountDto {
     private Long id;
     private String accountNumber;
-    private Double balance;
+    @JsonProperty("balance")
+    @JsonDeserialize(using = CentsJson.Deserializer.class)
+    private long balanceCents;
     private String accountType; // "SAVINGS" | "CHECKING"
     private Long customerId;
 }
@@ -0,0 +1,12 @@
+package com.transactionms.client.dto;
+
+/**
+ * Identidad de una cuenta de account-ms: lo único que transaction-ms cachea.
+ * El saldo no forma parte de la referencia; lo decide siempre account-ms.
+ */
+public record AccountRef(Long id, String accountNumber, String accountType, Long customerId) {
+
+    public static AccountRef from(AccountDto dto) {
+        return new AccountRef(dto.getId(), dto.getAccountNumber(), dto.getAccountType(), dto.getCustomerId());
+    }
+}
@@ -1,5 +1,8 @@
 package com.transactionms.client.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.transactionms.util.CentsJson;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,5 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class AmountDto {
-    private Double amount;
+    @JsonProperty("amount")
+    @JsonSerialize(using = CentsJson.Serializer.class)
+    private long amountCents;
 }
@@ -3,7 +3,10 @@ package com.transactionms.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class WebClientConfig {
@@ -11,8 +14,21 @@ public class WebClientConfig {
     @Value("${account.service.url}")
     private String accountServiceUrl;
 
+    @Value("${account.service.max-connections:100}")
+    private int maxConnections;
+
+    /**
+     * Pool de conexiones propio hacia account-ms con métricas de Reactor Netty
+     * ({@code reactor.netty.connection.provider.*}: activas, ociosas y en cola de espera).
+     */
     @Bean
     public WebClient webClient(WebClient.Builder builder) {
-        return builder.baseUrl(accountServiceUrl).build();
+        ConnectionProvider pool = ConnectionProvider.builder("account-ms")
+                .maxConnections(maxConnections)
+                .metrics(true)
+                .build();
+        return builder.baseUrl(accountServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(pool)))
+                .build();
     }
 }
@@ -1,9 +1,14 @@
 package com.transactionms.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.transactionms.util.CentsJson;
 import lombok.Data;
 
 @Data
 public class DepositRequestDto {
     private String accountNumber;
-    private Double amount;
+    @JsonProperty("amount")
+    @JsonDeserialize(using = CentsJson.Deserializer.class)
+    private long amountCents;
 }
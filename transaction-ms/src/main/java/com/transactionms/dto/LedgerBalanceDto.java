@@ -0,0 +1,38 @@
+package com.transactionms.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.transactionms.service.LedgerService;
+import com.transactionms.util.CentsJson;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerBalanceDto {
+    private String accountNumber;
+    private Instant asOf;
+    @JsonProperty("balance")
+    @JsonSerialize(using = CentsJson.Serializer.class)
+    private long balanceCents;
+    private long sequence;          // último movimiento aplicado
+    private long snapshotSequence;  // snapshot de partida (0 = saldo de apertura)
+    private long replayed;          // movimientos aplicados sobre el snapshot
+
+    public static LedgerBalanceDto from(LedgerService.Balance balance) {
+        return LedgerBalanceDto.builder()
+                .accountNumber(balance.accountNumber())
+                .asOf(balance.asOf())
+                .balanceCents(balance.balanceCents())
+                .sequence(balance.sequence())
+                .snapshotSequence(balance.snapshotSequence())
+                .replayed(balance.replayed())
+                .build();
+    }
+}
@@ -1,7 +1,11 @@
 package com.transactionms.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.transactionms.repository.model.Transaction;
 import com.transactionms.repository.model.TransactionType;
+import com.transactionms.util.CentsJson;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,8 +22,15 @@ public class TransactionDto {
     private TransactionType type;
     private String accountFrom;
     private String accountTo;
-    private Double amount;
+    @JsonProperty("amount")
+    @JsonSerialize(using = CentsJson.Serializer.class)
+    private long amountCents;
     private Instant date;
+    // sólo en modo ledger
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long sequenceFrom;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long sequenceTo;
 
     // 🔹 Conversión de Entity → DTO
     public static TransactionDto fromEntity(Transaction tx) {
@@ -28,8 +39,10 @@ public class TransactionDto {
                 .type(tx.getType())
                 .accountFrom(tx.getAccountFrom())
                 .accountTo(tx.getAccountTo())
-                .amount(tx.getAmount())
+                .amountCents(tx.getAmountCents())
                 .date(tx.getDate())
+                .sequenceFrom(tx.getSequenceFrom())
+                .sequenceTo(tx.getSequenceTo())
                 .build();
     }
 }
@@ -0,0 +1,64 @@
+package com.transactionms.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.transactionms.service.RollupService;
+import com.transactionms.util.CentsJson;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionSummaryDto {
+    private String accountNumber;
+    private LocalDate fechaDesde;
+    private LocalDate fechaHasta;
+    private long days;              // días con movimientos leídos
+    private Map<String, TypeTotals> types;
+    @JsonProperty("credit")
+    @JsonSerialize(using = CentsJson.Serializer.class)
+    private long creditCents;       // entradas en la cuenta
+    @JsonProperty("debit")
+    @JsonSerialize(using = CentsJson.Serializer.class)
+    private long debitCents;        // salidas de la cuenta
+    @JsonProperty("net")
+    @JsonSerialize(using = CentsJson.Serializer.class)
+    private long netCents;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TypeTotals {
+        private long count;
+        @JsonProperty("credit")
+        @JsonSerialize(using = CentsJson.Serializer.class)
+        private long creditCents;
+        @JsonProperty("debit")
+        @JsonSerialize(using = CentsJson.Serializer.class)
+        private long debitCents;
+    }
+
+    public static TransactionSummaryDto from(RollupService.Summary summary) {
+        Map<String, TypeTotals> types = new LinkedHashMap<>();
+        summary.types().forEach((type, t) ->
+                types.put(type, new TypeTotals(t.getCount(), t.getCreditCents(), t.getDebitCents())));
+        return TransactionSummaryDto.builder()
+                .accountNumber(summary.accountNumber())
+                .fechaDesde(summary.from())
+                .fechaHasta(summary.to())
+                .days(summary.days())
+                .types(types)
+                .creditCents(summary.creditCents())
+                .debitCents(summary.debitCents())
+                .netCents(summary.creditCents() - summary.debitCents())
+                .build();
+    }
+}
@@ -1,10 +1,15 @@
 package com.transactionms.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.transactionms.util.CentsJson;
 import lombok.Data;
 
 @Data
 public class TransferRequestDto {
     private String originAccountNumber;
     private String destinationAccountNumber;
-    private Double amount;
+    @JsonProperty("amount")
+    @JsonDeserialize(using = CentsJson.Deserializer.class)
+    private long amountCents;
 }
\ No newline at end of file
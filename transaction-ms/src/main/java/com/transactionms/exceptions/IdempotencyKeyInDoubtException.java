@@ -0,0 +1,12 @@
+package com.transactionms.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInDoubtException extends RuntimeException {
+    public IdempotencyKeyInDoubtException(String key, String failure) {
+        super("La operación con Idempotency-Key " + key + " falló con un resultado incierto ("
+                + failure + "); consulte el historial antes de repetirla con otra clave");
+    }
+}
@@ -0,0 +1,11 @@
+package com.transactionms.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String key) {
+        super("La operación con Idempotency-Key " + key + " sigue en curso; reintente más tarde");
+    }
+}
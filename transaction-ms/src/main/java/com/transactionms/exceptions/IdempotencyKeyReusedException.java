@@ -0,0 +1,11 @@
+package com.transactionms.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedException extends InvalidTransactionException {
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key " + key + " ya se usó con otra operación");
+    }
+}
@@ -0,0 +1,7 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.IdempotencyRecord;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface IdempotencyRepository extends ReactiveMongoRepository<IdempotencyRecord, String> {
+}
@@ -0,0 +1,107 @@
+package com.transactionms.repository;
+
+import com.mongodb.client.result.DeleteResult;
+import com.transactionms.repository.model.BalanceSnapshot;
+import com.transactionms.repository.model.LedgerAccount;
+import com.transactionms.repository.model.LedgerEntry;
+import com.transactionms.repository.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * Acceso a Mongo del modo ledger: secuencias por cuenta ({@code ledger_accounts}), movimientos
+ * de una cuenta en orden de secuencia ({@code transactions}) y snapshots de saldo
+ * ({@code balance_snapshots}).
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerRepository {
+
+    private static final int REPLAY_BATCH_SIZE = 1000;
+
+    private final ReactiveMongoTemplate mongo;
+
+    /**
+     * Abre el ledger de {@code accountNumber} con secuencia 0 y {@code openingBalanceCents}. Si
+     * otro nodo lo abrió antes, devuelve esa cabecera y el saldo indicado se descarta.
+     */
+    public Mono<LedgerAccount> open(String accountNumber, long openingBalanceCents) {
+        return mongo.insert(new LedgerAccount(accountNumber, 0L, openingBalanceCents))
+                .onErrorResume(DuplicateKeyException.class, e -> account(accountNumber));
+    }
+
+    /** Siguiente secuencia del ledger de {@code accountNumber}; vacío si no está abierto. */
+    public Mono<Long> nextSequence(String accountNumber) {
+        return mongo.findAndModify(
+                        Query.query(Criteria.where("_id").is(accountNumber)),
+                        new Update().inc("seq", 1L),
+                        FindAndModifyOptions.options().returnNew(true),
+                        LedgerAccount.class)
+                .map(LedgerAccount::getSeq);
+    }
+
+    public Mono<LedgerAccount> account(String accountNumber) {
+        return mongo.findById(accountNumber, LedgerAccount.class);
+    }
+
+    /** Todas las cuentas con ledger, leídas del cursor por lotes. */
+    public Flux<LedgerAccount> accounts() {
+        return mongo.find(new Query().cursorBatchSize(REPLAY_BATCH_SIZE), LedgerAccount.class)
+                .limitRate(REPLAY_BATCH_SIZE);
+    }
+
+    /**
+     * Movimientos de {@code accountNumber} con secuencia mayor que {@code afterSeq}, en orden de
+     * secuencia. Une dos recorridos ordenados por índice (la cuenta como origen y como destino)
+     * y sólo trae los campos necesarios para el replay.
+     */
+    public Flux<LedgerEntry> entriesAfter(String accountNumber, long afterSeq) {
+        Flux<LedgerEntry> debits = side(accountNumber, afterSeq, "accountFrom", "sequenceFrom")
+                .map(tx -> new LedgerEntry(tx.getSequenceFrom(), -tx.getAmountCents(), tx.getDate()));
+        Flux<LedgerEntry> credits = side(accountNumber, afterSeq, "accountTo", "sequenceTo")
+                .map(tx -> new LedgerEntry(tx.getSequenceTo(), tx.getAmountCents(), tx.getDate()));
+        return Flux.mergeComparing(Comparator.comparingLong(LedgerEntry::seq), debits, credits);
+    }
+
+    private Flux<Transaction> side(String accountNumber, long afterSeq, String account, String sequence) {
+        Query query = Query.query(Criteria.where(account).is(accountNumber).and(sequence).gt(afterSeq))
+                .with(Sort.by(Sort.Direction.ASC, sequence))
+                .cursorBatchSize(REPLAY_BATCH_SIZE);
+        query.fields().include(sequence, "amountCents", "date");
+        return mongo.find(query, Transaction.class).limitRate(REPLAY_BATCH_SIZE);
+    }
+
+    /**
+     * Snapshot más reciente de la cuenta con fecha no posterior a {@code notAfter}
+     * (null = el último).
+     */
+    public Mono<BalanceSnapshot> latestSnapshot(String accountNumber, Instant notAfter) {
+        Criteria criteria = Criteria.where("accountNumber").is(accountNumber);
+        if (notAfter != null) {
+            criteria = criteria.and("date").lte(notAfter);
+        }
+        Query query = Query.query(criteria).with(Sort.by(Sort.Direction.DESC, "seq")).limit(1);
+        return mongo.findOne(query, BalanceSnapshot.class);
+    }
+
+    public Mono<BalanceSnapshot> saveSnapshot(BalanceSnapshot snapshot) {
+        return mongo.save(snapshot);
+    }
+
+    public Mono<Long> deleteSnapshots(String accountNumber) {
+        return mongo.remove(Query.query(Criteria.where("accountNumber").is(accountNumber)), BalanceSnapshot.class)
+                .map(DeleteResult::getDeletedCount);
+    }
+}
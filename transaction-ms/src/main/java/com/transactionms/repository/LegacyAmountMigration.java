@@ -0,0 +1,78 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveAfterConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Documentos de {@code transactions} anteriores a los céntimos, que guardan {@code amount}
+ * (double) en lugar de {@code amountCents}.
+ *
+ * <p>Al arrancar se migran en Mongo ({@code amountCents = round(amount * 100)} y se quita
+ * {@code amount}), para que las consultas y agregaciones sobre {@code amountCents} los cuenten.
+ * Mientras tanto, o si un nodo antiguo sigue escribiéndolos, la lectura usa {@code amount}
+ * cuando falta {@code amountCents}.
+ */
+@Slf4j
+@Component
+public class LegacyAmountMigration implements ReactiveAfterConvertCallback<Transaction> {
+
+    static final String LEGACY_FIELD = "amount";
+
+    /** Diferido: el template depende del conversor, que a su vez registra este callback. */
+    private final ObjectProvider<ReactiveMongoTemplate> mongo;
+
+    public LegacyAmountMigration(ObjectProvider<ReactiveMongoTemplate> mongo) {
+        this.mongo = mongo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrateAll().subscribe(
+                migrated -> {
+                    if (migrated > 0) {
+                        log.info("Transacciones migradas a amountCents: {}", migrated);
+                    }
+                },
+                e -> log.warn("Migración de amount a amountCents fallida: {}", e.toString()));
+    }
+
+    Mono<Long> migrateAll() {
+        Query legacy = Query.query(Criteria.where("amountCents").exists(false)
+                .and(LEGACY_FIELD).exists(true));
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("amountCents").toValue(ConvertOperators.ToLong.toLong(
+                        ArithmeticOperators.Round.roundValueOf(
+                                ArithmeticOperators.Multiply.valueOf(LEGACY_FIELD).multiplyBy(100))))
+                .unset(LEGACY_FIELD);
+        return mongo.getObject().updateMulti(legacy, update, Transaction.class)
+                .map(result -> result.getModifiedCount());
+    }
+
+    @Override
+    public Publisher<Transaction> onAfterConvert(Transaction entity, Document document, String collection) {
+        Object legacy = document.get(LEGACY_FIELD);
+        if (!document.containsKey("amountCents") && legacy instanceof Number amount) {
+            entity.setAmountCents(BigDecimal.valueOf(amount.doubleValue())
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact());
+        }
+        return Mono.just(entity);
+    }
+}
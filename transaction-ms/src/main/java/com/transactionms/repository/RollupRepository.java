@@ -0,0 +1,163 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.DailyRollup;
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.ReplaceOptions;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso a Mongo de los totales diarios por cuenta ({@code daily_rollups}): incremento por
+ * transacción, lectura de un rango de días y recálculo de un día desde {@code transactions}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RollupRepository {
+
+    private static final String DEBIT = "debitCents";
+    private static final String CREDIT = "creditCents";
+    private static final List<String> TYPES = Arrays.stream(TransactionType.values()).map(Enum::name).toList();
+
+    private final ReactiveMongoTemplate mongo;
+
+    public static String day(Instant date) {
+        return LocalDate.ofInstant(date, ZoneOffset.UTC).toString();
+    }
+
+    /** Suma {@code tx} al día de la cuenta origen (salida) y al de la destino (entrada). */
+    public Mono<Void> add(Transaction tx) {
+        String day = day(tx.getDate());
+        String type = tx.getType().name();
+        Mono<Void> debit = tx.getAccountFrom() == null ? Mono.empty()
+                : inc(tx.getAccountFrom(), day, type, DEBIT, tx.getAmountCents());
+        Mono<Void> credit = tx.getAccountTo() == null ? Mono.empty()
+                : inc(tx.getAccountTo(), day, type, CREDIT, tx.getAmountCents());
+        return Mono.when(debit, credit);
+    }
+
+    private Mono<Void> inc(String accountNumber, String day, String type, String side, long amountCents) {
+        String totals = "types." + type + ".";
+        return mongo.upsert(
+                        Query.query(Criteria.where("_id").is(DailyRollup.id(accountNumber, day))),
+                        new Update()
+                                .setOnInsert("accountNumber", accountNumber)
+                                .setOnInsert("day", day)
+                                .inc(totals + "count", 1L)
+                                .inc(totals + side, amountCents),
+                        DailyRollup.class)
+                // primer movimiento del día en dos peticiones a la vez: el upsert que pierde la
+                // inserción falla por _id duplicado y, repetido, ya encuentra el documento
+                .retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance))
+                .then();
+    }
+
+    /** Días de la cuenta entre {@code fromDay} y {@code toDay} inclusive (null = sin límite), en orden. */
+    public Flux<DailyRollup> range(String accountNumber, String fromDay, String toDay) {
+        Criteria criteria = Criteria.where("accountNumber").is(accountNumber);
+        if (fromDay != null || toDay != null) {
+            Criteria day = criteria.and("day");
+            if (fromDay != null) {
+                day.gte(fromDay);
+            }
+            if (toDay != null) {
+                day.lte(toDay);
+            }
+        }
+        return mongo.find(Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "day")), DailyRollup.class);
+    }
+
+    /** Fecha de la transacción más antigua, si hay alguna. */
+    public Mono<Instant> firstTransactionDate() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "date")).limit(1);
+        query.fields().include("date");
+        return mongo.findOne(query, Transaction.class).mapNotNull(Transaction::getDate);
+    }
+
+    /**
+     * Totales de {@code day} calculados en Mongo desde las transacciones: dos agregaciones
+     * (cuenta como origen y como destino) agrupadas por cuenta y tipo.
+     */
+    public Flux<DailyRollup> aggregate(LocalDate day) {
+        Instant from = day.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant to = day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        String dayKey = day.toString();
+        return Flux.concat(
+                        side("accountFrom", from, to).map(doc -> part(doc, "accountFrom", DEBIT, dayKey)),
+                        side("accountTo", from, to).map(doc -> part(doc, "accountTo", CREDIT, dayKey)))
+                .collect(LinkedHashMap<String, DailyRollup>::new, (byId, part) -> byId.merge(part.getId(), part,
+                        (a, b) -> {
+                            b.getTypes().forEach((type, t) -> a.getTypes().merge(type, t, DailyRollup.Totals::plus));
+                            return a;
+                        }))
+                .flatMapIterable(Map::values);
+    }
+
+    private Flux<Document> side(String account, Instant from, Instant to) {
+        // el $in sobre todos los tipos deja acotar el rango de fechas con el índice (type, date)
+        Criteria criteria = Criteria.where("type").in(TYPES)
+                .and("date").gte(from).lt(to)
+                .and(account).ne(null);
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group(account, "type").count().as("count").sum("amountCents").as("amountCents"));
+        return mongo.aggregate(aggregation, Transaction.class, Document.class);
+    }
+
+    private static DailyRollup part(Document doc, String account, String side, String day) {
+        Document key = doc.get("_id", Document.class);
+        String accountNumber = key.getString(account);
+        long count = ((Number) doc.get("count")).longValue();
+        long amount = ((Number) doc.get("amountCents")).longValue();
+        DailyRollup.Totals totals = DEBIT.equals(side)
+                ? new DailyRollup.Totals(count, 0L, amount)
+                : new DailyRollup.Totals(count, amount, 0L);
+        Map<String, DailyRollup.Totals> types = new LinkedHashMap<>();
+        types.put(key.getString("type"), totals);
+        return new DailyRollup(DailyRollup.id(accountNumber, day), accountNumber, day, types, null);
+    }
+
+    /**
+     * Sustituye los documentos de {@code day} por {@code rollups}; devuelve cuántos quedan.
+     *
+     * <p>Cada documento se reemplaza por {@code _id} con upsert, marcado con una generación nueva,
+     * y después se borran los de ese día con otra generación (cuentas que ya no tienen
+     * movimientos). Ninguna cuenta pasa por un momento sin totales, un fallo a mitad deja cada
+     * documento con el valor anterior o el nuevo y el borrado no depende de cuántas cuentas tenga
+     * el día.
+     */
+    public Mono<Long> replaceDay(String day, Flux<DailyRollup> rollups) {
+        String generation = new ObjectId().toHexString();
+        return rollups
+                .concatMap(rollup -> {
+                    rollup.setGeneration(generation);
+                    return mongo.replace(Query.query(Criteria.where("_id").is(rollup.getId())),
+                            rollup, ReplaceOptions.replaceOptions().upsert()).thenReturn(rollup);
+                })
+                .count()
+                .flatMap(count -> mongo.remove(
+                                Query.query(Criteria.where("day").is(day).and("generation").ne(generation)),
+                                DailyRollup.class)
+                        .thenReturn(count));
+    }
+}
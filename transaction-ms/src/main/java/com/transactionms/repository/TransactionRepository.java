@@ -4,7 +4,8 @@ import com.transactionms.repository.model.Transaction;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import reactor.core.publisher.Flux;
 
-public interface TransactionRepository extends ReactiveMongoRepository<Transaction, String> {
+public interface TransactionRepository extends ReactiveMongoRepository<Transaction, String>,
+        TransactionRepositoryCustom {
     // Transacciones donde una cuenta es origen
     Flux<Transaction> findByAccountFromOrderByDateDesc(String accountFrom);
 
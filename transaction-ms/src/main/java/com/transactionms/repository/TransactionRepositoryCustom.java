@@ -0,0 +1,24 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Historial filtrado en Mongo. Todos los parámetros son opcionales (null = sin filtro);
+     * {@code accountNumber} coincide como origen o destino; el rango de fechas incluye
+     * {@code from} y excluye {@code to}. Orden: fecha descendente.
+     */
+    Flux<Transaction> search(String accountNumber, TransactionType type, Instant from, Instant to);
+
+    /**
+     * Igual que {@link #search} pero leyendo el cursor de Mongo en lotes de {@code batchSize}
+     * y pidiendo aguas arriba como mucho un lote cada vez, para exportaciones grandes.
+     */
+    Flux<Transaction> stream(String accountNumber, TransactionType type, Instant from, Instant to,
+                             int batchSize);
+}
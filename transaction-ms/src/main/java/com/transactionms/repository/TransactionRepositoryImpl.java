@@ -0,0 +1,60 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongo;
+
+    @Override
+    public Flux<Transaction> search(String accountNumber, TransactionType type, Instant from, Instant to) {
+        return mongo.find(historyQuery(accountNumber, type, from, to), Transaction.class);
+    }
+
+    @Override
+    public Flux<Transaction> stream(String accountNumber, TransactionType type, Instant from, Instant to,
+                                    int batchSize) {
+        Query query = historyQuery(accountNumber, type, from, to).cursorBatchSize(batchSize);
+        return mongo.find(query, Transaction.class).limitRate(batchSize);
+    }
+
+    static Query historyQuery(String accountNumber, TransactionType type, Instant from, Instant to) {
+        List<Criteria> filters = new ArrayList<>();
+        if (accountNumber != null) {
+            // cada rama del $or usa su índice (accountFrom, date) / (accountTo, date)
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("accountFrom").is(accountNumber),
+                    Criteria.where("accountTo").is(accountNumber)));
+        }
+        if (type != null) {
+            filters.add(Criteria.where("type").is(type));
+        }
+        if (from != null || to != null) {
+            Criteria date = Criteria.where("date");
+            if (from != null) {
+                date = date.gte(from);
+            }
+            if (to != null) {
+                date = date.lt(to);
+            }
+            filters.add(date);
+        }
+
+        Query query = filters.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(filters));
+        return query.with(Sort.by(Sort.Direction.DESC, "date"));
+    }
+}
@@ -0,0 +1,161 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.Transaction;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistencia de {@link Transaction} con escritura diferida por lotes (opcional).
+ *
+ * <p>Con {@code transaction.write-behind.enabled=true} los documentos se agrupan hasta
+ * {@code max-batch-size} o {@code max-linger} y se insertan con un único {@code insertMany}.
+ * Cada llamante recibe su transacción sólo cuando Mongo ha confirmado el lote. Los ids se
+ * asignan antes de encolar: si el lote falla, cada documento se reintenta por separado y un
+ * {@code _id} duplicado significa que ya se había escrito. Un error inesperado al procesar un
+ * lote falla sólo a sus llamantes; el pipeline sigue con los siguientes. Si el lote no se
+ * confirma en {@code timeout}, el llamante recibe un error aunque el documento aún pueda
+ * escribirse más tarde (con el mismo {@code _id}).
+ * Desactivado, equivale a {@code repository.save(tx)}.
+ */
+@Slf4j
+@Component
+public class TransactionWriter {
+
+    private static final Duration EMIT_TIMEOUT = Duration.ofSeconds(1);
+
+    private final TransactionRepository repository;
+    private final ReactiveMongoTemplate mongo;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration maxLinger;
+    private final Duration timeout;
+    private final DistributionSummary batchSizes;
+    private final Timer flushTimer;
+    private final Sinks.Many<Pending> queue = Sinks.many().unicast().onBackpressureBuffer();
+    // encoladas o en un lote aún no confirmado (gauge transaction.write.queue.size)
+    private final AtomicInteger pending = new AtomicInteger();
+    private Disposable pipeline;
+
+    public TransactionWriter(TransactionRepository repository, ReactiveMongoTemplate mongo, MeterRegistry registry,
+                             @Value("${transaction.write-behind.enabled:false}") boolean enabled,
+                             @Value("${transaction.write-behind.max-batch-size:256}") int maxBatchSize,
+                             @Value("${transaction.write-behind.max-linger:5ms}") Duration maxLinger,
+                             @Value("${transaction.write-behind.timeout:10s}") Duration timeout) {
+        this.repository = repository;
+        this.mongo = mongo;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLinger = maxLinger;
+        this.timeout = timeout;
+        this.batchSizes = DistributionSummary.builder("transaction.write.batch.size")
+                .description("Documentos por insertMany del write-behind")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.flushTimer = Timer.builder("transaction.write.batch.flush")
+                .description("Duración de cada escritura por lotes")
+                .register(registry);
+        Gauge.builder("transaction.write.queue.size", pending, AtomicInteger::get)
+                .description("Transacciones pendientes de escribir en el write-behind")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            pipeline = queue.asFlux()
+                    // fairBackpressure: respeta la demanda de concatMap, así que los lotes no se
+                    // emiten más deprisa de lo que se escriben ni se descartan por overflow
+                    .bufferTimeout(maxBatchSize, maxLinger, true)
+                    .concatMap(batch -> flush(batch).onErrorResume(e -> {
+                        log.error("Lote de {} transacciones sin escribir: {}", batch.size(), e.toString());
+                        batch.forEach(p -> p.done().tryEmitError(e));
+                        return Mono.empty();
+                    }))
+                    .subscribe(null, e -> log.error("Write-behind detenido", e));
+        }
+    }
+
+    /** Vacía lo pendiente antes de parar. */
+    @PreDestroy
+    void stop() {
+        if (pipeline != null) {
+            queue.emitComplete(Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+        }
+    }
+
+    public Mono<Transaction> save(Transaction tx) {
+        if (!enabled) {
+            return repository.save(tx);
+        }
+        return Mono.defer(() -> {
+            if (tx.getId() == null) {
+                tx.setId(new ObjectId().toHexString());
+            }
+            Sinks.One<Transaction> done = Sinks.one();
+            // antes de encolar: si no, el lote podría confirmarse y restarla antes de sumarla
+            pending.incrementAndGet();
+            Sinks.EmitResult result = enqueue(new Pending(tx, done));
+            if (result.isFailure()) {
+                pending.decrementAndGet();
+                return Mono.error(new IllegalStateException("Write-behind no disponible: " + result));
+            }
+            return done.asMono().timeout(timeout);
+        });
+    }
+
+    // varios hilos emiten a la vez: reintenta hasta 1 s mientras otro emisor tiene el sink
+    private Sinks.EmitResult enqueue(Pending p) {
+        long deadline = System.nanoTime() + EMIT_TIMEOUT.toNanos();
+        Sinks.EmitResult result = queue.tryEmitNext(p);
+        while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+            result = queue.tryEmitNext(p);
+        }
+        return result;
+    }
+
+    private Mono<Void> flush(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+        return Flux.defer(() -> mongo.insertAll(batch.stream().map(Pending::tx).toList()))
+                .then(Mono.fromRunnable(() -> batch.forEach(p -> p.done().tryEmitValue(p.tx()))))
+                .onErrorResume(e -> Flux.fromIterable(batch).concatMap(this::insertOne).then())
+                .doFinally(s -> {
+                    flushTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                    pending.addAndGet(-batch.size());
+                })
+                .then();
+    }
+
+    private Mono<Void> insertOne(Pending p) {
+        return Mono.defer(() -> mongo.insert(p.tx()))
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(p.tx()))
+                .doOnNext(p.done()::tryEmitValue)
+                .onErrorResume(e -> {
+                    p.done().tryEmitError(e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private record Pending(Transaction tx, Sinks.One<Transaction> done) {
+    }
+}
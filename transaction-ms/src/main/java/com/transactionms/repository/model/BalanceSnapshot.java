@@ -0,0 +1,32 @@
+package com.transactionms.repository.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Saldo de una cuenta tras aplicar sus movimientos del ledger hasta {@code seq} inclusive.
+ * {@code date} es la fecha de ese último movimiento. El id ({@code cuenta:seq}) hace que
+ * generar dos veces el mismo snapshot no lo duplique.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "balance_snapshots")
+@CompoundIndex(name = "accountNumber_seq", def = "{'accountNumber': 1, 'seq': -1}")
+public class BalanceSnapshot {
+    @Id
+    private String id;
+    private String accountNumber;
+    private long seq;
+    private long balanceCents;
+    private Instant date;
+
+    public static BalanceSnapshot of(String accountNumber, long seq, long balanceCents, Instant date) {
+        return new BalanceSnapshot(accountNumber + ":" + seq, accountNumber, seq, balanceCents, date);
+    }
+}
@@ -0,0 +1,51 @@
+package com.transactionms.repository.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Totales de una cuenta en un día (UTC), por tipo de transacción. Se mantiene con {@code $inc}
+ * en cada transacción guardada; el id ({@code cuenta:día}) hace que el upsert de un mismo día
+ * caiga siempre en el mismo documento. {@code day} es {@code yyyy-MM-dd}, que ordena igual
+ * como texto que como fecha.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "daily_rollups")
+@CompoundIndex(name = "accountNumber_day", def = "{'accountNumber': 1, 'day': 1}")
+public class DailyRollup {
+    @Id
+    private String id;
+    private String accountNumber;
+    @Indexed // la reconstrucción reemplaza los documentos de un día
+    private String day;
+    @Builder.Default
+    private Map<String, Totals> types = new LinkedHashMap<>(); // clave: TransactionType
+    private String generation; // reconstrucción que escribió el documento (null si sólo $inc)
+
+    public static String id(String accountNumber, String day) {
+        return accountNumber + ":" + day;
+    }
+
+    /** Movimientos de un tipo en el día: cuántos y cuánto entró y salió de la cuenta. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Totals {
+        private long count;
+        private long creditCents;
+        private long debitCents;
+
+        public Totals plus(Totals other) {
+            return new Totals(count + other.count, creditCents + other.creditCents, debitCents + other.debitCents);
+        }
+    }
+}
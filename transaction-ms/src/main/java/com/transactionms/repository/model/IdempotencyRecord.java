@@ -0,0 +1,26 @@
+package com.transactionms.repository.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+
+/**
+ * Resultado de una operación de escritura identificada por su {@code Idempotency-Key}.
+ * Mongo borra el documento 24 h después de {@code createdAt} (índice TTL).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    private String key;
+    private String fingerprint; // operación + parámetros de la petición original
+    private Transaction transaction; // null mientras la primera ejecución está en curso
+    private String failure; // error tras el que no se sabe si el movimiento se aplicó
+    @Indexed(name = "createdAt_ttl", expireAfter = "24h")
+    private Instant createdAt;
+}
@@ -0,0 +1,21 @@
+package com.transactionms.repository.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Cabecera del ledger de una cuenta: última secuencia asignada y saldo con el que la cuenta
+ * entró en el ledger (el de account-ms antes de su primer movimiento registrado).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "ledger_accounts")
+public class LedgerAccount {
+    @Id
+    private String accountNumber;
+    private long seq;
+    private long openingBalanceCents;
+}
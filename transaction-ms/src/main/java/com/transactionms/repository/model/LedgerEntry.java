@@ -0,0 +1,10 @@
+package com.transactionms.repository.model;
+
+import java.time.Instant;
+
+/**
+ * Un movimiento visto desde el ledger de una cuenta: su secuencia y el efecto en el saldo
+ * (negativo si la cuenta es origen, positivo si es destino).
+ */
+public record LedgerEntry(long seq, long deltaCents, Instant date) {
+}
@@ -2,7 +2,9 @@ package com.transactionms.repository.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 import java.time.Instant;
 
 @Data
@@ -10,13 +12,27 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 @Document(collection = "transactions")
+// historial sin filtro de cuenta ni tipo (sólo fechas o nada): orden y rango sobre date
+@CompoundIndex(name = "date", def = "{'date': -1}")
+@CompoundIndex(name = "accountFrom_date", def = "{'accountFrom': 1, 'date': -1}")
+@CompoundIndex(name = "accountTo_date", def = "{'accountTo': 1, 'date': -1}")
+@CompoundIndex(name = "type_date", def = "{'type': 1, 'date': -1}")
+// replay del ledger por cuenta en orden de secuencia (sólo documentos con secuencia)
+@CompoundIndex(name = "accountFrom_sequenceFrom", def = "{'accountFrom': 1, 'sequenceFrom': 1}",
+        partialFilter = "{'sequenceFrom': {$exists: true}}")
+@CompoundIndex(name = "accountTo_sequenceTo", def = "{'accountTo': 1, 'sequenceTo': 1}",
+        partialFilter = "{'sequenceTo': {$exists: true}}")
 public class Transaction {
     @Id
     private String id; // ObjectId o transactionId
     private TransactionType type;
-    private Double amount;
+    @Field("amountCents")
+    private long amountCents; // int64 en céntimos
     private String accountFrom; // nullable for deposit
     private String accountTo;   // nullable for withdraw
     private Instant date;
     private String notes;
+    // modo ledger: posición del movimiento en el ledger de cada cuenta (null fuera de ese modo)
+    private Long sequenceFrom;
+    private Long sequenceTo;
 }
@@ -0,0 +1,156 @@
+package com.transactionms.service;
+
+import com.transactionms.client.SingleFlight;
+import com.transactionms.exceptions.AccountNotFoundException;
+import com.transactionms.exceptions.IdempotencyKeyInDoubtException;
+import com.transactionms.exceptions.IdempotencyKeyInProgressException;
+import com.transactionms.exceptions.IdempotencyKeyReusedException;
+import com.transactionms.exceptions.InsufficientFundsException;
+import com.transactionms.exceptions.InvalidTransactionException;
+import com.transactionms.repository.IdempotencyRepository;
+import com.transactionms.repository.model.IdempotencyRecord;
+import com.transactionms.repository.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Almacén de claves de idempotencia en dos niveles: LRU en memoria y colección Mongo con TTL.
+ *
+ * <p>La primera petición con una clave inserta un registro "en curso" (el {@code _id} único
+ * hace de cerrojo entre instancias), ejecuta la operación y guarda la transacción resultante.
+ * Los reintentos devuelven esa transacción sin volver a llamar a account-ms; los duplicados
+ * concurrentes con la misma operación esperan a la primera ejecución y los que traen otra
+ * operación se rechazan con 422 sin esperar.
+ *
+ * <p>Si la operación falla antes de mover dinero (validación, cuenta inexistente o fondos
+ * insuficientes) se borra el registro para que el cliente pueda reintentar. Con cualquier
+ * otro error no se sabe si account-ms aplicó el movimiento: el registro se marca como fallido
+ * y los reintentos reciben 409 en lugar de repetirlo.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final IdempotencyRepository repository;
+    private final SingleFlight<String, IdempotencyRecord> inFlight = new SingleFlight<>("idempotency");
+    private final Map<String, String> runningFingerprints = new ConcurrentHashMap<>();
+    private final Map<String, IdempotencyRecord> lru;
+    private final int maxPolls;
+
+    public IdempotencyStore(IdempotencyRepository repository,
+                            @Value("${transaction.idempotency.lru-max-entries:10000}") int maxEntries,
+                            @Value("${transaction.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.repository = repository;
+        this.lru = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.maxPolls = (int) Math.max(1, waitTimeout.toMillis() / POLL_INTERVAL.toMillis());
+    }
+
+    /**
+     * Ejecuta {@code operation} una sola vez por {@code key}. Sin clave se ejecuta siempre.
+     *
+     * @param key         valor de la cabecera {@code Idempotency-Key} (puede ser null)
+     * @param fingerprint operación y parámetros; reutilizar la clave con otros es un error
+     */
+    public Mono<Transaction> execute(String key, String fingerprint, Supplier<Mono<Transaction>> operation) {
+        if (key == null || key.isBlank()) {
+            return Mono.defer(operation);
+        }
+        return Mono.defer(() -> {
+            IdempotencyRecord cached = lru.get(key);
+            if (cached != null) {
+                return replay(cached, fingerprint);
+            }
+            // la primera ejecución en este nodo fija la operación: otra distinta no se une a ella
+            String running = runningFingerprints.get(key);
+            if (running != null && !running.equals(fingerprint)) {
+                return Mono.error(new IdempotencyKeyReusedException(key));
+            }
+            return inFlight.execute(key, () -> firstOrStored(key, fingerprint, operation))
+                    .flatMap(r -> replay(r, fingerprint));
+        });
+    }
+
+    private Mono<IdempotencyRecord> firstOrStored(String key, String fingerprint,
+                                                  Supplier<Mono<Transaction>> operation) {
+        var pending = IdempotencyRecord.builder()
+                .key(key).fingerprint(fingerprint).createdAt(Instant.now()).build();
+        return Mono.defer(() -> {
+            runningFingerprints.put(key, fingerprint);
+            return repository.insert(pending)
+                    .flatMap(r -> Mono.defer(operation)
+                            // si falla el guardado posterior el dinero ya se movió y el registro
+                            // "en curso" evita repetirlo
+                            .onErrorResume(e -> settleFailure(r, e))
+                            .flatMap(tx -> {
+                                r.setTransaction(tx);
+                                return repository.save(r);
+                            }))
+                    .onErrorResume(DuplicateKeyException.class, e -> awaitStored(key, fingerprint, operation))
+                    .doOnNext(r -> lru.put(key, r))
+                    .doFinally(signal -> runningFingerprints.remove(key, fingerprint));
+        });
+    }
+
+    /**
+     * Libera la clave sólo si el error es anterior a cualquier movimiento en account-ms; si no,
+     * deja el registro como fallido (o "en curso" si tampoco se puede guardar).
+     */
+    private Mono<Transaction> settleFailure(IdempotencyRecord record, Throwable error) {
+        if (beforeSideEffects(error)) {
+            return repository.deleteById(record.getKey()).then(Mono.error(error));
+        }
+        record.setFailure(error.toString());
+        return repository.save(record)
+                .then()
+                .onErrorResume(e -> Mono.empty())
+                .then(Mono.error(error));
+    }
+
+    private static boolean beforeSideEffects(Throwable error) {
+        return error instanceof InvalidTransactionException
+                || error instanceof AccountNotFoundException
+                || error instanceof InsufficientFundsException;
+    }
+
+    /**
+     * Espera a que la ejecución que tiene la clave termine. Si el registro desaparece, esa
+     * ejecución falló antes de mover dinero y liberó la clave: se vuelve a intentar desde cero.
+     */
+    private Mono<IdempotencyRecord> awaitStored(String key, String fingerprint,
+                                                Supplier<Mono<Transaction>> operation) {
+        return Mono.defer(() -> repository.findById(key))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .filter(r -> r.isEmpty() || r.get().getTransaction() != null || r.get().getFailure() != null)
+                .repeatWhenEmpty(attempts -> attempts.take(maxPolls).delayElements(POLL_INTERVAL))
+                .switchIfEmpty(Mono.error(() -> new IdempotencyKeyInProgressException(key)))
+                .flatMap(r -> r.isPresent() ? Mono.just(r.get()) : firstOrStored(key, fingerprint, operation));
+    }
+
+    private static Mono<Transaction> replay(IdempotencyRecord record, String fingerprint) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            return Mono.error(new IdempotencyKeyReusedException(record.getKey()));
+        }
+        if (record.getFailure() != null) {
+            return Mono.error(new IdempotencyKeyInDoubtException(record.getKey(), record.getFailure()));
+        }
+        return Mono.just(record.getTransaction());
+    }
+}
@@ -0,0 +1,255 @@
+package com.transactionms.service;
+
+import com.transactionms.client.AccountClient;
+import com.transactionms.exceptions.AccountNotFoundException;
+import com.transactionms.repository.LedgerRepository;
+import com.transactionms.repository.model.BalanceSnapshot;
+import com.transactionms.repository.model.LedgerAccount;
+import com.transactionms.repository.model.LedgerEntry;
+import com.transactionms.repository.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modo ledger ({@code transaction.ledger.enabled=true}): cada {@link Transaction} recibe un
+ * número de secuencia en el ledger de cada cuenta que toca y el saldo en cualquier instante se
+ * reconstruye como snapshot + replay corto de los movimientos posteriores.
+ *
+ * <p>El ledger de una cuenta se abre con {@link #open} antes de su primer movimiento, con el
+ * saldo que devuelve account-ms en ese momento. Todo movimiento pasa por {@code open} antes de
+ * llegar a account-ms y la cabecera se inserta después de leer el saldo, así que ese saldo
+ * incluye exactamente los movimientos anteriores a la apertura, aunque varios nodos abran la
+ * misma cuenta a la vez (gana la primera inserción). Los movimientos hechos directamente
+ * contra account-ms no aparecen. El orden del ledger es el de la secuencia: un saldo "a fecha T" aplica los
+ * movimientos en ese orden hasta el primero posterior a T.
+ *
+ * <p>Los snapshots se generan cada {@code snapshot-every} movimientos de una cuenta, en un
+ * proceso periódico que recorre las cuentas en paralelo ({@code parallelism} cuentas a la vez,
+ * cada una con su propio replay desde su último snapshot). Sólo se incluyen movimientos con
+ * más de {@code settle} de antigüedad, para no cerrar un snapshot mientras una secuencia
+ * anterior aún se está escribiendo. Los ids de snapshot son deterministas, así que varias
+ * instancias pueden ejecutar el proceso a la vez sin duplicar nada.
+ */
+@Slf4j
+@Service
+public class LedgerService {
+
+    private final LedgerRepository repository;
+    private final AccountClient accountClient;
+    private final boolean enabled;
+    private final int snapshotEvery;
+    private final Duration settle;
+    private final Duration interval;
+    private final int parallelism;
+    private Disposable schedule;
+
+    public LedgerService(LedgerRepository repository,
+                         AccountClient accountClient,
+                         @Value("${transaction.ledger.enabled:false}") boolean enabled,
+                         @Value("${transaction.ledger.snapshot-every:1000}") int snapshotEvery,
+                         @Value("${transaction.ledger.settle:30s}") Duration settle,
+                         @Value("${transaction.ledger.snapshot-interval:5m}") Duration interval,
+                         @Value("${transaction.ledger.parallelism:8}") int parallelism) {
+        this.repository = repository;
+        this.accountClient = accountClient;
+        this.enabled = enabled;
+        this.snapshotEvery = snapshotEvery;
+        this.settle = settle;
+        this.interval = interval;
+        this.parallelism = parallelism;
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled && !interval.isZero()) {
+            schedule = Flux.interval(interval, interval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> snapshotAll(false).onErrorResume(e -> {
+                        log.warn("Snapshots del ledger fallidos: {}", e.toString());
+                        return Mono.empty();
+                    }))
+                    .subscribe();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Abre el ledger de las cuentas que aún no lo tienen, con su saldo actual en account-ms.
+     * Debe terminar antes de mover dinero en ellas. Sin modo ledger no hace nada.
+     */
+    public Mono<Void> open(String... accountNumbers) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Flux.fromArray(accountNumbers)
+                .concatMap(accountNumber -> repository.account(accountNumber)
+                        .switchIfEmpty(Mono.defer(() -> accountClient.getByAccountNumber(accountNumber)
+                                .onErrorMap(WebClientResponseException.NotFound.class,
+                                        e -> new AccountNotFoundException("Cuenta no encontrada"))
+                                .flatMap(account -> repository.open(accountNumber, account.getBalanceCents())))))
+                .then();
+    }
+
+    /**
+     * Asigna a {@code tx} la secuencia de su cuenta origen y/o destino, abiertas antes con
+     * {@link #open}. Sin modo ledger devuelve {@code tx} tal cual.
+     */
+    public Mono<Transaction> append(Transaction tx) {
+        if (!enabled) {
+            return Mono.just(tx);
+        }
+        Mono<Transaction> result = Mono.just(tx);
+        if (tx.getAccountFrom() != null) {
+            result = result.flatMap(t -> nextSequence(t.getAccountFrom()).map(seq -> {
+                t.setSequenceFrom(seq);
+                return t;
+            }));
+        }
+        if (tx.getAccountTo() != null) {
+            result = result.flatMap(t -> nextSequence(t.getAccountTo()).map(seq -> {
+                t.setSequenceTo(seq);
+                return t;
+            }));
+        }
+        return result;
+    }
+
+    private Mono<Long> nextSequence(String accountNumber) {
+        return repository.nextSequence(accountNumber)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "El ledger de la cuenta " + accountNumber + " no está abierto")));
+    }
+
+    /**
+     * Saldo de la cuenta tras su último movimiento del ledger con fecha no posterior a
+     * {@code at}: el snapshot más cercano anterior y el replay de lo que le sigue.
+     */
+    public Mono<Balance> balanceAt(String accountNumber, Instant at) {
+        return repository.account(accountNumber)
+                .switchIfEmpty(Mono.error(new AccountNotFoundException(
+                        "La cuenta " + accountNumber + " no tiene movimientos en el ledger")))
+                .flatMap(account -> repository.latestSnapshot(accountNumber, at)
+                        .defaultIfEmpty(opening(account))
+                        .flatMap(from -> repository.entriesAfter(accountNumber, from.getSeq())
+                                .takeWhile(entry -> !entry.date().isAfter(at))
+                                .reduce(new Balance(accountNumber, at, from.getBalanceCents(),
+                                        from.getSeq(), from.getSeq(), 0), Balance::apply)));
+    }
+
+    /**
+     * Genera los snapshots pendientes de todas las cuentas, {@code parallelism} cuentas a la vez.
+     * Con {@code rebuild} borra antes los de cada cuenta y los recalcula desde la apertura.
+     */
+    public Mono<SnapshotRun> snapshotAll(boolean rebuild) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Instant settledBefore = Instant.now().minus(settle);
+            AtomicLong accounts = new AtomicLong();
+            AtomicLong snapshots = new AtomicLong();
+            AtomicLong replayed = new AtomicLong();
+            return repository.accounts()
+                    .flatMap(account -> snapshot(account, rebuild, settledBefore, replayed), parallelism)
+                    .doOnNext(created -> {
+                        accounts.incrementAndGet();
+                        snapshots.addAndGet(created);
+                    })
+                    .then(Mono.fromSupplier(() -> new SnapshotRun(accounts.get(), snapshots.get(),
+                            replayed.get(), Duration.ofNanos(System.nanoTime() - start).toMillis())))
+                    .doOnNext(run -> log.info("Snapshots del ledger{}: {} cuentas, {} snapshots, {} movimientos en {} ms",
+                            rebuild ? " (reconstrucción)" : "", run.accounts(), run.snapshots(),
+                            run.entriesReplayed(), run.durationMillis()));
+        });
+    }
+
+    private Mono<Long> snapshot(LedgerAccount account, boolean rebuild, Instant settledBefore,
+                                AtomicLong replayed) {
+        String accountNumber = account.getAccountNumber();
+        Mono<BalanceSnapshot> base = rebuild
+                ? repository.deleteSnapshots(accountNumber).thenReturn(opening(account))
+                : repository.latestSnapshot(accountNumber, null).defaultIfEmpty(opening(account));
+        return base.flatMap(from -> {
+            if (account.getSeq() - from.getSeq() < snapshotEvery) {
+                return Mono.just(0L);
+            }
+            Replay replay = new Replay(accountNumber, from, snapshotEvery);
+            return repository.entriesAfter(accountNumber, from.getSeq())
+                    .takeWhile(entry -> entry.date().isBefore(settledBefore))
+                    .doOnNext(entry -> replayed.incrementAndGet())
+                    .<BalanceSnapshot>handle((entry, sink) -> {
+                        BalanceSnapshot next = replay.apply(entry);
+                        if (next != null) {
+                            sink.next(next);
+                        }
+                    })
+                    .concatMap(repository::saveSnapshot)
+                    .count();
+        });
+    }
+
+    private static BalanceSnapshot opening(LedgerAccount account) {
+        return BalanceSnapshot.of(account.getAccountNumber(), 0, account.getOpeningBalanceCents(), null);
+    }
+
+    /**
+     * Saldo reconstruido: {@code sequence} es el último movimiento aplicado y
+     * {@code replayed} cuántos se aplicaron sobre el snapshot {@code snapshotSequence}.
+     */
+    public record Balance(String accountNumber, Instant asOf, long balanceCents, long sequence,
+                          long snapshotSequence, long replayed) {
+
+        Balance apply(LedgerEntry entry) {
+            return new Balance(accountNumber, asOf, balanceCents + entry.deltaCents(), entry.seq(),
+                    snapshotSequence, replayed + 1);
+        }
+    }
+
+    public record SnapshotRun(long accounts, long snapshots, long entriesReplayed, long durationMillis) {
+    }
+
+    /** Saldo acumulado de un replay; devuelve un snapshot al cruzar cada múltiplo de {@code every}. */
+    private static final class Replay {
+
+        private final String accountNumber;
+        private final int every;
+        private long balanceCents;
+        private long nextBoundary;
+
+        Replay(String accountNumber, BalanceSnapshot from, int every) {
+            this.accountNumber = accountNumber;
+            this.every = every;
+            this.balanceCents = from.getBalanceCents();
+            this.nextBoundary = (from.getSeq() / every + 1) * every;
+        }
+
+        BalanceSnapshot apply(LedgerEntry entry) {
+            balanceCents += entry.deltaCents();
+            // con huecos en la secuencia (escrituras fallidas) se corta en el primer movimiento que pasa el límite
+            if (entry.seq() < nextBoundary) {
+                return null;
+            }
+            nextBoundary = (entry.seq() / every + 1) * every;
+            return BalanceSnapshot.of(accountNumber, entry.seq(), balanceCents, entry.date());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.transactionms.service;
+
+import com.transactionms.repository.RollupRepository;
+import com.transactionms.repository.model.DailyRollup;
+import com.transactionms.repository.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Totales diarios por cuenta y tipo ({@code daily_rollups}) para extractos y paneles.
+ *
+ * <p>Cada transacción guardada incrementa el documento del día de las cuentas que toca, así
+ * que un resumen de un mes lee como mucho 31 documentos por cuenta en lugar de sus
+ * transacciones. Si un incremento falla la transacción sigue siendo válida: se registra en el
+ * log y el día queda corto hasta que se reconstruye. La reconstrucción recalcula cada día desde
+ * {@code transactions}, {@code parallelism} días a la vez; un día que recibe transacciones
+ * mientras se reconstruye puede quedar desajustado, por lo que por defecto sólo se reconstruyen
+ * días cerrados.
+ */
+@Slf4j
+@Service
+public class RollupService {
+
+    private final RollupRepository repository;
+    private final boolean enabled;
+    private final int parallelism;
+    private final Clock clock;
+
+    @Autowired
+    public RollupService(RollupRepository repository,
+                         @Value("${transaction.rollups.enabled:true}") boolean enabled,
+                         @Value("${transaction.rollups.parallelism:4}") int parallelism) {
+        this(repository, enabled, parallelism, Clock.systemUTC());
+    }
+
+    RollupService(RollupRepository repository, boolean enabled, int parallelism, Clock clock) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.parallelism = parallelism;
+        this.clock = clock;
+    }
+
+    /** Suma {@code tx} a los totales de su día; nunca falla. */
+    public Mono<Void> add(Transaction tx) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return repository.add(tx)
+                .onErrorResume(e -> {
+                    log.warn("Totales diarios sin actualizar para la transacción {}: {}", tx.getId(), e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /** Totales de la cuenta entre dos días inclusive (null = sin límite). */
+    public Mono<Summary> summary(String accountNumber, LocalDate from, LocalDate to) {
+        return repository.range(accountNumber, from == null ? null : from.toString(), to == null ? null : to.toString())
+                .reduceWith(() -> Summary.empty(accountNumber, from, to), Summary::add);
+    }
+
+    /**
+     * Recalcula los días entre {@code from} y {@code to} inclusive desde las transacciones.
+     * Sin {@code from} empieza en la transacción más antigua; sin {@code to} termina ayer (UTC),
+     * para no pisar los incrementos del día en curso.
+     */
+    public Mono<RebuildRun> rebuild(LocalDate from, LocalDate to) {
+        LocalDate last = to != null ? to : LocalDate.now(clock).minusDays(1);
+        Mono<LocalDate> first = from != null
+                ? Mono.just(from)
+                : repository.firstTransactionDate().map(date -> LocalDate.ofInstant(date, ZoneOffset.UTC));
+        return first.flatMap(start -> Mono.defer(() -> {
+                    long begin = System.nanoTime();
+                    AtomicLong days = new AtomicLong();
+                    long count = Math.max(0, ChronoUnit.DAYS.between(start, last) + 1);
+                    return Flux.range(0, (int) count)
+                            .map(start::plusDays)
+                            .flatMap(day -> repository.replaceDay(day.toString(), repository.aggregate(day)), parallelism)
+                            .doOnNext(written -> days.incrementAndGet())
+                            .reduce(0L, Long::sum)
+                            .map(rollups -> new RebuildRun(days.get(), rollups,
+                                    Duration.ofNanos(System.nanoTime() - begin).toMillis()));
+                }))
+                .defaultIfEmpty(new RebuildRun(0, 0, 0))
+                .doOnNext(run -> log.info("Totales diarios reconstruidos: {} días, {} documentos en {} ms",
+                        run.days(), run.rollups(), run.durationMillis()));
+    }
+
+    /** Totales por tipo en el rango; {@code days} es el número de documentos diarios leídos. */
+    public record Summary(String accountNumber, LocalDate from, LocalDate to, long days,
+                          Map<String, DailyRollup.Totals> types, long creditCents, long debitCents) {
+
+        static Summary empty(String accountNumber, LocalDate from, LocalDate to) {
+            return new Summary(accountNumber, from, to, 0, new TreeMap<>(), 0, 0);
+        }
+
+        Summary add(DailyRollup day) {
+            long credit = creditCents;
+            long debit = debitCents;
+            for (Map.Entry<String, DailyRollup.Totals> e : day.getTypes().entrySet()) {
+                DailyRollup.Totals t = e.getValue();
+                types.merge(e.getKey(), t, DailyRollup.Totals::plus);
+                credit += t.getCreditCents();
+                debit += t.getDebitCents();
+            }
+            return new Summary(accountNumber, from, to, days + 1, types, credit, debit);
+        }
+    }
+
+    public record RebuildRun(long days, long rollups, long durationMillis) {
+    }
+}
@@ -7,8 +7,9 @@ import reactor.core.publisher.Mono;
 import java.time.LocalDate;
 
 public interface TransactionService {
-    Mono<Transaction> deposit(String accountId, Double amount);
-    Mono<Transaction> withdraw(String accountId, Double amount);
-    Mono<Transaction> transfer(String originId, String destinationId, Double amount);
+    Mono<Transaction> deposit(String accountId, long amountCents);
+    Mono<Transaction> withdraw(String accountId, long amountCents);
+    Mono<Transaction> transfer(String originId, String destinationId, long amountCents);
     Flux<Transaction> history(String accountNumber, String tipo, LocalDate fechaDesde, LocalDate fechaHasta);
+    Flux<Transaction> export(String accountNumber, String tipo, LocalDate fechaDesde, LocalDate fechaHasta);
 }
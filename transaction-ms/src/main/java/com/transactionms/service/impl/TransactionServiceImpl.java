@@ -1,128 +1,283 @@
 package com.transactionms.service.impl;
 
 import com.transactionms.client.AccountClient;
+import com.transactionms.client.dto.AccountDto;
+import com.transactionms.client.dto.AccountRef;
 import com.transactionms.exceptions.AccountNotFoundException;
 import com.transactionms.exceptions.InsufficientFundsException;
 import com.transactionms.exceptions.InvalidTransactionException;
 import com.transactionms.repository.TransactionRepository;
+import com.transactionms.repository.TransactionWriter;
 import com.transactionms.repository.model.Transaction;
 import com.transactionms.repository.model.TransactionType;
+import com.transactionms.service.LedgerService;
+import com.transactionms.service.RollupService;
 import com.transactionms.service.TransactionService;
+import com.transactionms.util.ServerTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Depósitos, retiros y transferencias contra account-ms, registrados en Mongo.
+ *
+ * <p>Cada operación se mide con el timer {@code transaction.service{operation, outcome}} desde
+ * la suscripción hasta la señal final; los rechazos de negocio se cuentan además en
+ * {@code transaction.rejections{operation, reason}}. En {@code Server-Timing} la escritura en
+ * Mongo aparece como {@code mongo}, la de los totales diarios como {@code rollup} y las
+ * llamadas a account-ms como {@code account-ms.*}.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final Set<String> REJECTIONS = Set.of("insufficient_funds", "not_found", "invalid");
+
     private final TransactionRepository repository;
+    private final TransactionWriter writer;
     private final AccountClient accountClient; // 👈 inyectamos el cliente
+    private final LedgerService ledger;
+    private final RollupService rollups;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transaction.export.batch-size:500}")
+    private int exportBatchSize;
+
+    @Override
+    public Mono<Transaction> deposit(String accountNumber, long amountCents) {
+        return timed("deposit", doDeposit(accountNumber, amountCents));
+    }
 
     @Override
-    public Mono<Transaction> deposit(String accountNumber, Double amount) {
-        if (amount <= 0) {
+    public Mono<Transaction> withdraw(String accountNumber, long amountCents) {
+        return timed("withdraw", doWithdraw(accountNumber, amountCents));
+    }
+
+    @Override
+    public Mono<Transaction> transfer(String originAccountNumber, String destinationAccountNumber, long amountCents) {
+        return timed("transfer", doTransfer(originAccountNumber, destinationAccountNumber, amountCents));
+    }
+
+    private Mono<Transaction> doDeposit(String accountNumber, long amountCents) {
+        if (amountCents <= 0) {
             return Mono.error(new InvalidTransactionException("El monto debe ser mayor a 0"));
         }
 
-        // 1️⃣ validar que la cuenta exista en account-ms
-        return accountClient.getByAccountNumber(accountNumber)
+        // 1️⃣ validar que la cuenta exista en account-ms (caché de referencias)
+        return accountClient.lookup(accountNumber)
                 .switchIfEmpty(Mono.error(new AccountNotFoundException("Cuenta destino no encontrada")))
-                // 2️⃣ si existe, invocar depósito en account-ms
-                .flatMap(account ->
-                        accountClient.depositByNumberAccount(accountNumber, amount)
+                // 2️⃣ si existe, invocar depósito en account-ms (en modo ledger, tras abrir el ledger de la cuenta)
+                .flatMap(account -> ledger.open(accountNumber).then(
+                        accountClient.depositByNumberAccount(accountNumber, amountCents)
                                 // 3️⃣ guardar la transacción en Mongo
                                 .flatMap(updated -> {
                                     Transaction tx = Transaction.builder()
                                             .type(TransactionType.DEPOSIT)
                                             .accountTo(accountNumber)
-                                            .amount(amount)
+                                            .amountCents(amountCents)
                                             .date(Instant.now())
                                             .build();
-                                    return repository.save(tx);
-                                })
+                                    return record(tx);
+                                }))
                 );
     }
 
-    @Override
-    public Mono<Transaction> withdraw(String accountNumber, Double amount) {
-        if (amount <= 0) {
+    private Mono<Transaction> doWithdraw(String accountNumber, long amountCents) {
+        if (amountCents <= 0) {
             return Mono.error(new InvalidTransactionException("El monto debe ser mayor a 0"));
         }
 
-        return accountClient.getByAccountNumber(accountNumber)
+        return accountClient.lookup(accountNumber)
                 .switchIfEmpty(Mono.error(new AccountNotFoundException("Cuenta no encontrada")))
                 .flatMap(account -> {
-                    if (account.getBalance() < amount) {
-                        return Mono.error(new InsufficientFundsException("Fondos insuficientes en la cuenta " + accountNumber));
-                    }
-                    return accountClient.withdrawByAccountNumber(accountNumber, amount)
+                    // el saldo lo valida account-ms en el UPDATE; aquí nunca se decide con un saldo cacheado
+                    return ledger.open(accountNumber)
+                            .then(accountClient.withdrawByAccountNumber(accountNumber, amountCents))
+                            .onErrorMap(WebClientResponseException.BadRequest.class,
+                                    e -> insufficientFunds(accountNumber, e))
                             .flatMap(updated -> {
                                 Transaction tx = Transaction.builder()
                                         .type(TransactionType.WITHDRAW)
                                         .accountFrom(accountNumber)
-                                        .amount(amount)
+                                        .amountCents(amountCents)
                                         .date(Instant.now())
                                         .build();
-                                return repository.save(tx);
+                                return record(tx);
                             });
                 });
     }
 
-    @Override
-    public Mono<Transaction> transfer(String originAccountNumber, String destinationAccountNumber, Double amount) {
-        if (amount <= 0) {
+    private Mono<Transaction> doTransfer(String originAccountNumber, String destinationAccountNumber,
+                                         long amountCents) {
+        if (amountCents <= 0) {
             return Mono.error(new InvalidTransactionException("El monto debe ser mayor a 0"));
         }
         if (originAccountNumber.equals(destinationAccountNumber)) {
             return Mono.error(new InvalidTransactionException("La cuenta origen y destino no pueden ser iguales"));
         }
 
-        return accountClient.getByAccountNumber(originAccountNumber)
+        return accountClient.lookup(originAccountNumber)
                 .switchIfEmpty(Mono.error(new AccountNotFoundException("Cuenta origen no encontrada")))
                 .flatMap(origin -> {
-                    if (origin.getBalance() < amount) {
-                        return Mono.error(new InsufficientFundsException("Fondos insuficientes en la cuenta" + originAccountNumber));
-                    }
-                    return accountClient.getByAccountNumber(destinationAccountNumber)
+                    // sin caché: el depósito en destino llega después de retirar del origen
+                    return accountClient.lookupFresh(destinationAccountNumber)
                             .switchIfEmpty(Mono.error(new AccountNotFoundException("Cuenta destino no encontrada")))
-                            // 1️⃣ retirar de origen
-                            .flatMap(dest ->
-                                    accountClient.withdraw(origin.getId(), amount)
+                            // 1️⃣ retirar de origen (account-ms rechaza si no hay saldo)
+                            .flatMap(dest -> ledger.open(originAccountNumber, destinationAccountNumber).then(
+                                    accountClient.withdraw(origin.id(), amountCents)
+                                            .onErrorMap(WebClientResponseException.BadRequest.class,
+                                                    e -> insufficientFunds(originAccountNumber, e))
                                             // 2️⃣ depositar en destino
-                                            .then(accountClient.deposit(dest.getId(), amount))
+                                            .zipWhen(debited -> accountClient.deposit(dest.id(), amountCents)
+                                                    .onErrorResume(WebClientResponseException.class,
+                                                            e -> refund(origin, amountCents, e)))
                                             // 3️⃣ guardar la transacción
                                             .flatMap(updated -> {
                                                 Transaction tx = Transaction.builder()
                                                         .type(TransactionType.TRANSFER)
                                                         .accountFrom(originAccountNumber)
                                                         .accountTo(destinationAccountNumber)
-                                                        .amount(amount)
+                                                        .amountCents(amountCents)
                                                         .date(Instant.now())
                                                         .build();
-                                                return repository.save(tx);
-                                            })
+                                                return record(tx);
+                                            }))
                             );
                 });
     }
 
+    /**
+     * El depósito en destino falló después de retirar del origen. Si account-ms lo rechazó (4xx)
+     * no se aplicó, así que se devuelve el importe al origen y se propaga el rechazo. Ante un 5xx
+     * el depósito pudo aplicarse y devolverlo podría duplicar el dinero: se propaga sin tocar nada.
+     */
+    private Mono<AccountDto> refund(AccountRef origin, long amountCents, WebClientResponseException cause) {
+        if (!cause.getStatusCode().is4xxClientError()) {
+            return Mono.error(cause);
+        }
+        Throwable rejection = cause instanceof WebClientResponseException.NotFound
+                ? new AccountNotFoundException("Cuenta destino no encontrada")
+                : cause;
+        return accountClient.deposit(origin.id(), amountCents)
+                .onErrorResume(e -> {
+                    log.error("Transferencia desde {}: {} céntimos retirados sin devolver tras rechazarse "
+                            + "el depósito en destino: {}", origin.accountNumber(), amountCents, e.toString());
+                    var failed = new IllegalStateException("No se pudo devolver el importe a la cuenta origen",
+                            cause);
+                    failed.addSuppressed(e);
+                    return Mono.error(failed);
+                })
+                .then(Mono.error(rejection));
+    }
+
     @Override
     public Flux<Transaction> history(String cuentaNumero, String tipo, LocalDate fechaDesde, LocalDate fechaHasta) {
-        Flux<Transaction> baseFlux;
+        HistoryFilter f = HistoryFilter.of(cuentaNumero, tipo, fechaDesde, fechaHasta);
+        if (f == null) {
+            return Flux.empty(); // tipo desconocido: ninguna transacción coincide
+        }
+        // Los filtros se resuelven en Mongo (índices compuestos en Transaction), no en memoria
+        return ServerTiming.time("mongo", repository.search(f.account(), f.type(), f.from(), f.to()));
+    }
 
-        if (cuentaNumero != null) {
-            baseFlux = repository.findByAccountFromOrAccountToOrderByDateDesc(cuentaNumero,cuentaNumero);
-        } else {
-            baseFlux = repository.findAll();
+    @Override
+    public Flux<Transaction> export(String cuentaNumero, String tipo, LocalDate fechaDesde, LocalDate fechaHasta) {
+        HistoryFilter f = HistoryFilter.of(cuentaNumero, tipo, fechaDesde, fechaHasta);
+        if (f == null) {
+            return Flux.empty();
         }
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong docs = new AtomicLong();
+            return repository.stream(f.account(), f.type(), f.from(), f.to(), exportBatchSize)
+                    .doOnNext(tx -> docs.incrementAndGet())
+                    .doFinally(signal -> {
+                        double secs = Math.max((System.nanoTime() - start) / 1e9, 1e-9);
+                        log.info("Export historial {}: {} docs en {} s ({} docs/s)", signal,
+                                docs.get(), String.format(Locale.ROOT, "%.3f", secs),
+                                Math.round(docs.get() / secs));
+                    });
+        });
+    }
+
+    // secuencias del ledger (en modo ledger), escritura en Mongo y totales del día
+    private Mono<Transaction> record(Transaction tx) {
+        Mono<Transaction> sequenced = ledger.isEnabled()
+                ? ServerTiming.time("ledger", ledger.append(tx))
+                : Mono.just(tx);
+        return sequenced.flatMap(t -> ServerTiming.time("mongo", writer.save(t)))
+                .flatMap(saved -> ServerTiming.time("rollup", rollups.add(saved)).thenReturn(saved));
+    }
+
+    private Mono<Transaction> timed(String operation, Mono<Transaction> operationMono) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return operationMono
+                    .doOnSuccess(tx -> stop(sample, operation, "success"))
+                    .doOnError(e -> stop(sample, operation, outcome(e)))
+                    .doOnCancel(() -> stop(sample, operation, "cancelled"));
+        });
+    }
 
-        return baseFlux
-                .filter(tx -> tipo == null || tx.getType().name().equalsIgnoreCase(tipo))
-                .filter(tx -> fechaDesde == null || !tx.getDate().isBefore(fechaDesde.atStartOfDay().toInstant(java.time.ZoneOffset.UTC)))
-                .filter(tx -> fechaHasta == null || !tx.getDate().isAfter(fechaHasta.plusDays(1).atStartOfDay().toInstant(java.time.ZoneOffset.UTC)));
+    private void stop(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder("transaction.service")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        if (REJECTIONS.contains(outcome)) {
+            meterRegistry.counter("transaction.rejections", "operation", operation, "reason", outcome)
+                    .increment();
+        }
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof InsufficientFundsException) {
+            return "insufficient_funds";
+        }
+        if (e instanceof AccountNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof InvalidTransactionException) {
+            return "invalid";
+        }
+        return "error";
+    }
+
+    private static InsufficientFundsException insufficientFunds(String accountNumber, WebClientResponseException e) {
+        return new InsufficientFundsException("Fondos insuficientes en la cuenta " + accountNumber
+                + ": " + e.getResponseBodyAsString());
+    }
+
+    private record HistoryFilter(String account, TransactionType type, Instant from, Instant to) {
+
+        /** Traduce los parámetros de la API; null si {@code tipo} no es un tipo conocido. */
+        static HistoryFilter of(String cuentaNumero, String tipo, LocalDate fechaDesde, LocalDate fechaHasta) {
+            TransactionType type = null;
+            if (tipo != null) {
+                try {
+                    type = TransactionType.valueOf(tipo.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+            Instant desde = fechaDesde == null ? null : fechaDesde.atStartOfDay().toInstant(ZoneOffset.UTC);
+            Instant hasta = fechaHasta == null ? null : fechaHasta.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+            return new HistoryFilter(cuentaNumero, type, desde, hasta);
+        }
     }
 }
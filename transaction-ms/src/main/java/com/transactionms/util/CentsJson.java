@@ -0,0 +1,38 @@
+package com.transactionms.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * (De)serializadores Jackson que mantienen el formato decimal en JSON (p.ej. {@code 150.25})
+ * para campos {@code long} expresados en céntimos.
+ */
+public final class CentsJson {
+
+    private CentsJson() {
+    }
+
+    public static class Serializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long cents, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(Money.toDecimal(cents));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            try {
+                return Money.toCents(p.getDecimalValue());
+            } catch (IllegalArgumentException e) {
+                return (Long) ctxt.handleWeirdNumberValue(Long.class, p.getNumberValue(), e.getMessage());
+            }
+        }
+    }
+}
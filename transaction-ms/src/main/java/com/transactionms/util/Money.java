@@ -0,0 +1,26 @@
+package com.transactionms.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Montos en unidades mínimas (céntimos). Internamente todo se maneja como {@code long};
+ * sólo en los bordes (JSON) se convierte a/desde decimal.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("El monto admite como máximo 2 decimales");
+        }
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,168 @@
+package com.transactionms.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Fases de la petición en curso para la cabecera {@code Server-Timing}.
+ *
+ * <p>En WebFlux no hay un hilo por petición: el filtro web deja la instancia en el
+ * {@link reactor.util.context.Context} de Reactor y las fases se miden con {@link #time}
+ * desde la suscripción hasta la señal final. Las llamadas a account-ms se registran con su
+ * nombre de salto ({@code account-ms.withdraw}) y las fases que devuelve account-ms se
+ * incorporan con {@link #merge} ({@code account-ms.withdraw.db}). Las operaciones de una
+ * petición pueden ejecutarse en hilos distintos, por eso los métodos están sincronizados.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    private final long start = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /** Instancia de la petición, o null fuera de una petición HTTP. */
+    public static ServerTiming from(ContextView ctx) {
+        return ctx.getOrDefault(ServerTiming.class, null);
+    }
+
+    /** Mide {@code mono} (de la suscripción a la señal final) como la fase {@code name}. */
+    public static <T> Mono<T> time(String name, Mono<T> mono) {
+        return Mono.deferContextual(ctx -> {
+            ServerTiming timing = from(ctx);
+            if (timing == null) {
+                return mono;
+            }
+            long t0 = System.nanoTime();
+            Runnable stop = () -> timing.record(name, System.nanoTime() - t0);
+            // antes de propagar la señal: tras ella la respuesta puede estar ya confirmada
+            return mono.doOnSuccess(value -> stop.run())
+                    .doOnError(e -> stop.run())
+                    .doOnCancel(stop);
+        });
+    }
+
+    /**
+     * Mide {@code flux} hasta su primer elemento (o la señal final si no tiene ninguno): WebFlux
+     * escribe los {@link Flux} en streaming y la respuesta se confirma con el primer elemento.
+     */
+    public static <T> Flux<T> time(String name, Flux<T> flux) {
+        return Flux.deferContextual(ctx -> {
+            ServerTiming timing = from(ctx);
+            if (timing == null) {
+                return flux;
+            }
+            long t0 = System.nanoTime();
+            AtomicBoolean pending = new AtomicBoolean(true);
+            Runnable stop = () -> {
+                if (pending.getAndSet(false)) {
+                    timing.record(name, System.nanoTime() - t0);
+                }
+            };
+            return flux.doOnNext(value -> stop.run())
+                    .doOnComplete(stop)
+                    .doOnError(e -> stop.run())
+                    .doOnCancel(stop);
+        });
+    }
+
+    /** {@code map} que cuenta el tiempo de {@code mapper} como la fase {@code name}. */
+    public static <T, R> Function<Mono<T>, Mono<R>> map(String name, Function<T, R> mapper) {
+        return mono -> mono.transformDeferredContextual((source, ctx) -> {
+            ServerTiming timing = from(ctx);
+            if (timing == null) {
+                return source.map(mapper);
+            }
+            return source.map(value -> {
+                long t0 = System.nanoTime();
+                R result = mapper.apply(value);
+                timing.record(name, System.nanoTime() - t0);
+                return result;
+            });
+        });
+    }
+
+    public synchronized void record(String name, long nanos) {
+        phases.merge(name, nanos, Long::sum);
+    }
+
+    /**
+     * Incorpora las fases de una respuesta de otro servicio con el prefijo {@code hop};
+     * se suman si hay varias llamadas al mismo destino.
+     */
+    public synchronized void merge(String hop, List<String> headerValues) {
+        if (headerValues == null) {
+            return;
+        }
+        for (String value : headerValues) {
+            for (Metric metric : parse(value)) {
+                phases.merge(hop + "." + metric.name(), metric.nanos(), Long::sum);
+            }
+        }
+    }
+
+    /** Valor de la cabecera: las fases en orden de aparición y {@code total} hasta ahora. */
+    public synchronized String header() {
+        StringBuilder sb = new StringBuilder();
+        phases.forEach((name, nanos) -> append(sb, name, nanos));
+        append(sb, "total", System.nanoTime() - start);
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String name, long nanos) {
+        if (!sb.isEmpty()) {
+            sb.append(", ");
+        }
+        sb.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1e6));
+    }
+
+    /** Métricas con {@code dur} de un valor de {@code Server-Timing}; el resto se ignora. */
+    static List<Metric> parse(String value) {
+        List<Metric> metrics = new ArrayList<>();
+        for (String entry : splitOutsideQuotes(value, ',')) {
+            List<String> params = splitOutsideQuotes(entry, ';');
+            String name = params.get(0).strip();
+            for (int i = 1; i < params.size() && !name.isEmpty(); i++) {
+                String param = params.get(i).strip();
+                if (param.regionMatches(true, 0, "dur=", 0, 4)) {
+                    try {
+                        double ms = Double.parseDouble(param.substring(4).replace("\"", ""));
+                        metrics.add(new Metric(name, Math.round(ms * 1e6)));
+                    } catch (NumberFormatException e) {
+                        // dur mal formado: se descarta la métrica
+                    }
+                    break;
+                }
+            }
+        }
+        return metrics;
+    }
+
+    private static List<String> splitOutsideQuotes(String s, char separator) {
+        List<String> parts = new ArrayList<>();
+        boolean quoted = false;
+        int from = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == separator && !quoted) {
+                parts.add(s.substring(from, i));
+                from = i + 1;
+            }
+        }
+        parts.add(s.substring(from));
+        return parts;
+    }
+
+    record Metric(String name, long nanos) {
+    }
+}
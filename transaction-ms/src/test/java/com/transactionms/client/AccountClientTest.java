@@ -0,0 +1,90 @@
+package com.transactionms.client;
+
+import com.transactionms.client.dto.AccountDto;
+import com.transactionms.util.ServerTiming;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountClientTest {
+
+    private static final String ACCOUNT_JSON =
+            "{\"id\":1,\"accountNumber\":\"ACC1\",\"balance\":10.0,\"customerId\":7,\"accountType\":\"SAVINGS\"}";
+
+    private static AccountClient client(HttpStatus status, String body) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(status)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .header(ServerTiming.HEADER, "db;dur=1.50, mapping;dur=0.10, total;dur=2.00")
+                        .body(body)
+                        .build()))
+                .build();
+        return new AccountClient(webClient, new AccountLookupCache(Duration.ofMinutes(1), 10));
+    }
+
+    @Test
+    void withdraw_mergesDownstreamTimingsIntoRequest() {
+        ServerTiming timing = new ServerTiming();
+
+        StepVerifier.create(client(HttpStatus.OK, ACCOUNT_JSON).withdraw(1L, 500L)
+                        .then(client(HttpStatus.OK, ACCOUNT_JSON).withdraw(1L, 500L))
+                        .contextWrite(Context.of(ServerTiming.class, timing)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        String header = timing.header();
+        assertTrue(header.startsWith("account-ms.withdraw.db;dur=3.00, account-ms.withdraw.mapping;dur=0.20, "
+                + "account-ms.withdraw.total;dur=4.00, account-ms.withdraw;dur="), header);
+    }
+
+    @Test
+    void rejectedCalls_stillMergeDownstreamTimings() {
+        ServerTiming timing = new ServerTiming();
+
+        StepVerifier.create(client(HttpStatus.BAD_REQUEST, "{}").withdrawByAccountNumber("ACC1", 500L)
+                        .contextWrite(Context.of(ServerTiming.class, timing)))
+                .expectError(WebClientResponseException.BadRequest.class)
+                .verify();
+
+        assertTrue(timing.header().contains("account-ms.withdraw.db;dur=1.50"), timing.header());
+    }
+
+    @Test
+    void lookupFreshBypassesTheCache() {
+        var calls = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(ACCOUNT_JSON)
+                            .build());
+                })
+                .build();
+        var client = new AccountClient(webClient, new AccountLookupCache(Duration.ofMinutes(1), 10));
+
+        StepVerifier.create(client.lookup("ACC1").then(client.lookup("ACC1"))).expectNextCount(1).verifyComplete();
+        assertEquals(1, calls.get());
+        StepVerifier.create(client.lookupFresh("ACC1")).expectNextCount(1).verifyComplete();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void callsOutsideRequestAreNotTimed() {
+        StepVerifier.create(client(HttpStatus.OK, ACCOUNT_JSON).getAccount(1L))
+                .assertNext(account -> assertEquals("ACC1", account.getAccountNumber()))
+                .verifyComplete();
+    }
+}
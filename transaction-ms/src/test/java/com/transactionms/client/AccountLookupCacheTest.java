@@ -0,0 +1,48 @@
+package com.transactionms.client;
+
+import com.transactionms.client.dto.AccountRef;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLookupCacheTest {
+
+    @Test
+    void hitsMissesAndEvictionsAreCounted() {
+        var cache = new AccountLookupCache(Duration.ofMinutes(1), 2);
+        var registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        assertNull(cache.get("ACC1"));
+        cache.put(ref(1L, "ACC1"));
+        assertEquals(1L, cache.get("ACC1").id());
+        cache.put(ref(2L, "ACC2"));
+        cache.put(ref(3L, "ACC3")); // lleno: desaloja una entrada
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.evictions").functionCounter().count());
+        assertEquals(2.0, registry.get("cache.size").gauge().value());
+    }
+
+    @Test
+    void expiredEntriesAreMissesAndInvalidateRemoves() {
+        var expired = new AccountLookupCache(Duration.ZERO, 10);
+        expired.put(ref(1L, "ACC1"));
+        assertNull(expired.get("ACC1"));
+        assertEquals(0, expired.size());
+
+        var cache = new AccountLookupCache(Duration.ofMinutes(1), 10);
+        cache.put(ref(1L, "ACC1"));
+        cache.invalidate("ACC1");
+        assertNull(cache.get("ACC1"));
+    }
+
+    private static AccountRef ref(Long id, String number) {
+        return new AccountRef(id, number, "SAVINGS", 10L);
+    }
+}
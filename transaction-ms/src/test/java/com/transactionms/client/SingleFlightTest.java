@@ -0,0 +1,52 @@
+package com.transactionms.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallsWithSameKeyShareOneExecution() {
+        var flight = new SingleFlight<String, String>("test");
+        var calls = new AtomicInteger();
+        Sinks.One<String> response = Sinks.one();
+
+        var all = Flux.range(0, 50)
+                .flatMap(i -> flight.execute("ACC1", () -> {
+                    calls.incrementAndGet();
+                    return response.asMono();
+                }))
+                .collectList();
+
+        StepVerifier.create(all)
+                .then(() -> response.tryEmitValue("ok"))
+                .assertNext(values -> assertEquals(50, values.size()))
+                .verifyComplete();
+        assertEquals(1, calls.get());
+        assertEquals(1, flight.executedCount());
+        assertEquals(49, flight.collapsedCount());
+    }
+
+    @Test
+    void keyIsReleasedOnceTheCallCompletes() {
+        var flight = new SingleFlight<String, String>("test");
+        var calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(flight.execute("ACC1", () -> Mono.fromCallable(() -> "v" + calls.incrementAndGet())))
+                    .expectNext("v" + (i + 1))
+                    .verifyComplete();
+        }
+        StepVerifier.create(flight.execute("ACC1", () -> Mono.error(new IllegalStateException("boom"))))
+                .verifyError(IllegalStateException.class);
+        assertEquals(4, flight.executedCount());
+        assertEquals(0, flight.collapsedCount());
+    }
+}
@@ -0,0 +1,32 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.Transaction;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LegacyAmountMigrationTest {
+
+    private final LegacyAmountMigration migration =
+            new LegacyAmountMigration(mock(ObjectProvider.class));
+
+    @Test
+    void legacyDoubleAmountIsReadAsCents() {
+        var tx = Transaction.builder().id("t1").build();
+        var read = Mono.from(migration.onAfterConvert(
+                tx, new Document("_id", "t1").append("amount", 10.29), "transactions")).block();
+        assertEquals(1029L, read.getAmountCents());
+    }
+
+    @Test
+    void amountCentsWinsOverLegacyField() {
+        var tx = Transaction.builder().id("t1").amountCents(500L).build();
+        var doc = new Document("_id", "t1").append("amountCents", 500L).append("amount", 1.0);
+        assertEquals(500L, Mono.from(migration.onAfterConvert(tx, doc, "transactions"))
+                .block().getAmountCents());
+    }
+}
@@ -0,0 +1,93 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.DailyRollup;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.ReplaceOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RollupRepositoryTest {
+
+    private final ReactiveMongoTemplate mongo = mock(ReactiveMongoTemplate.class);
+    private final RollupRepository repository = new RollupRepository(mongo);
+
+    @Test
+    void replaceDayUpsertsEachRollupBeforeRemovingOtherGenerations() {
+        DailyRollup acc1 = rollup("ACC1");
+        DailyRollup acc2 = rollup("ACC2");
+        when(mongo.replace(any(Query.class), any(DailyRollup.class), any(ReplaceOptions.class)))
+                .thenReturn(Mono.empty());
+        when(mongo.remove(any(Query.class), eq(DailyRollup.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.replaceDay("2026-03-31", Flux.just(acc1, acc2)))
+                .expectNext(2L)
+                .verifyComplete();
+
+        var options = ArgumentCaptor.forClass(ReplaceOptions.class);
+        InOrder inOrder = inOrder(mongo);
+        inOrder.verify(mongo).replace(eq(byId(acc1.getId())), eq(acc1), options.capture());
+        inOrder.verify(mongo).replace(eq(byId(acc2.getId())), eq(acc2), options.capture());
+        var removed = ArgumentCaptor.forClass(Query.class);
+        inOrder.verify(mongo).remove(removed.capture(), eq(DailyRollup.class));
+        assertTrue(options.getAllValues().stream().allMatch(ReplaceOptions::isUpsert));
+        // los dos documentos llevan la misma generación y el borrado sólo la excluye a ella
+        String generation = acc1.getGeneration();
+        assertNotNull(generation);
+        assertEquals(generation, acc2.getGeneration());
+        assertEquals(new Document("day", "2026-03-31")
+                        .append("generation", new Document("$ne", generation)),
+                removed.getValue().getQueryObject());
+        verify(mongo, never()).insertAll(anyCollection());
+    }
+
+    @Test
+    void eachRebuildUsesANewGeneration() {
+        when(mongo.replace(any(Query.class), any(DailyRollup.class), any(ReplaceOptions.class)))
+                .thenReturn(Mono.empty());
+        when(mongo.remove(any(Query.class), eq(DailyRollup.class))).thenReturn(Mono.empty());
+        DailyRollup first = rollup("ACC1");
+        DailyRollup second = rollup("ACC1");
+
+        repository.replaceDay("2026-03-31", Flux.just(first)).block();
+        repository.replaceDay("2026-03-31", Flux.just(second)).block();
+
+        assertNotEquals(first.getGeneration(), second.getGeneration());
+    }
+
+    @Test
+    void failedUpsertKeepsTheDayUntouched() {
+        DailyRollup acc1 = rollup("ACC1");
+        when(mongo.replace(any(Query.class), any(DailyRollup.class), any(ReplaceOptions.class)))
+                .thenReturn(Mono.error(new IllegalStateException("mongo caído")));
+        when(mongo.remove(any(Query.class), eq(DailyRollup.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.replaceDay("2026-03-31", Flux.just(acc1)))
+                .verifyError(IllegalStateException.class);
+
+        verify(mongo, never()).remove(any(Query.class), eq(DailyRollup.class));
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    private static DailyRollup rollup(String accountNumber) {
+        return new DailyRollup(DailyRollup.id(accountNumber, "2026-03-31"), accountNumber, "2026-03-31",
+                Map.of("DEPOSIT", new DailyRollup.Totals(1, 100L, 0L)), null);
+    }
+}
@@ -0,0 +1,116 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionRepositoryImplTest {
+
+    private static final Instant FROM = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2025-02-01T00:00:00Z");
+    private static final Document NEWEST_FIRST = new Document("date", -1);
+
+    private final ReactiveMongoTemplate mongo = mock(ReactiveMongoTemplate.class);
+    private final TransactionRepositoryImpl repository = new TransactionRepositoryImpl(mongo);
+
+    @Test
+    void searchWithoutFiltersSortsByDateOnly() {
+        Query query = searchQuery(null, null, null, null);
+        assertTrue(query.getQueryObject().isEmpty());
+        assertEquals(NEWEST_FIRST, query.getSortObject());
+    }
+
+    @Test
+    void searchByAccountMatchesOriginOrDestination() {
+        Query query = searchQuery("ACC1", null, null, null);
+        assertEquals(and(new Document("$or", List.of(
+                        new Document("accountFrom", "ACC1"), new Document("accountTo", "ACC1")))),
+                query.getQueryObject());
+        assertEquals(NEWEST_FIRST, query.getSortObject());
+    }
+
+    @Test
+    void searchByType() {
+        Query query = searchQuery(null, TransactionType.DEPOSIT, null, null);
+        assertEquals(and(new Document("type", TransactionType.DEPOSIT)), query.getQueryObject());
+    }
+
+    @Test
+    void searchByDateRangeIncludesFromAndExcludesTo() {
+        assertEquals(and(new Document("date", new Document("$gte", FROM).append("$lt", TO))),
+                searchQuery(null, null, FROM, TO).getQueryObject());
+        assertEquals(and(new Document("date", new Document("$gte", FROM))),
+                searchQuery(null, null, FROM, null).getQueryObject());
+        assertEquals(and(new Document("date", new Document("$lt", TO))),
+                searchQuery(null, null, null, TO).getQueryObject());
+    }
+
+    @Test
+    void searchWithAllFiltersCombinesThemWithAnd() {
+        Query query = searchQuery("ACC1", TransactionType.TRANSFER, FROM, TO);
+        assertEquals(and(
+                        new Document("$or", List.of(
+                                new Document("accountFrom", "ACC1"), new Document("accountTo", "ACC1"))),
+                        new Document("type", TransactionType.TRANSFER),
+                        new Document("date", new Document("$gte", FROM).append("$lt", TO))),
+                query.getQueryObject());
+        assertEquals(NEWEST_FIRST, query.getSortObject());
+    }
+
+    @Test
+    void streamUsesTheSearchFilterAndReadsInBatches() {
+        var requests = new ArrayList<Long>();
+        when(mongo.find(any(Query.class), eq(Transaction.class))).thenReturn(
+                Flux.range(0, 10).map(i -> Transaction.builder().id("t" + i).build())
+                        .doOnRequest(requests::add));
+
+        StepVerifier.create(repository.stream("ACC1", TransactionType.DEPOSIT, FROM, TO, 4))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongo).find(query.capture(), eq(Transaction.class));
+        assertEquals(4, query.getValue().getMeta().getCursorBatchSize());
+        assertEquals(and(
+                        new Document("$or", List.of(
+                                new Document("accountFrom", "ACC1"), new Document("accountTo", "ACC1"))),
+                        new Document("type", TransactionType.DEPOSIT),
+                        new Document("date", new Document("$gte", FROM).append("$lt", TO))),
+                query.getValue().getQueryObject());
+        assertEquals(NEWEST_FIRST, query.getValue().getSortObject());
+        // aunque el suscriptor pide sin límite, aguas arriba nunca se piden más de 4
+        assertFalse(requests.isEmpty());
+        assertTrue(requests.stream().allMatch(n -> n <= 4), requests::toString);
+    }
+
+    private Query searchQuery(String account, TransactionType type, Instant from, Instant to) {
+        var tx = Transaction.builder().id("t1").build();
+        when(mongo.find(any(Query.class), eq(Transaction.class))).thenReturn(Flux.just(tx));
+
+        StepVerifier.create(repository.search(account, type, from, to)).expectNext(tx).verifyComplete();
+
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongo).find(query.capture(), eq(Transaction.class));
+        clearInvocations(mongo);
+        return query.getValue();
+    }
+
+    private static Document and(Document... filters) {
+        return new Document("$and", List.of(filters));
+    }
+}
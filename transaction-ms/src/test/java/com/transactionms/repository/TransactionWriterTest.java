@@ -0,0 +1,136 @@
+package com.transactionms.repository;
+
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class TransactionWriterTest {
+
+    private final TransactionRepository repository = mock(TransactionRepository.class);
+    private final ReactiveMongoTemplate mongo = mock(ReactiveMongoTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TransactionWriter writer;
+
+    @AfterEach
+    void stop() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void disabledDelegatesToRepositorySave() {
+        var tx = tx();
+        when(repository.save(tx)).thenReturn(Mono.just(tx));
+        writer = new TransactionWriter(repository, mongo, registry, false, 10, Duration.ofMillis(5), Duration.ofSeconds(5));
+        writer.start();
+
+        StepVerifier.create(writer.save(tx)).expectNext(tx).verifyComplete();
+        verifyNoInteractions(mongo);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentSavesAreFlushedInBatches() {
+        when(mongo.insertAll(anyCollection()))
+                .thenAnswer(i -> Flux.fromIterable((Collection<Transaction>) i.getArgument(0)));
+        writer = new TransactionWriter(repository, mongo, registry, true, 4, Duration.ofMillis(20), Duration.ofSeconds(5));
+        writer.start();
+
+        var saved = Flux.range(0, 10).flatMap(i -> writer.save(tx())).collectList();
+
+        StepVerifier.create(saved)
+                .assertNext(list -> {
+                    assertEquals(10, list.size());
+                    assertTrue(list.stream().allMatch(t -> t.getId() != null));
+                })
+                .verifyComplete();
+        var sizes = registry.get("transaction.write.batch.size").summary();
+        assertEquals(10.0, sizes.totalAmount());
+        assertTrue(sizes.max() <= 4.0);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void failedBatchFallsBackToSingleInserts() {
+        var ok = tx();
+        var alreadyWritten = tx();
+        var broken = tx();
+        when(mongo.insertAll(anyCollection())).thenReturn(Flux.error(new DataAccessResourceFailureException("down")));
+        when(mongo.insert(ok)).thenReturn(Mono.just(ok));
+        when(mongo.insert(alreadyWritten)).thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        when(mongo.insert(broken)).thenReturn(Mono.error(new DataAccessResourceFailureException("down")));
+        writer = new TransactionWriter(repository, mongo, registry, true, 3, Duration.ofSeconds(5), Duration.ofSeconds(5));
+        writer.start();
+
+        var results = Flux.fromIterable(List.of(ok, alreadyWritten, broken))
+                .flatMap(t -> writer.save(t).map(x -> "ok").onErrorReturn("error"))
+                .collectList();
+
+        StepVerifier.create(results)
+                .assertNext(list -> {
+                    assertEquals(2, list.stream().filter("ok"::equals).count());
+                    assertEquals(1, list.stream().filter("error"::equals).count());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void unexpectedBatchErrorFailsOnlyThatBatch() {
+        when(mongo.insertAll(anyCollection()))
+                .thenThrow(new IllegalStateException("bug"))
+                .thenAnswer(i -> Flux.fromIterable((Collection<Transaction>) i.getArgument(0)));
+        writer = new TransactionWriter(repository, mongo, registry, true, 1, Duration.ofMillis(5),
+                Duration.ofSeconds(5));
+        writer.start();
+
+        StepVerifier.create(writer.save(tx())).verifyError();
+        // el pipeline sigue vivo para los lotes siguientes
+        StepVerifier.create(writer.save(tx())).expectNextCount(1).verifyComplete();
+        assertEquals(0.0, registry.get("transaction.write.queue.size").gauge().value());
+    }
+
+    @Test
+    void callerStopsWaitingAfterTimeout() {
+        when(mongo.insertAll(anyCollection())).thenReturn(Flux.never());
+        writer = new TransactionWriter(repository, mongo, registry, true, 1, Duration.ofMillis(5),
+                Duration.ofMillis(100));
+        writer.start();
+
+        StepVerifier.create(writer.save(tx())).verifyError(TimeoutException.class);
+    }
+
+    @Test
+    void saveAfterStopFailsWithoutLeavingItPending() {
+        writer = new TransactionWriter(repository, mongo, registry, true, 1, Duration.ofMillis(5),
+                Duration.ofSeconds(5));
+        writer.start();
+        writer.stop();
+
+        StepVerifier.create(writer.save(tx())).verifyError(IllegalStateException.class);
+        assertEquals(0.0, registry.get("transaction.write.queue.size").gauge().value());
+    }
+
+    private static Transaction tx() {
+        return Transaction.builder().type(TransactionType.DEPOSIT).accountTo("ACC1").amountCents(100L).build();
+    }
+}
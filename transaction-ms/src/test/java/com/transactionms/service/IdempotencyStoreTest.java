@@ -0,0 +1,184 @@
+package com.transactionms.service;
+
+import com.transactionms.exceptions.AccountNotFoundException;
+import com.transactionms.exceptions.IdempotencyKeyInDoubtException;
+import com.transactionms.exceptions.IdempotencyKeyInProgressException;
+import com.transactionms.exceptions.IdempotencyKeyReusedException;
+import com.transactionms.exceptions.InvalidTransactionException;
+import com.transactionms.repository.IdempotencyRepository;
+import com.transactionms.repository.model.IdempotencyRecord;
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyRepository repository;
+    private IdempotencyStore store;
+    private final Transaction tx = Transaction.builder()
+            .id("tx1").type(TransactionType.DEPOSIT).accountTo("ACC1").amountCents(1_000L).build();
+
+    @BeforeEach
+    void init() {
+        repository = mock(IdempotencyRepository.class);
+        when(repository.insert(any(IdempotencyRecord.class))).thenAnswer(i -> Mono.just(i.getArgument(0)));
+        when(repository.save(any(IdempotencyRecord.class))).thenAnswer(i -> Mono.just(i.getArgument(0)));
+        when(repository.deleteById(any(String.class))).thenReturn(Mono.empty());
+        store = new IdempotencyStore(repository, 100, Duration.ofMillis(300));
+    }
+
+    @Test
+    void retryReturnsStoredTransactionWithoutRunningAgain() {
+        var runs = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(store.execute("k1", "deposito:ACC1:1000",
+                            () -> Mono.fromCallable(() -> { runs.incrementAndGet(); return tx; })))
+                    .expectNext(tx)
+                    .verifyComplete();
+        }
+        assertEquals(1, runs.get());
+        verify(repository, times(1)).insert(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstExecution() {
+        var runs = new AtomicInteger();
+        Sinks.One<Transaction> accountMs = Sinks.one();
+
+        var all = Flux.range(0, 20)
+                .flatMap(i -> store.execute("k2", "deposito:ACC1:1000", () -> {
+                    runs.incrementAndGet();
+                    return accountMs.asMono();
+                }))
+                .collectList();
+
+        StepVerifier.create(all)
+                .then(() -> accountMs.tryEmitValue(tx))
+                .assertNext(list -> assertEquals(20, list.size()))
+                .verifyComplete();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void keyStoredByAnotherInstanceIsReplayedFromMongo() {
+        when(repository.insert(any(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        when(repository.findById("k3")).thenReturn(Mono.just(IdempotencyRecord.builder()
+                .key("k3").fingerprint("deposito:ACC1:1000").transaction(tx).build()));
+
+        StepVerifier.create(store.execute("k3", "deposito:ACC1:1000", () -> Mono.error(new AssertionError())))
+                .expectNext(tx)
+                .verifyComplete();
+    }
+
+    @Test
+    void reusingKeyForAnotherOperationIsRejected() {
+        StepVerifier.create(store.execute("k4", "deposito:ACC1:1000", () -> Mono.just(tx)))
+                .expectNext(tx)
+                .verifyComplete();
+        StepVerifier.create(store.execute("k4", "retiro:ACC1:1000", () -> Mono.just(tx)))
+                .verifyError(InvalidTransactionException.class);
+    }
+
+    @Test
+    void concurrentDuplicateWithAnotherOperationIsRejectedWithoutWaiting() {
+        Sinks.One<Transaction> accountMs = Sinks.one();
+        var first = store.execute("k8", "deposito:ACC1:1000", accountMs::asMono).subscribe();
+
+        StepVerifier.create(store.execute("k8", "retiro:ACC1:1000", () -> Mono.error(new AssertionError())))
+                .verifyError(IdempotencyKeyReusedException.class);
+
+        accountMs.tryEmitValue(tx);
+        first.dispose();
+    }
+
+    @Test
+    void failureBeforeAnySideEffectReleasesTheKey() {
+        StepVerifier.create(store.execute("k5", "deposito:ACC1:1000",
+                        () -> Mono.error(new AccountNotFoundException("Cuenta destino no encontrada"))))
+                .verifyError(AccountNotFoundException.class);
+        verify(repository).deleteById("k5");
+
+        StepVerifier.create(store.execute("k5", "deposito:ACC1:1000", () -> Mono.just(tx)))
+                .expectNext(tx)
+                .verifyComplete();
+    }
+
+    @Test
+    void failureWithUnknownOutcomeKeepsTheKeyAsFailed() {
+        StepVerifier.create(store.execute("k6", "deposito:ACC1:1000",
+                        () -> Mono.error(new IllegalStateException("account-ms caído"))))
+                .verifyError(IllegalStateException.class);
+        verify(repository, never()).deleteById("k6");
+        var saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).save(saved.capture());
+        assertNotNull(saved.getValue().getFailure());
+
+        // el reintento encuentra el registro fallido y no vuelve a mover dinero
+        when(repository.insert(any(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        when(repository.findById("k6")).thenReturn(Mono.just(saved.getValue()));
+        var runs = new AtomicInteger();
+        StepVerifier.create(store.execute("k6", "deposito:ACC1:1000",
+                        () -> Mono.fromCallable(() -> { runs.incrementAndGet(); return tx; })))
+                .verifyError(IdempotencyKeyInDoubtException.class);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void keyStillRunningElsewhereAfterTheWaitIsAConflict() {
+        when(repository.insert(any(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        when(repository.findById("k7")).thenReturn(Mono.just(IdempotencyRecord.builder()
+                .key("k7").fingerprint("deposito:ACC1:1000").build()));
+
+        StepVerifier.create(store.execute("k7", "deposito:ACC1:1000", () -> Mono.error(new AssertionError())))
+                .verifyError(IdempotencyKeyInProgressException.class);
+    }
+
+    @Test
+    void keyReleasedByAnotherInstanceWhileWaitingRunsHere() {
+        when(repository.insert(any(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("dup")))
+                .thenAnswer(i -> Mono.just(i.getArgument(0)));
+        // la otra instancia falló antes de mover dinero y borró el registro
+        when(repository.findById("k8")).thenReturn(Mono.empty());
+
+        StepVerifier.create(store.execute("k8", "deposito:ACC1:1000", () -> Mono.just(tx)))
+                .expectNext(tx)
+                .verifyComplete();
+        verify(repository, times(2)).insert(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void repositoryErrorsWhileWaitingAreNotReportedAsInProgress() {
+        when(repository.insert(any(IdempotencyRecord.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        when(repository.findById("k9")).thenReturn(Mono.error(new IllegalStateException("mongo caído")));
+
+        StepVerifier.create(store.execute("k9", "deposito:ACC1:1000", () -> Mono.error(new AssertionError())))
+                .verifyErrorMessage("mongo caído");
+    }
+
+    @Test
+    void withoutKeyTheOperationAlwaysRuns() {
+        StepVerifier.create(store.execute(null, "deposito:ACC1:1000", () -> Mono.just(tx)))
+                .expectNext(tx)
+                .verifyComplete();
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,168 @@
+package com.transactionms.service;
+
+import com.transactionms.client.AccountClient;
+import com.transactionms.client.dto.AccountDto;
+import com.transactionms.exceptions.AccountNotFoundException;
+import com.transactionms.repository.LedgerRepository;
+import com.transactionms.repository.model.BalanceSnapshot;
+import com.transactionms.repository.model.LedgerAccount;
+import com.transactionms.repository.model.LedgerEntry;
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class LedgerServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final LedgerRepository repository = mock(LedgerRepository.class);
+    private final AccountClient accountClient = mock(AccountClient.class);
+    private final LedgerService ledger =
+            new LedgerService(repository, accountClient, true, 3, Duration.ZERO, Duration.ZERO, 4);
+
+    @Test
+    void openSeedsNewLedgersWithTheCurrentBalanceInAccountMs() {
+        when(repository.account("ACC1")).thenReturn(Mono.just(new LedgerAccount("ACC1", 7L, 500L)));
+        when(repository.account("ACC2")).thenReturn(Mono.empty());
+        AccountDto acc2 = new AccountDto();
+        acc2.setBalanceCents(2_500L);
+        when(accountClient.getByAccountNumber("ACC2")).thenReturn(Mono.just(acc2));
+        when(repository.open("ACC2", 2_500L)).thenReturn(Mono.just(new LedgerAccount("ACC2", 0L, 2_500L)));
+
+        StepVerifier.create(ledger.open("ACC1", "ACC2")).verifyComplete();
+
+        verify(repository).open("ACC2", 2_500L);
+        verify(repository, never()).open(eq("ACC1"), anyLong());
+        verify(accountClient, never()).getByAccountNumber("ACC1");
+    }
+
+    @Test
+    void appendAssignsTheNextSequenceOfEachAccount() {
+        when(repository.nextSequence("ACC1")).thenReturn(Mono.just(7L));
+        when(repository.nextSequence("ACC2")).thenReturn(Mono.just(1L));
+        Transaction tx = Transaction.builder()
+                .type(TransactionType.TRANSFER).accountFrom("ACC1").accountTo("ACC2").amountCents(2_500L).build();
+
+        StepVerifier.create(ledger.append(tx))
+                .assertNext(t -> {
+                    assertEquals(7L, t.getSequenceFrom());
+                    assertEquals(1L, t.getSequenceTo());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void appendToAnUnopenedLedgerFails() {
+        when(repository.nextSequence("ACC1")).thenReturn(Mono.empty());
+        Transaction tx = Transaction.builder().accountTo("ACC1").amountCents(100L).build();
+
+        StepVerifier.create(ledger.append(tx)).verifyError(IllegalStateException.class);
+    }
+
+    @Test
+    void balanceAtReplaysFromNearestSnapshotUntilTheInstant() {
+        when(repository.account("ACC1")).thenReturn(Mono.just(new LedgerAccount("ACC1", 8L, 1_000L)));
+        Instant at = T0.plusSeconds(7);
+        when(repository.latestSnapshot("ACC1", at))
+                .thenReturn(Mono.just(BalanceSnapshot.of("ACC1", 6L, 5_000L, T0.plusSeconds(6))));
+        when(repository.entriesAfter("ACC1", 6L)).thenReturn(Flux.just(
+                entry(7, -200L), entry(8, 300L))); // el 8 es posterior a "at"
+
+        StepVerifier.create(ledger.balanceAt("ACC1", at))
+                .assertNext(b -> {
+                    assertEquals(4_800L, b.balanceCents());
+                    assertEquals(7L, b.sequence());
+                    assertEquals(6L, b.snapshotSequence());
+                    assertEquals(1L, b.replayed());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void balanceAtWithoutSnapshotStartsFromOpeningBalance() {
+        when(repository.account("ACC1")).thenReturn(Mono.just(new LedgerAccount("ACC1", 2L, 1_000L)));
+        when(repository.latestSnapshot(eq("ACC1"), any())).thenReturn(Mono.empty());
+        when(repository.entriesAfter("ACC1", 0L)).thenReturn(Flux.just(entry(1, 500L), entry(2, -250L)));
+
+        StepVerifier.create(ledger.balanceAt("ACC1", T0.plusSeconds(60)))
+                .assertNext(b -> assertEquals(1_250L, b.balanceCents()))
+                .verifyComplete();
+    }
+
+    @Test
+    void balanceAtUnknownAccountIsNotFound() {
+        when(repository.account("NOPE")).thenReturn(Mono.empty());
+
+        StepVerifier.create(ledger.balanceAt("NOPE", T0)).verifyError(AccountNotFoundException.class);
+    }
+
+    @Test
+    void snapshotAllCutsEveryNMovementsAcrossGapsAndSkipsUpToDateAccounts() {
+        when(repository.accounts()).thenReturn(Flux.just(
+                new LedgerAccount("ACC1", 8L, 1_000L),
+                new LedgerAccount("ACC2", 4L, 0L)));
+        when(repository.latestSnapshot(eq("ACC1"), isNull())).thenReturn(Mono.empty());
+        // la secuencia 3 falló al escribirse: el corte pasa al 4
+        when(repository.entriesAfter("ACC1", 0L)).thenReturn(Flux.just(
+                entry(1, 100L), entry(2, 100L), entry(4, 100L), entry(5, 100L),
+                entry(6, 100L), entry(7, 100L), entry(8, 100L)));
+        when(repository.latestSnapshot(eq("ACC2"), isNull()))
+                .thenReturn(Mono.just(BalanceSnapshot.of("ACC2", 3L, 700L, T0)));
+        List<BalanceSnapshot> saved = new ArrayList<>();
+        when(repository.saveSnapshot(any())).thenAnswer(i -> {
+            saved.add(i.getArgument(0));
+            return Mono.just(i.getArgument(0));
+        });
+
+        StepVerifier.create(ledger.snapshotAll(false))
+                .assertNext(run -> {
+                    assertEquals(2L, run.accounts());
+                    assertEquals(2L, run.snapshots());
+                    assertEquals(7L, run.entriesReplayed());
+                })
+                .verifyComplete();
+
+        assertEquals(List.of(
+                BalanceSnapshot.of("ACC1", 4L, 1_300L, T0.plusSeconds(4)),
+                BalanceSnapshot.of("ACC1", 6L, 1_500L, T0.plusSeconds(6))), saved);
+        verify(repository, never()).entriesAfter(eq("ACC2"), anyLong());
+    }
+
+    @Test
+    void rebuildDropsSnapshotsAndReplaysFromOpening() {
+        when(repository.accounts()).thenReturn(Flux.just(new LedgerAccount("ACC1", 3L, 0L)));
+        when(repository.deleteSnapshots("ACC1")).thenReturn(Mono.just(5L));
+        when(repository.entriesAfter("ACC1", 0L)).thenReturn(Flux.just(
+                entry(1, 100L), entry(2, 100L), entry(3, 100L)));
+        when(repository.saveSnapshot(any())).thenAnswer(i -> Mono.just(i.getArgument(0)));
+
+        StepVerifier.create(ledger.snapshotAll(true))
+                .assertNext(run -> assertEquals(1L, run.snapshots()))
+                .verifyComplete();
+
+        ArgumentCaptor<BalanceSnapshot> snapshot = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(repository).saveSnapshot(snapshot.capture());
+        assertEquals(300L, snapshot.getValue().getBalanceCents());
+        verify(repository, never()).latestSnapshot(any(), any());
+    }
+
+    private static LedgerEntry entry(long seq, long deltaCents) {
+        return new LedgerEntry(seq, deltaCents, T0.plusSeconds(seq));
+    }
+}
@@ -0,0 +1,101 @@
+package com.transactionms.service;
+
+import com.transactionms.repository.RollupRepository;
+import com.transactionms.repository.model.DailyRollup;
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RollupServiceTest {
+
+    private final RollupRepository repository = mock(RollupRepository.class);
+    private final RollupService rollups = new RollupService(repository, true, 2);
+
+    @Test
+    void summaryAddsDailyTotalsByType() {
+        when(repository.range("ACC1", "2026-03-01", "2026-03-31")).thenReturn(Flux.just(
+                day("2026-03-02", Map.of("DEPOSIT", new DailyRollup.Totals(2, 5_000L, 0L))),
+                day("2026-03-15", Map.of(
+                        "DEPOSIT", new DailyRollup.Totals(1, 1_000L, 0L),
+                        "TRANSFER", new DailyRollup.Totals(3, 200L, 1_500L)))));
+
+        StepVerifier.create(rollups.summary("ACC1", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)))
+                .assertNext(s -> {
+                    assertEquals(2L, s.days());
+                    assertEquals(new DailyRollup.Totals(3, 6_000L, 0L), s.types().get("DEPOSIT"));
+                    assertEquals(new DailyRollup.Totals(3, 200L, 1_500L), s.types().get("TRANSFER"));
+                    assertEquals(6_200L, s.creditCents());
+                    assertEquals(1_500L, s.debitCents());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void failedIncrementDoesNotFailTheTransaction() {
+        Transaction tx = Transaction.builder().type(TransactionType.DEPOSIT).accountTo("ACC1")
+                .amountCents(100L).date(Instant.now()).build();
+        when(repository.add(tx)).thenReturn(Mono.error(new IllegalStateException("mongo caído")));
+
+        StepVerifier.create(rollups.add(tx)).verifyComplete();
+    }
+
+    @Test
+    void disabledRollupsAreNotWritten() {
+        RollupService off = new RollupService(repository, false, 2);
+
+        StepVerifier.create(off.add(new Transaction())).verifyComplete();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void rebuildReplacesEveryDayFromTheFirstTransaction() {
+        when(repository.firstTransactionDate()).thenReturn(Mono.just(Instant.parse("2026-03-30T23:59:00Z")));
+        when(repository.aggregate(any())).thenReturn(Flux.empty());
+        when(repository.aggregate(LocalDate.of(2026, 3, 31))).thenReturn(Flux.just(
+                day("2026-03-31", Map.of()), day("2026-03-31", Map.of())));
+        when(repository.replaceDay(any(), any())).thenAnswer(i -> i.<Flux<?>>getArgument(1).count());
+
+        StepVerifier.create(rollups.rebuild(null, LocalDate.of(2026, 4, 1)))
+                .assertNext(run -> {
+                    assertEquals(3L, run.days());
+                    assertEquals(2L, run.rollups());
+                })
+                .verifyComplete();
+
+        verify(repository).replaceDay(eq("2026-03-30"), any());
+        verify(repository).replaceDay(eq("2026-04-01"), any());
+    }
+
+    @Test
+    void rebuildWithoutUpperBoundStopsYesterday() {
+        Clock clock = Clock.fixed(Instant.parse("2026-04-02T10:00:00Z"), ZoneOffset.UTC);
+        RollupService rollups = new RollupService(repository, true, 2, clock);
+        when(repository.aggregate(any())).thenReturn(Flux.empty());
+        when(repository.replaceDay(any(), any())).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(rollups.rebuild(LocalDate.of(2026, 3, 31), null))
+                .assertNext(run -> assertEquals(2L, run.days()))
+                .verifyComplete();
+
+        verify(repository).replaceDay(eq("2026-04-01"), any());
+        verify(repository, never()).replaceDay(eq("2026-04-02"), any());
+    }
+
+    private static DailyRollup day(String day, Map<String, DailyRollup.Totals> types) {
+        return new DailyRollup(DailyRollup.id("ACC1", day), "ACC1", day, types, null);
+    }
+}
@@ -0,0 +1,177 @@
+package com.transactionms.service.impl;
+
+import com.transactionms.client.AccountClient;
+import com.transactionms.client.dto.AccountDto;
+import com.transactionms.client.dto.AccountRef;
+import com.transactionms.exceptions.AccountNotFoundException;
+import com.transactionms.exceptions.InsufficientFundsException;
+import com.transactionms.repository.TransactionRepository;
+import com.transactionms.repository.TransactionWriter;
+import com.transactionms.repository.model.Transaction;
+import com.transactionms.repository.model.TransactionType;
+import com.transactionms.service.LedgerService;
+import com.transactionms.service.RollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionServiceImplTest {
+
+    private TransactionRepository repository;
+    private AccountClient accountClient;
+    private TransactionWriter writer;
+    private LedgerService ledger;
+    private RollupService rollups;
+    private SimpleMeterRegistry registry;
+    private TransactionServiceImpl service;
+
+    @BeforeEach
+    void init() {
+        repository = mock(TransactionRepository.class);
+        accountClient = mock(AccountClient.class);
+        writer = mock(TransactionWriter.class);
+        ledger = mock(LedgerService.class);
+        rollups = mock(RollupService.class);
+        when(rollups.add(any())).thenReturn(Mono.empty());
+        when(ledger.open(any(String[].class))).thenReturn(Mono.empty());
+        registry = new SimpleMeterRegistry();
+        service = new TransactionServiceImpl(repository, writer, accountClient, ledger, rollups, registry);
+        ReflectionTestUtils.setField(service, "exportBatchSize", 250);
+    }
+
+    @Test
+    void successfulWithdrawIsTimedWithSuccessOutcome() {
+        when(accountClient.lookup("ACC1")).thenReturn(Mono.just(new AccountRef(1L, "ACC1", "SAVINGS", 7L)));
+        when(accountClient.withdrawByAccountNumber("ACC1", 500L)).thenReturn(Mono.just(new AccountDto()));
+        when(writer.save(any(Transaction.class))).thenAnswer(i -> Mono.just(i.getArgument(0)));
+
+        StepVerifier.create(service.withdraw("ACC1", 500L)).expectNextCount(1).verifyComplete();
+
+        verify(rollups).add(argThat(tx -> "ACC1".equals(tx.getAccountFrom()) && tx.getAmountCents() == 500L));
+        assertEquals(1, registry.get("transaction.service")
+                .tags("operation", "withdraw", "outcome", "success").timer().count());
+        assertTrue(registry.find("transaction.rejections").counters().isEmpty());
+    }
+
+    @Test
+    void rejectionsAreCountedByReason() {
+        when(accountClient.lookup("NOPE")).thenReturn(Mono.empty());
+        when(accountClient.lookup("ACC1")).thenReturn(Mono.just(new AccountRef(1L, "ACC1", "SAVINGS", 7L)));
+        when(accountClient.withdrawByAccountNumber("ACC1", 500L)).thenReturn(Mono.error(
+                WebClientResponseException.create(HttpStatus.BAD_REQUEST.value(), "Bad Request", null, null, null)));
+
+        StepVerifier.create(service.deposit("NOPE", 100L)).verifyError(AccountNotFoundException.class);
+        StepVerifier.create(service.withdraw("ACC1", 500L)).verifyError(InsufficientFundsException.class);
+        StepVerifier.create(service.transfer("ACC1", "ACC1", 100L)).verifyError();
+
+        assertEquals(1.0, registry.get("transaction.rejections")
+                .tags("operation", "deposit", "reason", "not_found").counter().count());
+        assertEquals(1.0, registry.get("transaction.rejections")
+                .tags("operation", "withdraw", "reason", "insufficient_funds").counter().count());
+        assertEquals(1.0, registry.get("transaction.rejections")
+                .tags("operation", "transfer", "reason", "invalid").counter().count());
+        assertEquals(1, registry.get("transaction.service")
+                .tags("operation", "deposit", "outcome", "not_found").timer().count());
+        verifyNoInteractions(writer);
+    }
+
+    @Test
+    void transferInLedgerModeOpensBothLedgersBeforeMovingMoney() {
+        when(accountClient.lookup("ACC1")).thenReturn(Mono.just(new AccountRef(1L, "ACC1", "SAVINGS", 7L)));
+        when(accountClient.lookupFresh("ACC2")).thenReturn(Mono.just(new AccountRef(2L, "ACC2", "SAVINGS", 8L)));
+        when(accountClient.withdraw(1L, 500L)).thenReturn(Mono.just(account(9_500L)));
+        when(accountClient.deposit(2L, 500L)).thenReturn(Mono.just(account(1_500L)));
+        when(ledger.isEnabled()).thenReturn(true);
+        when(ledger.append(any(Transaction.class))).thenAnswer(i -> {
+            Transaction tx = i.getArgument(0);
+            tx.setSequenceFrom(4L);
+            tx.setSequenceTo(1L);
+            return Mono.just(tx);
+        });
+        when(writer.save(any(Transaction.class))).thenAnswer(i -> Mono.just(i.getArgument(0)));
+
+        StepVerifier.create(service.transfer("ACC1", "ACC2", 500L))
+                .assertNext(tx -> {
+                    assertEquals(4L, tx.getSequenceFrom());
+                    assertEquals(1L, tx.getSequenceTo());
+                })
+                .verifyComplete();
+        var order = inOrder(ledger, accountClient);
+        order.verify(ledger).open("ACC1", "ACC2");
+        order.verify(accountClient).withdraw(1L, 500L);
+    }
+
+    @Test
+    void rejectedDepositInTransferRefundsTheOrigin() {
+        when(accountClient.lookup("ACC1")).thenReturn(Mono.just(new AccountRef(1L, "ACC1", "SAVINGS", 7L)));
+        when(accountClient.lookupFresh("ACC2")).thenReturn(Mono.just(new AccountRef(2L, "ACC2", "SAVINGS", 8L)));
+        when(accountClient.withdraw(1L, 500L)).thenReturn(Mono.just(account(9_500L)));
+        when(accountClient.deposit(2L, 500L)).thenReturn(Mono.error(
+                WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null)));
+        when(accountClient.deposit(1L, 500L)).thenReturn(Mono.just(account(10_000L)));
+
+        StepVerifier.create(service.transfer("ACC1", "ACC2", 500L)).verifyError(AccountNotFoundException.class);
+
+        verify(accountClient).deposit(1L, 500L);
+        verify(accountClient, never()).lookup("ACC2");
+        verifyNoInteractions(writer);
+    }
+
+    @Test
+    void depositServerErrorInTransferIsNotRefunded() {
+        when(accountClient.lookup("ACC1")).thenReturn(Mono.just(new AccountRef(1L, "ACC1", "SAVINGS", 7L)));
+        when(accountClient.lookupFresh("ACC2")).thenReturn(Mono.just(new AccountRef(2L, "ACC2", "SAVINGS", 8L)));
+        when(accountClient.withdraw(1L, 500L)).thenReturn(Mono.just(account(9_500L)));
+        when(accountClient.deposit(2L, 500L)).thenReturn(Mono.error(WebClientResponseException.create(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal Server Error", null, null, null)));
+
+        StepVerifier.create(service.transfer("ACC1", "ACC2", 500L))
+                .verifyError(WebClientResponseException.InternalServerError.class);
+
+        // el depósito pudo aplicarse: devolverlo podría duplicar el importe
+        verify(accountClient, never()).deposit(1L, 500L);
+    }
+
+    @Test
+    void exportStreamsWholeDaysInConfiguredBatches() {
+        var tx = Transaction.builder().id("t1").build();
+        when(repository.stream(any(), any(), any(), any(), anyInt())).thenReturn(Flux.just(tx));
+
+        StepVerifier.create(service.export("ACC1", "deposit",
+                        LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)))
+                .expectNext(tx)
+                .verifyComplete();
+
+        verify(repository).stream("ACC1", TransactionType.DEPOSIT, Instant.parse("2025-01-01T00:00:00Z"),
+                Instant.parse("2025-02-01T00:00:00Z"), 250);
+    }
+
+    @Test
+    void exportWithUnknownTypeIsEmptyWithoutQuerying() {
+        StepVerifier.create(service.export(null, "nope", null, null)).verifyComplete();
+        StepVerifier.create(service.history(null, "nope", null, null)).verifyComplete();
+        verifyNoInteractions(repository);
+    }
+
+    private static AccountDto account(long balanceCents) {
+        AccountDto dto = new AccountDto();
+        dto.setBalanceCents(balanceCents);
+        return dto;
+    }
+}